@@ -3,12 +3,23 @@ package com.tutorialapi.db;
 import com.tutorialapi.db.service.ApiKeyService;
 import com.tutorialapi.db.service.TodoItemService;
 import com.tutorialapi.db.service.TodoListService;
+import com.tutorialapi.db.service.cache.CachingApiKeyService;
+import com.tutorialapi.db.service.cache.CachingTodoItemService;
+import com.tutorialapi.db.service.cache.CachingTodoListService;
+import com.tutorialapi.db.service.cache.TodoCache;
 import com.tutorialapi.db.service.sqlite.SqliteApiKeyService;
 import com.tutorialapi.db.service.sqlite.SqliteTodoItemService;
 import com.tutorialapi.db.service.sqlite.SqliteTodoListService;
+import com.tutorialapi.db.service.timing.TimingApiKeyService;
+import com.tutorialapi.db.service.timing.TimingTodoItemService;
+import com.tutorialapi.db.service.timing.TimingTodoListService;
+import com.tutorialapi.db.statement.StatementCache;
+import com.tutorialapi.db.writer.DirectSqliteWriter;
+import com.tutorialapi.db.writer.SqliteWriter;
 import org.flywaydb.core.Flyway;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 
 public class DefaultServiceFactory implements ServiceFactory {
     private final ApiKeyService apiKeyService;
@@ -16,15 +27,54 @@ public class DefaultServiceFactory implements ServiceFactory {
     private final TodoItemService todoItemService;
 
     public DefaultServiceFactory(DataSource dataSource) {
+        this(dataSource, dataSource);
+    }
+
+    public DefaultServiceFactory(DataSource readDataSource, DataSource writeDataSource) {
+        this(readDataSource, writeDataSource, new DirectSqliteWriter(writeDataSource));
+    }
+
+    public DefaultServiceFactory(DataSource readDataSource, DataSource writeDataSource, SqliteWriter writer) {
+        this(readDataSource, writeDataSource, writer, new StatementCache());
+    }
+
+    public DefaultServiceFactory(DataSource readDataSource, DataSource writeDataSource, SqliteWriter writer,
+                                 StatementCache statementCache) {
+        this(readDataSource, writeDataSource, writer, statementCache, null);
+    }
+
+    public DefaultServiceFactory(DataSource readDataSource, DataSource writeDataSource, SqliteWriter writer,
+                                 StatementCache statementCache, TodoCache todoCache) {
+        this(readDataSource, writeDataSource, writer, statementCache, todoCache,
+                CachingApiKeyService.DEFAULT_MAXIMUM_SIZE, CachingApiKeyService.DEFAULT_EXPIRATION);
+    }
+
+    public DefaultServiceFactory(DataSource readDataSource, DataSource writeDataSource, SqliteWriter writer,
+                                 StatementCache statementCache, TodoCache todoCache, long apiKeyCacheSize,
+                                 Duration apiKeyCacheExpiration) {
         Flyway.configure()
-                .dataSource(dataSource)
+                .dataSource(writeDataSource)
                 .locations("db/migration/todo")
                 .load()
                 .migrate();
 
-        apiKeyService = new SqliteApiKeyService(dataSource);
-        todoListService = new SqliteTodoListService(dataSource);
-        todoItemService = new SqliteTodoItemService(dataSource);
+        // Timed beneath the caches so a cache hit never counts as database time
+        ApiKeyService sqliteApiKeyService =
+                new TimingApiKeyService(new SqliteApiKeyService(readDataSource, writer, statementCache));
+        apiKeyService = apiKeyCacheSize > 0
+                ? new CachingApiKeyService(sqliteApiKeyService, apiKeyCacheSize, apiKeyCacheExpiration)
+                : sqliteApiKeyService;
+        TodoListService sqliteTodoListService =
+                new TimingTodoListService(new SqliteTodoListService(readDataSource, writer, statementCache));
+        TodoItemService sqliteTodoItemService =
+                new TimingTodoItemService(new SqliteTodoItemService(readDataSource, writer, statementCache));
+        if (todoCache == null) {
+            todoListService = sqliteTodoListService;
+            todoItemService = sqliteTodoItemService;
+        } else {
+            todoListService = new CachingTodoListService(sqliteTodoListService, todoCache);
+            todoItemService = new CachingTodoItemService(sqliteTodoItemService, todoCache);
+        }
     }
 
     @Override
@@ -0,0 +1,102 @@
+package com.tutorialapi.db;
+
+import java.util.Properties;
+
+public class SqliteSettings {
+    public static final String QUERY_ONLY_SQL = "PRAGMA query_only = ON";
+
+    private static final String WAL = "WAL";
+    private static final String SQLITE_OPEN_READONLY = "1";
+
+    private String journalMode;
+    private String synchronous;
+    private String mmapSize;
+    private String cacheSize;
+    private String tempStore;
+    private String busyTimeout;
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public SqliteSettings setJournalMode(String journalMode) {
+        this.journalMode = journalMode;
+        return this;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public SqliteSettings setSynchronous(String synchronous) {
+        this.synchronous = synchronous;
+        return this;
+    }
+
+    public String getMmapSize() {
+        return mmapSize;
+    }
+
+    public SqliteSettings setMmapSize(String mmapSize) {
+        this.mmapSize = mmapSize;
+        return this;
+    }
+
+    public String getCacheSize() {
+        return cacheSize;
+    }
+
+    public SqliteSettings setCacheSize(String cacheSize) {
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public SqliteSettings setTempStore(String tempStore) {
+        this.tempStore = tempStore;
+        return this;
+    }
+
+    public String getBusyTimeout() {
+        return busyTimeout;
+    }
+
+    public SqliteSettings setBusyTimeout(String busyTimeout) {
+        this.busyTimeout = busyTimeout;
+        return this;
+    }
+
+    public boolean isWriteAheadLog() {
+        return WAL.equalsIgnoreCase(journalMode);
+    }
+
+    public Properties toProperties() {
+        // The sqlite driver applies these pragmas each time it opens a connection
+        Properties properties = new Properties();
+        setProperty(properties, "journal_mode", journalMode);
+        setProperty(properties, "synchronous", synchronous);
+        setProperty(properties, "mmap_size", mmapSize);
+        setProperty(properties, "cache_size", cacheSize);
+        setProperty(properties, "temp_store", tempStore);
+        setProperty(properties, "busy_timeout", busyTimeout);
+        return properties;
+    }
+
+    public Properties toReadOnlyProperties() {
+        // The journal mode and sync level belong to the write connections, read-only connections cannot change them
+        Properties properties = toProperties();
+        properties.remove("journal_mode");
+        properties.remove("synchronous");
+        properties.setProperty("open_mode", SQLITE_OPEN_READONLY);
+        return properties;
+    }
+
+    private static void setProperty(Properties properties, String pragma, String value) {
+        if (value != null && !value.isBlank()) {
+            properties.setProperty(pragma, value);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.tutorialapi.db.exception;
+
+import java.io.Serial;
+
+public class PreconditionFailedException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String listId) {
+        super("List with id " + listId + " does not match the precondition");
+    }
+}
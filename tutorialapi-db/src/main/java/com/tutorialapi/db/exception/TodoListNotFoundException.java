@@ -0,0 +1,12 @@
+package com.tutorialapi.db.exception;
+
+import java.io.Serial;
+
+public class TodoListNotFoundException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public TodoListNotFoundException(String listId) {
+        super("List with id " + listId + " not found");
+    }
+}
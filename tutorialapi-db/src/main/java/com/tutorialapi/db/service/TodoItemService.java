@@ -1,16 +1,23 @@
 package com.tutorialapi.db.service;
 
 import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.model.batch.TodoItemResult;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TodoItemService {
     Optional<TodoItem> get(RapidApiPrincipal principal, String listId, String id);
     List<TodoItem> getAll(RapidApiPrincipal principal, String listId);
+    List<TodoItem> getAll(RapidApiPrincipal principal, String listId, TodoItem after, int limit);
+    Stream<TodoItem> stream(RapidApiPrincipal principal, String listId);
     boolean create(RapidApiPrincipal principal, String listId, TodoItem todoItem);
-    boolean update(RapidApiPrincipal principal, String listId, TodoItem todoItem);
-    Optional<TodoItem> delete(RapidApiPrincipal principal, String listId, String id);
+    Optional<Versioned<TodoItem>> update(RapidApiPrincipal principal, String listId, TodoItem todoItem,
+                                         Long expectedVersion);
+    Optional<TodoItem> delete(RapidApiPrincipal principal, String listId, String id, Long expectedVersion);
+    List<TodoItemResult> batch(RapidApiPrincipal principal, String listId, List<TodoItemOperation> operations);
     int truncate();
 }
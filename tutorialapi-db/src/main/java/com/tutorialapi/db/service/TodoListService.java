@@ -5,12 +5,16 @@ import com.tutorialapi.model.user.RapidApiPrincipal;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TodoListService {
     Optional<TodoList> get(RapidApiPrincipal principal, String id);
+    Optional<Long> getVersion(RapidApiPrincipal principal, String id);
     List<TodoList> getAll(RapidApiPrincipal principal);
+    List<TodoList> getAll(RapidApiPrincipal principal, TodoList after, int limit);
+    Stream<TodoList> stream(RapidApiPrincipal principal);
     boolean create(RapidApiPrincipal principal, TodoList todoList);
-    boolean update(RapidApiPrincipal principal, TodoList todoList);
+    Optional<TodoList> update(RapidApiPrincipal principal, TodoList todoList);
     Optional<TodoList> delete(RapidApiPrincipal principal, String id);
     int truncate();
 }
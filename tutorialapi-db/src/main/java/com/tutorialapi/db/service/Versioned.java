@@ -0,0 +1,5 @@
+package com.tutorialapi.db.service;
+
+// The list version a write drew, so callers can tag their response without reading it back
+public record Versioned<T>(T value, long version) {
+}
@@ -0,0 +1,104 @@
+package com.tutorialapi.db.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.tutorialapi.db.service.ApiKeyService;
+import com.tutorialapi.model.user.ApiKey;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class CachingApiKeyService implements ApiKeyService {
+    public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+    public static final Duration DEFAULT_EXPIRATION = Duration.ofMinutes(5);
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final ApiKeyService delegate;
+    private final Cache<String, Optional<ApiKey>> cache;
+    // Bumped on every write so a lookup that read the key before a revoke cannot leave it cached
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public CachingApiKeyService(ApiKeyService delegate) {
+        this(delegate, DEFAULT_MAXIMUM_SIZE, DEFAULT_EXPIRATION);
+    }
+
+    public CachingApiKeyService(ApiKeyService delegate, long maximumSize, Duration expiration) {
+        this.delegate = delegate;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expiration)
+                .build();
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private void invalidate(String key) {
+        generations.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    @Override
+    public Optional<ApiKey> get(String key) {
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        Optional<ApiKey> apikey;
+        try {
+            apikey = cache.get(key, () -> delegate.get(key));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to fetch api key: " + e.getMessage(), e);
+        }
+        // Invalidating does not stop a load already in flight, it would otherwise store what it read before the write
+        if (generations.get(stripe) != generation) {
+            cache.asMap().remove(key, apikey);
+        }
+        return apikey;
+    }
+
+    @Override
+    public boolean create(ApiKey apikey) {
+        try {
+            return delegate.create(apikey);
+        } finally {
+            invalidate(apikey.getApikey());
+        }
+    }
+
+    @Override
+    public Optional<ApiKey> update(ApiKey apikey) {
+        try {
+            return delegate.update(apikey);
+        } finally {
+            invalidate(apikey.getApikey());
+        }
+    }
+
+    @Override
+    public Optional<ApiKey> delete(String key) {
+        try {
+            return delegate.delete(key);
+        } finally {
+            invalidate(key);
+        }
+    }
+
+    @Override
+    public int truncate() {
+        try {
+            return delegate.truncate();
+        } finally {
+            for (int i = 0; i < generations.length(); i++) {
+                generations.incrementAndGet(i);
+            }
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tutorialapi.db.service.cache;
+
+import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.db.service.Versioned;
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.model.batch.TodoItemResult;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class CachingTodoItemService implements TodoItemService {
+    private final TodoItemService delegate;
+    private final TodoCache cache;
+
+    public CachingTodoItemService(TodoItemService delegate, TodoCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Optional<TodoItem> get(RapidApiPrincipal principal, String listId, String id) {
+        // Loads the whole list on a miss, the paged reads that follow a cursor lookup are then served from it too
+        return getAll(principal, listId).stream().filter(todoItem -> todoItem.getId().equals(id)).findFirst();
+    }
+
+    @Override
+    public List<TodoItem> getAll(RapidApiPrincipal principal, String listId) {
+        return cache.getItems(principal.getUser(), listId, () -> delegate.getAll(principal, listId));
+    }
+
+    @Override
+    public List<TodoItem> getAll(RapidApiPrincipal principal, String listId, TodoItem after, int limit) {
+        // The cached rows share the keyset order, so a page starts right after its anchor
+        List<TodoItem> todoItems = getAll(principal, listId);
+        int start = after == null ? 0 : todoItems.indexOf(after) + 1;
+        if (start == 0 && after != null) {
+            // The anchor was changed or deleted since the cursor was issued, only the database can seek past it
+            return delegate.getAll(principal, listId, after, limit);
+        }
+        return todoItems.subList(start, Math.min(todoItems.size(), start + limit));
+    }
+
+    @Override
+    public Stream<TodoItem> stream(RapidApiPrincipal principal, String listId) {
+        return getAll(principal, listId).stream();
+    }
+
+    @Override
+    public boolean create(RapidApiPrincipal principal, String listId, TodoItem todoItem) {
+        try {
+            return delegate.create(principal, listId, todoItem);
+        } finally {
+            cache.invalidateItems(principal.getUser(), listId);
+        }
+    }
+
+    @Override
+    public Optional<Versioned<TodoItem>> update(RapidApiPrincipal principal, String listId, TodoItem todoItem,
+                                                Long expectedVersion) {
+        try {
+            return delegate.update(principal, listId, todoItem, expectedVersion);
+        } finally {
+            cache.invalidateItems(principal.getUser(), listId);
+        }
+    }
+
+    @Override
+    public Optional<TodoItem> delete(RapidApiPrincipal principal, String listId, String id, Long expectedVersion) {
+        try {
+            return delegate.delete(principal, listId, id, expectedVersion);
+        } finally {
+            cache.invalidateItems(principal.getUser(), listId);
+        }
+    }
+
+    @Override
+    public List<TodoItemResult> batch(RapidApiPrincipal principal, String listId, List<TodoItemOperation> operations) {
+        try {
+            return delegate.batch(principal, listId, operations);
+        } finally {
+            cache.invalidateItems(principal.getUser(), listId);
+        }
+    }
+
+    @Override
+    public int truncate() {
+        try {
+            return delegate.truncate();
+        } finally {
+            cache.invalidateAllItems();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.tutorialapi.db.service.cache;
+
+import com.tutorialapi.db.service.TodoListService;
+import com.tutorialapi.model.TodoList;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class CachingTodoListService implements TodoListService {
+    private final TodoListService delegate;
+    private final TodoCache cache;
+
+    public CachingTodoListService(TodoListService delegate, TodoCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Optional<TodoList> get(RapidApiPrincipal principal, String id) {
+        return getAll(principal).stream().filter(todoList -> todoList.getId().equals(id)).findFirst();
+    }
+
+    @Override
+    public Optional<Long> getVersion(RapidApiPrincipal principal, String id) {
+        // Always read from the database, the version is how clients find out the cached rows changed
+        return delegate.getVersion(principal, id);
+    }
+
+    @Override
+    public List<TodoList> getAll(RapidApiPrincipal principal) {
+        return cache.getLists(principal.getUser(), () -> delegate.getAll(principal));
+    }
+
+    @Override
+    public List<TodoList> getAll(RapidApiPrincipal principal, TodoList after, int limit) {
+        // The cached rows share the keyset order, so a page starts right after its anchor
+        List<TodoList> todoLists = getAll(principal);
+        int start = after == null ? 0 : todoLists.indexOf(after) + 1;
+        if (start == 0 && after != null) {
+            // The anchor was changed or deleted since the cursor was issued, only the database can seek past it
+            return delegate.getAll(principal, after, limit);
+        }
+        return todoLists.subList(start, Math.min(todoLists.size(), start + limit));
+    }
+
+    @Override
+    public Stream<TodoList> stream(RapidApiPrincipal principal) {
+        return getAll(principal).stream();
+    }
+
+    @Override
+    public boolean create(RapidApiPrincipal principal, TodoList todoList) {
+        try {
+            return delegate.create(principal, todoList);
+        } finally {
+            cache.invalidateLists(principal.getUser());
+        }
+    }
+
+    @Override
+    public Optional<TodoList> update(RapidApiPrincipal principal, TodoList todoList) {
+        try {
+            return delegate.update(principal, todoList);
+        } finally {
+            cache.invalidateLists(principal.getUser());
+        }
+    }
+
+    @Override
+    public Optional<TodoList> delete(RapidApiPrincipal principal, String id) {
+        try {
+            return delegate.delete(principal, id);
+        } finally {
+            cache.invalidateLists(principal.getUser());
+            // Items are cached per list, so a deleted list should not keep its items in memory
+            cache.invalidateItems(principal.getUser(), id);
+        }
+    }
+
+    @Override
+    public int truncate() {
+        try {
+            return delegate.truncate();
+        } finally {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.tutorialapi.db.service.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.TodoList;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class TodoCache {
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 100_000;
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_EXPIRATION = Duration.ofMinutes(30);
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private record ItemsKey(String user, String listId) {
+    }
+
+    private final Cache<String, List<TodoList>> lists;
+    private final Cache<ItemsKey, List<TodoItem>> items;
+    // Bumped on every write, striped so a write only discards concurrent loads of keys hashing alongside it
+    private final AtomicLongArray listGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLongArray itemGenerations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public TodoCache() {
+        this(DEFAULT_MAXIMUM_WEIGHT, DEFAULT_IDLE_TIMEOUT, DEFAULT_EXPIRATION);
+    }
+
+    public TodoCache(long maximumWeight, Duration idleTimeout, Duration expiration) {
+        // Weighed by row count so a handful of very large lists cannot crowd out memory for everyone else
+        this.lists = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String user, List<TodoList> todoLists) -> todoLists.size() + 1)
+                .expireAfterAccess(idleTimeout)
+                .expireAfterWrite(expiration)
+                .recordStats()
+                .build();
+        this.items = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((ItemsKey key, List<TodoItem> todoItems) -> todoItems.size() + 1)
+                .expireAfterAccess(idleTimeout)
+                .expireAfterWrite(expiration)
+                .recordStats()
+                .build();
+    }
+
+    private static int stripe(Object key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private static <K, V> List<V> get(Cache<K, List<V>> cache, AtomicLongArray generations, K key,
+                                      Callable<List<V>> loader) {
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        List<V> rows;
+        try {
+            rows = cache.get(key, () -> Collections.unmodifiableList(new ArrayList<>(loader.call())));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Failed to load cached rows: " + e.getMessage(), e);
+        }
+        // Invalidating does not stop a load already in flight, so rows read before a write must not stay cached
+        if (generations.get(stripe) != generation) {
+            cache.asMap().remove(key, rows);
+        }
+        return rows;
+    }
+
+    private static <K, V> void invalidate(Cache<K, List<V>> cache, AtomicLongArray generations, K key) {
+        generations.incrementAndGet(stripe(key));
+        cache.invalidate(key);
+    }
+
+    private static <K, V> void invalidateAll(Cache<K, List<V>> cache, AtomicLongArray generations) {
+        for (int i = 0; i < generations.length(); i++) {
+            generations.incrementAndGet(i);
+        }
+        cache.invalidateAll();
+    }
+
+    public List<TodoList> getLists(String user, Callable<List<TodoList>> loader) {
+        return get(lists, listGenerations, user, loader);
+    }
+
+    public Optional<List<TodoList>> getListsIfPresent(String user) {
+        return Optional.ofNullable(lists.getIfPresent(user));
+    }
+
+    public void invalidateLists(String user) {
+        invalidate(lists, listGenerations, user);
+    }
+
+    public List<TodoItem> getItems(String user, String listId, Callable<List<TodoItem>> loader) {
+        return get(items, itemGenerations, new ItemsKey(user, listId), loader);
+    }
+
+    public Optional<List<TodoItem>> getItemsIfPresent(String user, String listId) {
+        return Optional.ofNullable(items.getIfPresent(new ItemsKey(user, listId)));
+    }
+
+    public void invalidateItems(String user, String listId) {
+        invalidate(items, itemGenerations, new ItemsKey(user, listId));
+    }
+
+    public void invalidateAllItems() {
+        invalidateAll(items, itemGenerations);
+    }
+
+    public void invalidateAll() {
+        invalidateAll(lists, listGenerations);
+        invalidateAll(items, itemGenerations);
+    }
+
+    public CacheStats getListStats() {
+        return lists.stats();
+    }
+
+    public CacheStats getItemStats() {
+        return items.stats();
+    }
+}
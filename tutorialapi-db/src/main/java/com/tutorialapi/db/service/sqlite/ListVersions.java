@@ -0,0 +1,25 @@
+package com.tutorialapi.db.service.sqlite;
+
+import com.tutorialapi.db.statement.StatementCache;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+final class ListVersions {
+    private ListVersions() {
+    }
+
+    // One counter shared by every list, so a list that is deleted and created again never repeats an old version
+    static long next(StatementCache statementCache, Connection conn) throws SQLException {
+        String sql = "UPDATE todo_list_versions SET version = version + 1 RETURNING version";
+        return statementCache.execute(conn, sql, ps -> {
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Missing todo list version counter");
+                }
+                return rs.getLong("version");
+            }
+        });
+    }
+}
@@ -2,44 +2,62 @@ package com.tutorialapi.db.service.sqlite;
 
 import com.tutorialapi.db.exception.ConflictException;
 import com.tutorialapi.db.service.ApiKeyService;
+import com.tutorialapi.db.statement.StatementCache;
+import com.tutorialapi.db.writer.DirectSqliteWriter;
+import com.tutorialapi.db.writer.SqliteWriter;
 import com.tutorialapi.model.user.ApiKey;
 import com.tutorialapi.model.user.Subscription;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Optional;
 
 public class SqliteApiKeyService implements ApiKeyService {
-    private final DataSource dataSource;
+    private final DataSource readDataSource;
+    private final SqliteWriter writer;
+    private final StatementCache statementCache;
 
     public SqliteApiKeyService(DataSource dataSource) {
-        this.dataSource = dataSource;
+        this(dataSource, new DirectSqliteWriter(dataSource));
+    }
+
+    public SqliteApiKeyService(DataSource readDataSource, SqliteWriter writer) {
+        this(readDataSource, writer, new StatementCache());
+    }
+
+    public SqliteApiKeyService(DataSource readDataSource, SqliteWriter writer, StatementCache statementCache) {
+        this.readDataSource = readDataSource;
+        this.writer = writer;
+        this.statementCache = statementCache;
+    }
+
+    private static Optional<ApiKey> toOptionalApiKey(ResultSet rs) throws SQLException {
+        if (rs.next()) {
+            Optional<Subscription> subscription = Subscription.from(rs.getString("subscription"));
+            if (subscription.isEmpty()) {
+                return Optional.empty();
+            }
+            return Optional.of(
+                    new ApiKey()
+                            .setApikey(rs.getString("apikey"))
+                            .setUser(rs.getString("user_id"))
+                            .setSubscription(subscription.get())
+            );
+        }
+        return Optional.empty();
     }
 
     @Override
     public Optional<ApiKey> get(String apikey) {
         String sql = "SELECT * FROM api_keys WHERE apikey = ?";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, apikey);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    Optional<Subscription> subscription = Subscription.from(rs.getString("subscription"));
-                    if (subscription.isEmpty()) {
-                        return Optional.empty();
-                    }
-                    return Optional.of(
-                            new ApiKey()
-                                    .setApikey(rs.getString("apikey"))
-                                    .setUser(rs.getString("user_id"))
-                                    .setSubscription(subscription.get())
-                    );
+        try {
+            return statementCache.query(readDataSource, sql, ps -> {
+                ps.setString(1, apikey);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return toOptionalApiKey(rs);
                 }
-                return Optional.empty();
-            }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to fetch api key: " + e.getMessage(), e);
         }
@@ -48,17 +66,14 @@ public class SqliteApiKeyService implements ApiKeyService {
     @Override
     public boolean create(ApiKey apikey) {
         String sql = "INSERT INTO api_keys (apikey, user_id, subscription) VALUES (?, ?, ?)";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
-            ps.setString(++index, apikey.getApikey());
-            ps.setString(++index, apikey.getUser());
-            ps.setString(++index, apikey.getSubscription().name());
-            if (ps.executeUpdate() > 0) {
-                conn.commit();
-                return true;
-            }
-            return false;
+        try {
+            return writer.write(conn -> statementCache.execute(conn, sql, ps -> {
+                int index = 0;
+                ps.setString(++index, apikey.getApikey());
+                ps.setString(++index, apikey.getUser());
+                ps.setString(++index, apikey.getSubscription().name());
+                return ps.executeUpdate() > 0;
+            }));
         } catch (SQLException e) {
             if (e.getMessage() != null && e.getMessage().contains("SQLITE_CONSTRAINT_PRIMARYKEY")) {
                 throw new ConflictException("ApiKey already exists");
@@ -68,22 +83,22 @@ public class SqliteApiKeyService implements ApiKeyService {
     }
 
     @Override
-    public boolean update(ApiKey apikey) {
+    public Optional<ApiKey> update(ApiKey apikey) {
         String sql = "UPDATE api_keys SET user_id = ?, subscription = ? " +
-                "WHERE apikey = ? AND (user_id != ? OR subscription != ?)";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
-            ps.setString(++index, apikey.getUser());
-            ps.setString(++index, apikey.getSubscription().name());
-            ps.setString(++index, apikey.getApikey());
-            ps.setString(++index, apikey.getUser());
-            ps.setString(++index, apikey.getSubscription().name());
-            if (ps.executeUpdate() > 0) {
-                conn.commit();
-                return true;
-            }
-            return false;
+                "WHERE apikey = ? AND (user_id != ? OR subscription != ?) " +
+                "RETURNING apikey, user_id, subscription";
+        try {
+            return writer.write(conn -> statementCache.execute(conn, sql, ps -> {
+                int index = 0;
+                ps.setString(++index, apikey.getUser());
+                ps.setString(++index, apikey.getSubscription().name());
+                ps.setString(++index, apikey.getApikey());
+                ps.setString(++index, apikey.getUser());
+                ps.setString(++index, apikey.getSubscription().name());
+                try (ResultSet rs = ps.executeQuery()) {
+                    return toOptionalApiKey(rs);
+                }
+            }));
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update api key: " + e.getMessage(), e);
         }
@@ -91,32 +106,24 @@ public class SqliteApiKeyService implements ApiKeyService {
 
     @Override
     public Optional<ApiKey> delete(String key) {
-        Optional<ApiKey> fetched = get(key);
-        if (fetched.isPresent()) {
-            String sql = "DELETE FROM api_keys WHERE apikey = ?";
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
+        String sql = "DELETE FROM api_keys WHERE apikey = ? RETURNING apikey, user_id, subscription";
+        try {
+            return writer.write(conn -> statementCache.execute(conn, sql, ps -> {
                 ps.setString(1, key);
-                if (ps.executeUpdate() > 0) {
-                    conn.commit();
+                try (ResultSet rs = ps.executeQuery()) {
+                    return toOptionalApiKey(rs);
                 }
-            } catch (SQLException e) {
-                throw new RuntimeException("Failed to delete api key: " + e.getMessage(), e);
-            }
+            }));
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete api key: " + e.getMessage(), e);
         }
-        return fetched;
     }
 
     @Override
     public int truncate() {
         String sql = "DELETE FROM api_keys";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int deleted = ps.executeUpdate();
-            if (deleted > 0) {
-                conn.commit();
-            }
-            return deleted;
+        try {
+            return writer.write(conn -> statementCache.execute(conn, sql, ps -> ps.executeUpdate()));
         } catch (SQLException e) {
             throw new RuntimeException("Failed to truncate api keys: " + e.getMessage(), e);
         }
@@ -1,8 +1,19 @@
 package com.tutorialapi.db.service.sqlite;
 
 import com.tutorialapi.db.exception.ConflictException;
+import com.tutorialapi.db.exception.PreconditionFailedException;
+import com.tutorialapi.db.exception.TodoListNotFoundException;
 import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.db.service.Versioned;
+import com.tutorialapi.db.statement.ChunkedStream;
+import com.tutorialapi.db.statement.StatementCache;
+import com.tutorialapi.db.writer.DirectSqliteWriter;
+import com.tutorialapi.db.writer.SqliteWriter;
 import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.batch.BatchAction;
+import com.tutorialapi.model.batch.BatchStatus;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.model.batch.TodoItemResult;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 
 import javax.sql.DataSource;
@@ -13,34 +24,92 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class SqliteTodoItemService implements TodoItemService {
-    private final DataSource dataSource;
+    private final DataSource readDataSource;
+    private final SqliteWriter writer;
+    private final StatementCache statementCache;
 
     public SqliteTodoItemService(DataSource dataSource) {
-        this.dataSource = dataSource;
+        this(dataSource, new DirectSqliteWriter(dataSource));
+    }
+
+    public SqliteTodoItemService(DataSource readDataSource, SqliteWriter writer) {
+        this(readDataSource, writer, new StatementCache());
+    }
+
+    public SqliteTodoItemService(DataSource readDataSource, SqliteWriter writer, StatementCache statementCache) {
+        this.readDataSource = readDataSource;
+        this.writer = writer;
+        this.statementCache = statementCache;
+    }
+
+    private static TodoItem toTodoItem(ResultSet rs) throws SQLException {
+        return new TodoItem()
+                .setId(rs.getString("id"))
+                .setTask(rs.getString("task"))
+                .setDone(rs.getBoolean("done"));
+    }
+
+    private static Optional<TodoItem> toOptionalTodoItem(ResultSet rs) throws SQLException {
+        return rs.next() ? Optional.of(toTodoItem(rs)) : Optional.empty();
+    }
+
+    private void requireList(Connection conn, RapidApiPrincipal principal, String listId, Long expectedVersion)
+            throws SQLException {
+        String sql = "SELECT version FROM todo_lists WHERE user_id = ? AND id = ?";
+        Optional<Long> version = statementCache.execute(conn, sql, ps -> {
+            ps.setString(1, principal.getUser());
+            ps.setString(2, listId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getLong("version")) : Optional.empty();
+            }
+        });
+        if (version.isEmpty()) {
+            throw new TodoListNotFoundException(listId);
+        }
+        if (expectedVersion != null && version.get() != expectedVersion.longValue()) {
+            throw new PreconditionFailedException(listId);
+        }
+    }
+
+    private long bumpVersion(Connection conn, RapidApiPrincipal principal, String listId, Long expectedVersion)
+            throws SQLException {
+        // Compared in the same statement that replaces the version, so no other write can land in between
+        String sql = expectedVersion == null
+                ? "UPDATE todo_lists SET version = ? WHERE user_id = ? AND id = ?"
+                : "UPDATE todo_lists SET version = ? WHERE user_id = ? AND id = ? AND version = ?";
+        long version = ListVersions.next(statementCache, conn);
+        int updated = statementCache.execute(conn, sql, ps -> {
+            ps.setLong(1, version);
+            ps.setString(2, principal.getUser());
+            ps.setString(3, listId);
+            if (expectedVersion != null) {
+                ps.setLong(4, expectedVersion);
+            }
+            return ps.executeUpdate();
+        });
+        if (updated == 0 && expectedVersion != null) {
+            // Thrown inside the write, so the writer rolls back the item change made before the comparison
+            throw new PreconditionFailedException(listId);
+        }
+        return version;
     }
 
     @Override
     public Optional<TodoItem> get(RapidApiPrincipal principal, String listId, String id) {
         String sql = "SELECT * FROM todo_items WHERE user_id = ? AND list_id = ? AND id = ?";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
-            ps.setString(++index, principal.getUser());
-            ps.setString(++index, listId);
-            ps.setString(++index, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(
-                            new TodoItem()
-                                    .setId(rs.getString("id"))
-                                    .setTask(rs.getString("task"))
-                                    .setDone(rs.getBoolean("done"))
-                    );
+        try {
+            return statementCache.query(readDataSource, sql, ps -> {
+                int index = 0;
+                ps.setString(++index, principal.getUser());
+                ps.setString(++index, listId);
+                ps.setString(++index, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return toOptionalTodoItem(rs);
                 }
-                return Optional.empty();
-            }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to fetch item: " + e.getMessage(), e);
         }
@@ -48,108 +117,239 @@ public class SqliteTodoItemService implements TodoItemService {
 
     @Override
     public List<TodoItem> getAll(RapidApiPrincipal principal, String listId) {
-        String sql = "SELECT * FROM todo_items WHERE user_id = ? AND list_id = ? ORDER BY done, task";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
-            ps.setString(++index, principal.getUser());
-            ps.setString(++index, listId);
-            List<TodoItem> todoItems = new ArrayList<>();
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    todoItems.add(
-                            new TodoItem()
-                                    .setId(rs.getString("id"))
-                                    .setTask(rs.getString("task"))
-                                    .setDone(rs.getBoolean("done"))
-                    );
+        String sql = "SELECT * FROM todo_items WHERE user_id = ? AND list_id = ? ORDER BY done, task, id";
+        try {
+            return statementCache.query(readDataSource, sql, ps -> {
+                int index = 0;
+                ps.setString(++index, principal.getUser());
+                ps.setString(++index, listId);
+                List<TodoItem> todoItems = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        todoItems.add(toTodoItem(rs));
+                    }
                 }
-            }
-            return todoItems;
+                return todoItems;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to fetch items: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<TodoItem> getAll(RapidApiPrincipal principal, String listId, TodoItem after, int limit) {
+        // Seeks past the last item of the previous page using the (user_id, list_id, done, task, id) index
+        String sql = after == null
+                ? "SELECT * FROM todo_items WHERE user_id = ? AND list_id = ? " +
+                        "ORDER BY done, task, id LIMIT ?"
+                : "SELECT * FROM todo_items WHERE user_id = ? AND list_id = ? AND (done, task, id) > (?, ?, ?) " +
+                        "ORDER BY done, task, id LIMIT ?";
+        try {
+            return statementCache.query(readDataSource, sql, ps -> {
+                int index = 0;
+                ps.setString(++index, principal.getUser());
+                ps.setString(++index, listId);
+                if (after != null) {
+                    ps.setBoolean(++index, after.isDone());
+                    ps.setString(++index, after.getTask());
+                    ps.setString(++index, after.getId());
+                }
+                ps.setInt(++index, limit);
+                List<TodoItem> todoItems = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        todoItems.add(toTodoItem(rs));
+                    }
+                }
+                return todoItems;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to fetch items: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public Stream<TodoItem> stream(RapidApiPrincipal principal, String listId) {
+        // Seeks from chunk to chunk, rows changed between chunks are seen as of the chunk that reads them
+        return ChunkedStream.of(ChunkedStream.DEFAULT_CHUNK_SIZE,
+                (after, limit) -> getAll(principal, listId, after, limit));
+    }
+
     @Override
     public boolean create(RapidApiPrincipal principal, String listId, TodoItem todoItem) {
-        String sql = "INSERT INTO todo_items (user_id, list_id, id, task, done) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
-            ps.setString(++index, principal.getUser());
-            ps.setString(++index, listId);
-            ps.setString(++index, todoItem.getId());
-            ps.setString(++index, todoItem.getTask());
-            ps.setBoolean(++index, todoItem.isDone());
-            if (ps.executeUpdate() > 0) {
-                conn.commit();
-                return true;
-            }
-            return false;
+        // Inserts nothing when the list does not exist, so the list check needs no separate query
+        String sql = "INSERT INTO todo_items (user_id, list_id, id, task, done) SELECT ?, ?, ?, ?, ? " +
+                "WHERE EXISTS (SELECT 1 FROM todo_lists WHERE user_id = ? AND id = ?)";
+        boolean created;
+        try {
+            created = writer.write(conn -> {
+                boolean inserted = statementCache.execute(conn, sql, ps -> {
+                    int index = 0;
+                    ps.setString(++index, principal.getUser());
+                    ps.setString(++index, listId);
+                    ps.setString(++index, todoItem.getId());
+                    ps.setString(++index, todoItem.getTask());
+                    ps.setBoolean(++index, todoItem.isDone());
+                    ps.setString(++index, principal.getUser());
+                    ps.setString(++index, listId);
+                    return ps.executeUpdate() > 0;
+                });
+                if (inserted) {
+                    bumpVersion(conn, principal, listId, null);
+                }
+                return inserted;
+            });
         } catch (SQLException e) {
             if (e.getMessage() != null && e.getMessage().contains("SQLITE_CONSTRAINT_PRIMARYKEY")) {
                 throw new ConflictException("Todo item already exists");
             }
             throw new RuntimeException("Failed to create item: " + e.getMessage(), e);
         }
+        if (!created) {
+            throw new TodoListNotFoundException(listId);
+        }
+        return true;
     }
 
     @Override
-    public boolean update(RapidApiPrincipal principal, String listId, TodoItem todoItem) {
+    public Optional<Versioned<TodoItem>> update(RapidApiPrincipal principal, String listId, TodoItem todoItem,
+                                                Long expectedVersion) {
         String sql = "UPDATE todo_items SET task = ?, done = ? " +
-                "WHERE user_id = ? AND list_id = ? AND id = ? AND (task != ? OR done != ?)";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
+                "WHERE user_id = ? AND list_id = ? AND id = ? AND (task != ? OR done != ?) " +
+                "RETURNING id, task, done";
+        try {
+            return writer.write(conn -> {
+                Optional<TodoItem> updated = statementCache.execute(conn, sql, ps -> {
+                    int index = 0;
+                    ps.setString(++index, todoItem.getTask());
+                    ps.setBoolean(++index, todoItem.isDone());
+                    ps.setString(++index, principal.getUser());
+                    ps.setString(++index, listId);
+                    ps.setString(++index, todoItem.getId());
+                    ps.setString(++index, todoItem.getTask());
+                    ps.setBoolean(++index, todoItem.isDone());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return toOptionalTodoItem(rs);
+                    }
+                });
+                // Only a miss needs to know why, and the check shares the same connection and transaction
+                if (updated.isEmpty()) {
+                    requireList(conn, principal, listId, expectedVersion);
+                    return Optional.empty();
+                }
+                return Optional.of(new Versioned<>(updated.get(),
+                        bumpVersion(conn, principal, listId, expectedVersion)));
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to update item: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Optional<TodoItem> delete(RapidApiPrincipal principal, String listId, String id, Long expectedVersion) {
+        String sql = "DELETE FROM todo_items WHERE user_id = ? AND list_id = ? AND id = ? RETURNING id, task, done";
+        try {
+            return writer.write(conn -> {
+                Optional<TodoItem> deleted = statementCache.execute(conn, sql, ps -> {
+                    int index = 0;
+                    ps.setString(++index, principal.getUser());
+                    ps.setString(++index, listId);
+                    ps.setString(++index, id);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return toOptionalTodoItem(rs);
+                    }
+                });
+                if (deleted.isPresent()) {
+                    bumpVersion(conn, principal, listId, expectedVersion);
+                } else if (expectedVersion != null) {
+                    requireList(conn, principal, listId, expectedVersion);
+                }
+                return deleted;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete item: " + e.getMessage(), e);
+        }
+    }
+
+    private static String getBatchSql(BatchAction action) {
+        return switch (action) {
+            case CREATE -> "INSERT INTO todo_items (user_id, list_id, id, task, done) VALUES (?, ?, ?, ?, ?) " +
+                    "ON CONFLICT DO NOTHING";
+            case UPDATE -> "UPDATE todo_items SET task = ?, done = ? WHERE user_id = ? AND list_id = ? AND id = ?";
+            case DELETE -> "DELETE FROM todo_items WHERE user_id = ? AND list_id = ? AND id = ?";
+        };
+    }
+
+    private static void bindBatch(PreparedStatement ps, RapidApiPrincipal principal, String listId,
+                                  BatchAction action, TodoItem todoItem) throws SQLException {
+        int index = 0;
+        if (action == BatchAction.UPDATE) {
             ps.setString(++index, todoItem.getTask());
             ps.setBoolean(++index, todoItem.isDone());
-            ps.setString(++index, principal.getUser());
-            ps.setString(++index, listId);
-            ps.setString(++index, todoItem.getId());
+        }
+        ps.setString(++index, principal.getUser());
+        ps.setString(++index, listId);
+        ps.setString(++index, todoItem.getId());
+        if (action == BatchAction.CREATE) {
             ps.setString(++index, todoItem.getTask());
             ps.setBoolean(++index, todoItem.isDone());
-            if (ps.executeUpdate() > 0) {
-                conn.commit();
-                return true;
-            }
-            return false;
-        } catch (SQLException e) {
-            throw new RuntimeException("Failed to update item: " + e.getMessage(), e);
         }
     }
 
+    private static BatchStatus toBatchStatus(BatchAction action, int count) {
+        return switch (action) {
+            case CREATE -> count > 0 ? BatchStatus.CREATED : BatchStatus.CONFLICT;
+            case UPDATE -> count > 0 ? BatchStatus.UPDATED : BatchStatus.NOT_FOUND;
+            case DELETE -> count > 0 ? BatchStatus.DELETED : BatchStatus.NOT_FOUND;
+        };
+    }
+
     @Override
-    public Optional<TodoItem> delete(RapidApiPrincipal principal, String listId, String id) {
-        Optional<TodoItem> fetched = get(principal, listId, id);
-        if (fetched.isPresent()) {
-            String sql = "DELETE FROM todo_items WHERE user_id = ? AND list_id = ? AND id = ?";
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
-                int index = 0;
-                ps.setString(++index, principal.getUser());
-                ps.setString(++index, listId);
-                ps.setString(++index, id);
-                if (ps.executeUpdate() > 0) {
-                    conn.commit();
+    public List<TodoItemResult> batch(RapidApiPrincipal principal, String listId, List<TodoItemOperation> operations) {
+        try {
+            return writer.write(conn -> {
+                requireList(conn, principal, listId, null);
+                List<TodoItemResult> results = new ArrayList<>(operations.size());
+                boolean changed = false;
+                int start = 0;
+                while (start < operations.size()) {
+                    // Consecutive operations with the same action share a statement and a single executeBatch call
+                    BatchAction action = operations.get(start).getAction();
+                    int end = start + 1;
+                    while (end < operations.size() && operations.get(end).getAction() == action) {
+                        end++;
+                    }
+                    List<TodoItemOperation> run = operations.subList(start, end);
+                    int[] counts = statementCache.execute(conn, getBatchSql(action), ps -> {
+                        for (TodoItemOperation operation : run) {
+                            bindBatch(ps, principal, listId, action, operation.getItem());
+                            ps.addBatch();
+                        }
+                        return ps.executeBatch();
+                    });
+                    for (int i = 0; i < run.size(); i++) {
+                        changed |= counts[i] > 0;
+                        results.add(new TodoItemResult()
+                                .setId(run.get(i).getItem().getId())
+                                .setStatus(toBatchStatus(action, counts[i])));
+                    }
+                    start = end;
                 }
-            } catch (SQLException e) {
-                throw new RuntimeException("Failed to delete item: " + e.getMessage(), e);
-            }
+                if (changed) {
+                    bumpVersion(conn, principal, listId, null);
+                }
+                return results;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to apply item batch: " + e.getMessage(), e);
         }
-        return fetched;
     }
 
     @Override
     public int truncate() {
         String sql = "DELETE FROM todo_items";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int deleted = ps.executeUpdate();
-            if (deleted > 0) {
-                conn.commit();
-            }
-            return deleted;
+        try {
+            return writer.write(conn -> statementCache.execute(conn, sql, ps -> ps.executeUpdate()));
         } catch (SQLException e) {
             throw new RuntimeException("Failed to truncate todo items: " + e.getMessage(), e);
         }
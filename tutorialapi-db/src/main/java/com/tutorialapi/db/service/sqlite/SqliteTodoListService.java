@@ -2,76 +2,150 @@ package com.tutorialapi.db.service.sqlite;
 
 import com.tutorialapi.db.exception.ConflictException;
 import com.tutorialapi.db.service.TodoListService;
+import com.tutorialapi.db.statement.ChunkedStream;
+import com.tutorialapi.db.statement.StatementCache;
+import com.tutorialapi.db.writer.DirectSqliteWriter;
+import com.tutorialapi.db.writer.SqliteWriter;
 import com.tutorialapi.model.TodoList;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 
 import javax.sql.DataSource;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class SqliteTodoListService implements TodoListService {
-    private final DataSource dataSource;
+    private final DataSource readDataSource;
+    private final SqliteWriter writer;
+    private final StatementCache statementCache;
 
     public SqliteTodoListService(DataSource dataSource) {
-        this.dataSource = dataSource;
+        this(dataSource, new DirectSqliteWriter(dataSource));
+    }
+
+    public SqliteTodoListService(DataSource readDataSource, SqliteWriter writer) {
+        this(readDataSource, writer, new StatementCache());
+    }
+
+    public SqliteTodoListService(DataSource readDataSource, SqliteWriter writer, StatementCache statementCache) {
+        this.readDataSource = readDataSource;
+        this.writer = writer;
+        this.statementCache = statementCache;
+    }
+
+    private static TodoList toTodoList(ResultSet rs) throws SQLException {
+        return new TodoList().setId(rs.getString("id")).setName(rs.getString("name"));
+    }
+
+    private static Optional<TodoList> toOptionalTodoList(ResultSet rs) throws SQLException {
+        return rs.next() ? Optional.of(toTodoList(rs)) : Optional.empty();
     }
 
     @Override
     public Optional<TodoList> get(RapidApiPrincipal principal, String id) {
         String sql = "SELECT * FROM todo_lists WHERE user_id = ? AND id = ?";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
-            ps.setString(++index, principal.getUser());
-            ps.setString(++index, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return Optional.of(new TodoList().setId(rs.getString("id")).setName(rs.getString("name")));
+        try {
+            return statementCache.query(readDataSource, sql, ps -> {
+                int index = 0;
+                ps.setString(++index, principal.getUser());
+                ps.setString(++index, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return toOptionalTodoList(rs);
                 }
-                return Optional.empty();
-            }
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to fetch list: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public Optional<Long> getVersion(RapidApiPrincipal principal, String id) {
+        String sql = "SELECT version FROM todo_lists WHERE user_id = ? AND id = ?";
+        try {
+            return statementCache.query(readDataSource, sql, ps -> {
+                int index = 0;
+                ps.setString(++index, principal.getUser());
+                ps.setString(++index, id);
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? Optional.of(rs.getLong("version")) : Optional.empty();
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to fetch list version: " + e.getMessage(), e);
+        }
+    }
+
     @Override
     public List<TodoList> getAll(RapidApiPrincipal principal) {
-        String sql = "SELECT * FROM todo_lists WHERE user_id = ? ORDER BY name";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setString(1, principal.getUser());
-            List<TodoList> todoLists = new ArrayList<>();
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    todoLists.add(new TodoList().setId(rs.getString("id")).setName(rs.getString("name")));
+        String sql = "SELECT * FROM todo_lists WHERE user_id = ? ORDER BY name, id";
+        try {
+            return statementCache.query(readDataSource, sql, ps -> {
+                ps.setString(1, principal.getUser());
+                List<TodoList> todoLists = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        todoLists.add(toTodoList(rs));
+                    }
                 }
-            }
-            return todoLists;
+                return todoLists;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to fetch lists: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<TodoList> getAll(RapidApiPrincipal principal, TodoList after, int limit) {
+        // Seeks past the last list of the previous page using the (user_id, name, id) index
+        String sql = after == null
+                ? "SELECT * FROM todo_lists WHERE user_id = ? ORDER BY name, id LIMIT ?"
+                : "SELECT * FROM todo_lists WHERE user_id = ? AND (name, id) > (?, ?) ORDER BY name, id LIMIT ?";
+        try {
+            return statementCache.query(readDataSource, sql, ps -> {
+                int index = 0;
+                ps.setString(++index, principal.getUser());
+                if (after != null) {
+                    ps.setString(++index, after.getName());
+                    ps.setString(++index, after.getId());
+                }
+                ps.setInt(++index, limit);
+                List<TodoList> todoLists = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        todoLists.add(toTodoList(rs));
+                    }
+                }
+                return todoLists;
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to fetch lists: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public Stream<TodoList> stream(RapidApiPrincipal principal) {
+        // Seeks from chunk to chunk, rows changed between chunks are seen as of the chunk that reads them
+        return ChunkedStream.of(ChunkedStream.DEFAULT_CHUNK_SIZE, (after, limit) -> getAll(principal, after, limit));
+    }
+
     @Override
     public boolean create(RapidApiPrincipal principal, TodoList todoList) {
-        String sql = "INSERT INTO todo_lists (user_id, id, name) VALUES (?, ?, ?)";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
-            ps.setString(++index, principal.getUser());
-            ps.setString(++index, todoList.getId());
-            ps.setString(++index, todoList.getName());
-            if (ps.executeUpdate() > 0) {
-                conn.commit();
-                return true;
-            }
-            return false;
+        String sql = "INSERT INTO todo_lists (user_id, id, name, version) VALUES (?, ?, ?, ?)";
+        try {
+            return writer.write(conn -> {
+                long version = ListVersions.next(statementCache, conn);
+                return statementCache.execute(conn, sql, ps -> {
+                    int index = 0;
+                    ps.setString(++index, principal.getUser());
+                    ps.setString(++index, todoList.getId());
+                    ps.setString(++index, todoList.getName());
+                    ps.setLong(++index, version);
+                    return ps.executeUpdate() > 0;
+                });
+            });
         } catch (SQLException e) {
             if (e.getMessage() != null && e.getMessage().contains("SQLITE_CONSTRAINT_PRIMARYKEY")) {
                 throw new ConflictException("Todo list already exists");
@@ -81,20 +155,25 @@ public class SqliteTodoListService implements TodoListService {
     }
 
     @Override
-    public boolean update(RapidApiPrincipal principal, TodoList todoList) {
-        String sql = "UPDATE todo_lists SET name = ? WHERE user_id = ? AND id = ? AND name != ?";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int index = 0;
-            ps.setString(++index, todoList.getName());
-            ps.setString(++index, principal.getUser());
-            ps.setString(++index, todoList.getId());
-            ps.setString(++index, todoList.getName());
-            if (ps.executeUpdate() > 0) {
-                conn.commit();
-                return true;
-            }
-            return false;
+    public Optional<TodoList> update(RapidApiPrincipal principal, TodoList todoList) {
+        String sql = "UPDATE todo_lists SET name = ?, version = ? WHERE user_id = ? AND id = ? AND name != ? " +
+                "RETURNING id, name";
+        try {
+            // A write that matches nothing still draws a version, gaps in the sequence are harmless
+            return writer.write(conn -> {
+                long version = ListVersions.next(statementCache, conn);
+                return statementCache.execute(conn, sql, ps -> {
+                    int index = 0;
+                    ps.setString(++index, todoList.getName());
+                    ps.setLong(++index, version);
+                    ps.setString(++index, principal.getUser());
+                    ps.setString(++index, todoList.getId());
+                    ps.setString(++index, todoList.getName());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        return toOptionalTodoList(rs);
+                    }
+                });
+            });
         } catch (SQLException e) {
             throw new RuntimeException("Failed to update list: " + e.getMessage(), e);
         }
@@ -102,34 +181,26 @@ public class SqliteTodoListService implements TodoListService {
 
     @Override
     public Optional<TodoList> delete(RapidApiPrincipal principal, String id) {
-        Optional<TodoList> fetched = get(principal, id);
-        if (fetched.isPresent()) {
-            String sql = "DELETE FROM todo_lists WHERE user_id = ? AND id = ?";
-            try (Connection conn = dataSource.getConnection();
-                 PreparedStatement ps = conn.prepareStatement(sql)) {
+        String sql = "DELETE FROM todo_lists WHERE user_id = ? AND id = ? RETURNING id, name";
+        try {
+            return writer.write(conn -> statementCache.execute(conn, sql, ps -> {
                 int index = 0;
                 ps.setString(++index, principal.getUser());
                 ps.setString(++index, id);
-                if (ps.executeUpdate() > 0) {
-                    conn.commit();
+                try (ResultSet rs = ps.executeQuery()) {
+                    return toOptionalTodoList(rs);
                 }
-            } catch (SQLException e) {
-                throw new RuntimeException("Failed to delete list: " + e.getMessage(), e);
-            }
+            }));
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to delete list: " + e.getMessage(), e);
         }
-        return fetched;
     }
 
     @Override
     public int truncate() {
         String sql = "DELETE FROM todo_lists";
-        try (Connection conn = dataSource.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            int deleted = ps.executeUpdate();
-            if (deleted > 0) {
-                conn.commit();
-            }
-            return deleted;
+        try {
+            return writer.write(conn -> statementCache.execute(conn, sql, ps -> ps.executeUpdate()));
         } catch (SQLException e) {
             throw new RuntimeException("Failed to truncate todo lists: " + e.getMessage(), e);
         }
@@ -0,0 +1,32 @@
+package com.tutorialapi.db.service.timing;
+
+import java.util.function.Supplier;
+
+public final class DatabaseTimer {
+    // Service calls run on the caller's thread and writes wait for their commit, so a thread's total is its own
+    private static final ThreadLocal<long[]> ELAPSED = ThreadLocal.withInitial(() -> new long[1]);
+
+    private DatabaseTimer() {
+    }
+
+    public static void reset() {
+        ELAPSED.get()[0] = 0;
+    }
+
+    public static void add(long nanos) {
+        ELAPSED.get()[0] += nanos;
+    }
+
+    public static long getElapsedNanos() {
+        return ELAPSED.get()[0];
+    }
+
+    static <T> T time(Supplier<T> call) {
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            add(System.nanoTime() - start);
+        }
+    }
+}
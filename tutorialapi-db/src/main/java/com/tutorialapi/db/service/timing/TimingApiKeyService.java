@@ -0,0 +1,39 @@
+package com.tutorialapi.db.service.timing;
+
+import com.tutorialapi.db.service.ApiKeyService;
+import com.tutorialapi.model.user.ApiKey;
+
+import java.util.Optional;
+
+public class TimingApiKeyService implements ApiKeyService {
+    private final ApiKeyService delegate;
+
+    public TimingApiKeyService(ApiKeyService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<ApiKey> get(String key) {
+        return DatabaseTimer.time(() -> delegate.get(key));
+    }
+
+    @Override
+    public boolean create(ApiKey apikey) {
+        return DatabaseTimer.time(() -> delegate.create(apikey));
+    }
+
+    @Override
+    public Optional<ApiKey> update(ApiKey apikey) {
+        return DatabaseTimer.time(() -> delegate.update(apikey));
+    }
+
+    @Override
+    public Optional<ApiKey> delete(String key) {
+        return DatabaseTimer.time(() -> delegate.delete(key));
+    }
+
+    @Override
+    public int truncate() {
+        return DatabaseTimer.time(delegate::truncate);
+    }
+}
@@ -0,0 +1,70 @@
+package com.tutorialapi.db.service.timing;
+
+import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.db.service.Versioned;
+import com.tutorialapi.db.statement.ChunkedStream;
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.model.batch.TodoItemResult;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class TimingTodoItemService implements TodoItemService {
+    private final TodoItemService delegate;
+
+    public TimingTodoItemService(TodoItemService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<TodoItem> get(RapidApiPrincipal principal, String listId, String id) {
+        return DatabaseTimer.time(() -> delegate.get(principal, listId, id));
+    }
+
+    @Override
+    public List<TodoItem> getAll(RapidApiPrincipal principal, String listId) {
+        return DatabaseTimer.time(() -> delegate.getAll(principal, listId));
+    }
+
+    @Override
+    public List<TodoItem> getAll(RapidApiPrincipal principal, String listId, TodoItem after, int limit) {
+        return DatabaseTimer.time(() -> delegate.getAll(principal, listId, after, limit));
+    }
+
+    @Override
+    public Stream<TodoItem> stream(RapidApiPrincipal principal, String listId) {
+        // Rows are read while the response is written, so time each chunk rather than creating the stream
+        return ChunkedStream.of(ChunkedStream.DEFAULT_CHUNK_SIZE,
+                (after, limit) -> getAll(principal, listId, after, limit));
+    }
+
+    @Override
+    public boolean create(RapidApiPrincipal principal, String listId, TodoItem todoItem) {
+        return DatabaseTimer.time(() -> delegate.create(principal, listId, todoItem));
+    }
+
+    @Override
+    public Optional<Versioned<TodoItem>> update(RapidApiPrincipal principal, String listId, TodoItem todoItem,
+                                                Long expectedVersion) {
+        return DatabaseTimer.time(() -> delegate.update(principal, listId, todoItem, expectedVersion));
+    }
+
+    @Override
+    public Optional<TodoItem> delete(RapidApiPrincipal principal, String listId, String id, Long expectedVersion) {
+        return DatabaseTimer.time(() -> delegate.delete(principal, listId, id, expectedVersion));
+    }
+
+    @Override
+    public List<TodoItemResult> batch(RapidApiPrincipal principal, String listId,
+                                      List<TodoItemOperation> operations) {
+        return DatabaseTimer.time(() -> delegate.batch(principal, listId, operations));
+    }
+
+    @Override
+    public int truncate() {
+        return DatabaseTimer.time(delegate::truncate);
+    }
+}
@@ -0,0 +1,64 @@
+package com.tutorialapi.db.service.timing;
+
+import com.tutorialapi.db.service.TodoListService;
+import com.tutorialapi.db.statement.ChunkedStream;
+import com.tutorialapi.model.TodoList;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class TimingTodoListService implements TodoListService {
+    private final TodoListService delegate;
+
+    public TimingTodoListService(TodoListService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Optional<TodoList> get(RapidApiPrincipal principal, String id) {
+        return DatabaseTimer.time(() -> delegate.get(principal, id));
+    }
+
+    @Override
+    public Optional<Long> getVersion(RapidApiPrincipal principal, String id) {
+        return DatabaseTimer.time(() -> delegate.getVersion(principal, id));
+    }
+
+    @Override
+    public List<TodoList> getAll(RapidApiPrincipal principal) {
+        return DatabaseTimer.time(() -> delegate.getAll(principal));
+    }
+
+    @Override
+    public List<TodoList> getAll(RapidApiPrincipal principal, TodoList after, int limit) {
+        return DatabaseTimer.time(() -> delegate.getAll(principal, after, limit));
+    }
+
+    @Override
+    public Stream<TodoList> stream(RapidApiPrincipal principal) {
+        // Rows are read while the response is written, so time each chunk rather than creating the stream
+        return ChunkedStream.of(ChunkedStream.DEFAULT_CHUNK_SIZE, (after, limit) -> getAll(principal, after, limit));
+    }
+
+    @Override
+    public boolean create(RapidApiPrincipal principal, TodoList todoList) {
+        return DatabaseTimer.time(() -> delegate.create(principal, todoList));
+    }
+
+    @Override
+    public Optional<TodoList> update(RapidApiPrincipal principal, TodoList todoList) {
+        return DatabaseTimer.time(() -> delegate.update(principal, todoList));
+    }
+
+    @Override
+    public Optional<TodoList> delete(RapidApiPrincipal principal, String id) {
+        return DatabaseTimer.time(() -> delegate.delete(principal, id));
+    }
+
+    @Override
+    public int truncate() {
+        return DatabaseTimer.time(delegate::truncate);
+    }
+}
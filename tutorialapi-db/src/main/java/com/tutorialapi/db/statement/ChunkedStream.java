@@ -0,0 +1,51 @@
+package com.tutorialapi.db.statement;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class ChunkedStream {
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    @FunctionalInterface
+    public interface ChunkFetcher<T> {
+        List<T> fetch(T after, int limit);
+    }
+
+    private ChunkedStream() {
+    }
+
+    public static <T> Stream<T> of(int chunkSize, ChunkFetcher<T> fetcher) {
+        // Each chunk checks a connection out and back in, so a slow reader never holds one while it consumes rows
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private Iterator<T> chunk = Collections.emptyIterator();
+            private T last;
+            private boolean exhausted;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (!chunk.hasNext()) {
+                    if (exhausted) {
+                        return false;
+                    }
+                    List<T> rows = fetcher.fetch(last, chunkSize);
+                    exhausted = rows.size() < chunkSize;
+                    chunk = rows.iterator();
+                    if (!chunk.hasNext()) {
+                        return false;
+                    }
+                }
+                last = chunk.next();
+                action.accept(last);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+}
@@ -0,0 +1,111 @@
+package com.tutorialapi.db.statement;
+
+import javax.sql.DataSource;
+import java.io.Serial;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class StatementCache {
+    public static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+    private final int maximumSize;
+    private final Map<Connection, Map<String, PreparedStatement>> statements = new ConcurrentHashMap<>();
+
+    public StatementCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public StatementCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public <T> T query(DataSource dataSource, String sql, StatementFunction<T> function) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            try {
+                return execute(conn, sql, function);
+            } finally {
+                // The pool only resets transactions it saw through its proxy, reads on the physical connection
+                // would otherwise keep their read transaction, and its lock, open until the next write commits
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                }
+            }
+        }
+    }
+
+    public <T> T execute(Connection conn, String sql, StatementFunction<T> function) throws SQLException {
+        if (maximumSize <= 0) {
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                return function.apply(ps);
+            }
+        }
+
+        PreparedStatement ps = prepare(conn, sql);
+        try {
+            return function.apply(ps);
+        } finally {
+            // A failed batch must not leave rows queued on the statement for its next user
+            ps.clearBatch();
+            ps.clearParameters();
+        }
+    }
+
+    private PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        // Statements are prepared on the physical connection so they outlive the pool proxy handed to callers,
+        // a physical connection is only ever used by one thread at a time so its own statement map needs no locking
+        Connection physical = conn.unwrap(Connection.class);
+        Map<String, PreparedStatement> connectionStatements = statements.get(physical);
+        if (connectionStatements == null) {
+            removeClosedConnections();
+            connectionStatements = new StatementMap(maximumSize);
+            statements.put(physical, connectionStatements);
+        }
+
+        PreparedStatement ps = connectionStatements.get(sql);
+        if (ps == null || ps.isClosed()) {
+            ps = physical.prepareStatement(sql);
+            connectionStatements.put(sql, ps);
+        }
+        return ps;
+    }
+
+    private void removeClosedConnections() {
+        // The pool retires physical connections over time, the driver closes their statements along with them
+        statements.keySet().removeIf(physical -> {
+            try {
+                return physical.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        });
+    }
+
+    private static class StatementMap extends LinkedHashMap<String, PreparedStatement> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int maximumSize;
+
+        StatementMap(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > maximumSize) {
+                try {
+                    eldest.getValue().close();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Failed to close statement: " + e.getMessage(), e);
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
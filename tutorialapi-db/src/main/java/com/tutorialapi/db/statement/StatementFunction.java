@@ -0,0 +1,9 @@
+package com.tutorialapi.db.statement;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface StatementFunction<T> {
+    T apply(PreparedStatement ps) throws SQLException;
+}
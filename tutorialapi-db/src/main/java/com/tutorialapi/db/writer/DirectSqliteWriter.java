@@ -0,0 +1,28 @@
+package com.tutorialapi.db.writer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class DirectSqliteWriter implements SqliteWriter {
+    private final DataSource dataSource;
+
+    public DirectSqliteWriter(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public <T> T write(SqlFunction<T> function) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            try {
+                T result = function.apply(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                // Cached statements bypass the pool proxy, so the pool cannot tell the connection needs a rollback
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.tutorialapi.db.writer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class GroupCommitSqliteWriter implements SqliteWriter {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 128;
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final String SAVEPOINT = "group_write";
+
+    private final DataSource dataSource;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public GroupCommitSqliteWriter(DataSource dataSource) {
+        this(dataSource, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public GroupCommitSqliteWriter(DataSource dataSource, int maxBatchSize) {
+        this.dataSource = dataSource;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.thread = new Thread(this::run, "sqlite-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public <T> T write(SqlFunction<T> function) throws SQLException {
+        if (!running) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        PendingWrite<T> pendingWrite = new PendingWrite<>(function);
+        queue.add(pendingWrite);
+        if (!running && queue.remove(pendingWrite)) {
+            // Closed while queueing and the writer thread will never see this write
+            throw new IllegalStateException("Writer is closed");
+        }
+
+        try {
+            return pendingWrite.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for write", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            } else if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("Failed to write: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingWrite<?>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pendingWrite -> pendingWrite.future.completeExceptionally(
+                new IllegalStateException("Writer is closed")));
+    }
+
+    private void run() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                PendingWrite<?> first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingWrite<?>> batch) {
+        try (Connection conn = dataSource.getConnection()) {
+            try (Statement statement = conn.createStatement()) {
+                for (PendingWrite<?> pendingWrite : batch) {
+                    // A failed write only rolls back its own savepoint, the rest of the batch still commits
+                    statement.execute("SAVEPOINT " + SAVEPOINT);
+                    try {
+                        pendingWrite.apply(conn);
+                    } catch (SQLException | RuntimeException e) {
+                        statement.execute("ROLLBACK TO " + SAVEPOINT);
+                        pendingWrite.error = e;
+                    }
+                    statement.execute("RELEASE " + SAVEPOINT);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+            batch.forEach(PendingWrite::complete);
+        } catch (SQLException | RuntimeException e) {
+            batch.forEach(pendingWrite -> pendingWrite.future.completeExceptionally(e));
+        }
+    }
+
+    private static class PendingWrite<T> {
+        private final SqlFunction<T> function;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Exception error;
+
+        PendingWrite(SqlFunction<T> function) {
+            this.function = function;
+        }
+
+        void apply(Connection conn) throws SQLException {
+            result = function.apply(conn);
+        }
+
+        void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
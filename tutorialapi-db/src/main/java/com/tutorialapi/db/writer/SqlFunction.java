@@ -0,0 +1,9 @@
+package com.tutorialapi.db.writer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlFunction<T> {
+    T apply(Connection conn) throws SQLException;
+}
@@ -0,0 +1,12 @@
+package com.tutorialapi.db.writer;
+
+import java.sql.SQLException;
+
+public interface SqliteWriter extends AutoCloseable {
+    <T> T write(SqlFunction<T> function) throws SQLException;
+
+    @Override
+    default void close() {
+        // Nothing to release by default
+    }
+}
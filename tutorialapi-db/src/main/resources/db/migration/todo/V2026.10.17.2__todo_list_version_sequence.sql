@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS todo_list_versions (
+    id       INTEGER NOT NULL CHECK (id = 0),
+    version  INTEGER NOT NULL,
+
+    CONSTRAINT todo_list_versions_pk PRIMARY KEY (id)
+);
+
+INSERT INTO todo_list_versions (id, version) SELECT 0, COALESCE(MAX(version), 0) FROM todo_lists;
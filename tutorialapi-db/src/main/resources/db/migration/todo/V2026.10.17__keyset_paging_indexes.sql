@@ -0,0 +1,4 @@
+
+CREATE INDEX todo_lists_user_id_name_id_idx ON todo_lists (user_id, name, id);
+
+CREATE INDEX todo_items_user_id_list_id_done_task_id_idx ON todo_items (user_id, list_id, done, task, id);
@@ -0,0 +1,126 @@
+package com.tutorialapi.db;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.JDBC;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class SqliteSettingsIT {
+    private final SqliteSettings settings = new SqliteSettings()
+            .setJournalMode("WAL")
+            .setSynchronous("NORMAL")
+            .setMmapSize("268435456")
+            .setCacheSize("-16384")
+            .setTempStore("MEMORY")
+            .setBusyTimeout("5000");
+
+    private HikariDataSource dataSource;
+    private HikariDataSource readDataSource;
+
+    @BeforeEach
+    public void beforeEach(@TempDir Path tempDir) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(JDBC.class.getName());
+        config.setJdbcUrl("jdbc:sqlite:" + tempDir.resolve("test.db"));
+        config.setAutoCommit(false);
+        config.setDataSourceProperties(settings.toProperties());
+        config.setMaximumPoolSize(4);
+        dataSource = new HikariDataSource(config);
+
+        HikariConfig readConfig = new HikariConfig();
+        readConfig.setDriverClassName(JDBC.class.getName());
+        readConfig.setJdbcUrl("jdbc:sqlite:" + tempDir.resolve("test.db"));
+        readConfig.setReadOnly(true);
+        readConfig.setDataSourceProperties(settings.toReadOnlyProperties());
+        readConfig.setConnectionInitSql(SqliteSettings.QUERY_ONLY_SQL);
+        readConfig.setMaximumPoolSize(4);
+        readDataSource = new HikariDataSource(readConfig);
+
+        new DefaultServiceFactory(readDataSource, dataSource);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        readDataSource.close();
+        dataSource.close();
+    }
+
+    private String pragma(Connection conn, String pragma) throws SQLException {
+        try (Statement statement = conn.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA " + pragma)) {
+            Assertions.assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+
+    private int countLists() throws SQLException {
+        try (Connection conn = readDataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM todo_lists");
+             ResultSet rs = ps.executeQuery()) {
+            Assertions.assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    public void testPragmasApplied() throws SQLException {
+        Assertions.assertTrue(settings.isWriteAheadLog());
+        try (Connection conn = dataSource.getConnection()) {
+            Assertions.assertEquals("wal", pragma(conn, "journal_mode"));
+            Assertions.assertEquals("1", pragma(conn, "synchronous"));
+            Assertions.assertEquals("-16384", pragma(conn, "cache_size"));
+            Assertions.assertEquals("2", pragma(conn, "temp_store"));
+            Assertions.assertEquals("5000", pragma(conn, "busy_timeout"));
+        }
+    }
+
+    @Test
+    public void testReadOnlyConnections() throws SQLException {
+        try (Connection conn = readDataSource.getConnection()) {
+            Assertions.assertEquals("wal", pragma(conn, "journal_mode"));
+            Assertions.assertEquals("1", pragma(conn, "query_only"));
+            Assertions.assertTrue(conn.isReadOnly());
+            try (Statement statement = conn.createStatement()) {
+                Assertions.assertThrows(SQLException.class, () ->
+                        statement.executeUpdate("INSERT INTO todo_lists (user_id, id, name) VALUES ('u', 'i', 'n')"));
+            }
+        }
+    }
+
+    @Test
+    public void testReadersProceedWhileWriterActive() throws Exception {
+        try (Connection writer = dataSource.getConnection();
+             PreparedStatement ps = writer.prepareStatement("INSERT INTO todo_lists (user_id, id, name) VALUES (?, ?, ?)")) {
+            ps.setString(1, "user");
+            ps.setString(2, "id");
+            ps.setString(3, "name");
+            Assertions.assertEquals(1, ps.executeUpdate());
+
+            // The write transaction is still open, readers should see the last committed state without blocking
+            CompletableFuture<Integer> reader = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return countLists();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            Assertions.assertEquals(0, reader.get(1, TimeUnit.SECONDS));
+
+            writer.commit();
+        }
+        Assertions.assertEquals(1, countLists());
+    }
+}
@@ -0,0 +1,109 @@
+package com.tutorialapi.db.service.cache;
+
+import com.tutorialapi.db.DataSourceExtension;
+import com.tutorialapi.db.service.sqlite.SqliteApiKeyService;
+import com.tutorialapi.model.user.ApiKey;
+import com.tutorialapi.model.user.Subscription;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Optional;
+
+@ExtendWith(DataSourceExtension.class)
+public class CachingApiKeyServiceIT {
+    private final SqliteApiKeyService sqliteApiKeyService;
+    private final CachingApiKeyService apikeyService;
+    private final DataSource dataSource;
+
+    public CachingApiKeyServiceIT(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.sqliteApiKeyService = new SqliteApiKeyService(dataSource);
+        this.apikeyService = new CachingApiKeyService(sqliteApiKeyService, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testGetServedFromCache() {
+        ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
+        Assertions.assertTrue(apikeyService.create(apikey));
+        Assertions.assertEquals(Optional.of(apikey), apikeyService.get(apikey.getApikey()));
+
+        // Bypass the cache, the cached value should still be returned
+        Assertions.assertTrue(sqliteApiKeyService.delete(apikey.getApikey()).isPresent());
+        Assertions.assertEquals(Optional.of(apikey), apikeyService.get(apikey.getApikey()));
+    }
+
+    @Test
+    public void testGetMissingIsCached() {
+        Assertions.assertTrue(apikeyService.get("key").isEmpty());
+
+        // Bypass the cache, the cached miss should still be returned
+        ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
+        Assertions.assertTrue(sqliteApiKeyService.create(apikey));
+        Assertions.assertTrue(apikeyService.get(apikey.getApikey()).isEmpty());
+    }
+
+    @Test
+    public void testCreateEvicts() {
+        Assertions.assertTrue(apikeyService.get("key").isEmpty());
+
+        ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
+        Assertions.assertTrue(apikeyService.create(apikey));
+        Assertions.assertEquals(Optional.of(apikey), apikeyService.get(apikey.getApikey()));
+    }
+
+    @Test
+    public void testUpdateEvicts() {
+        ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
+        Assertions.assertTrue(apikeyService.create(apikey));
+        Assertions.assertEquals(Optional.of(apikey), apikeyService.get(apikey.getApikey()));
+
+        ApiKey updated = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.PRO);
+        Assertions.assertEquals(Optional.of(updated), apikeyService.update(updated));
+        Assertions.assertEquals(Optional.of(updated), apikeyService.get(apikey.getApikey()));
+    }
+
+    @Test
+    public void testDeleteEvicts() {
+        ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
+        Assertions.assertTrue(apikeyService.create(apikey));
+        Assertions.assertEquals(Optional.of(apikey), apikeyService.get(apikey.getApikey()));
+
+        Assertions.assertTrue(apikeyService.delete(apikey.getApikey()).isPresent());
+        Assertions.assertTrue(apikeyService.get(apikey.getApikey()).isEmpty());
+    }
+
+    @Test
+    public void testLoadRacingDeleteNotCached() {
+        ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
+        Assertions.assertTrue(sqliteApiKeyService.create(apikey));
+
+        CachingApiKeyService[] racing = new CachingApiKeyService[1];
+        racing[0] = new CachingApiKeyService(new SqliteApiKeyService(dataSource) {
+            @Override
+            public Optional<ApiKey> get(String key) {
+                Optional<ApiKey> read = super.get(key);
+                // The key is revoked after this load read it but before the load stores it
+                racing[0].delete(key);
+                return read;
+            }
+        }, 100, Duration.ofMinutes(1));
+
+        Assertions.assertEquals(Optional.of(apikey), racing[0].get(apikey.getApikey()));
+        Assertions.assertTrue(sqliteApiKeyService.get(apikey.getApikey()).isEmpty());
+        // Had the stale load been cached, the revoked key would still be returned here
+        Assertions.assertTrue(racing[0].get(apikey.getApikey()).isEmpty());
+    }
+
+    @Test
+    public void testTruncateEvicts() {
+        ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
+        Assertions.assertTrue(apikeyService.create(apikey));
+        Assertions.assertEquals(Optional.of(apikey), apikeyService.get(apikey.getApikey()));
+
+        Assertions.assertEquals(1, apikeyService.truncate());
+        Assertions.assertTrue(apikeyService.get(apikey.getApikey()).isEmpty());
+    }
+}
@@ -0,0 +1,167 @@
+package com.tutorialapi.db.service.cache;
+
+import com.tutorialapi.db.DataSourceExtension;
+import com.tutorialapi.db.service.Versioned;
+import com.tutorialapi.db.service.sqlite.SqliteTodoItemService;
+import com.tutorialapi.db.service.sqlite.SqliteTodoListService;
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.TodoList;
+import com.tutorialapi.model.batch.BatchAction;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+import com.tutorialapi.model.user.Subscription;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@ExtendWith(DataSourceExtension.class)
+public class CachingTodoItemServiceIT {
+    private final RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+    private final TodoList list = new TodoList().setId("list").setName("name");
+
+    private final TodoCache todoCache = new TodoCache(1_000, Duration.ofMinutes(1), Duration.ofMinutes(5));
+    private final SqliteTodoListService todoListService;
+    private final SqliteTodoItemService sqliteTodoItemService;
+    private final CachingTodoItemService todoItemService;
+
+    public CachingTodoItemServiceIT(DataSource dataSource) {
+        this.todoListService = new SqliteTodoListService(dataSource);
+        this.sqliteTodoItemService = new SqliteTodoItemService(dataSource);
+        this.todoItemService = new CachingTodoItemService(sqliteTodoItemService, todoCache);
+    }
+
+    @BeforeEach
+    public void beforeEach() {
+        todoListService.create(principal, list);
+    }
+
+    @Test
+    public void testGetServedFromCache() {
+        TodoItem item = new TodoItem().setId("id").setTask("task");
+        Assertions.assertTrue(todoItemService.create(principal, list.getId(), item));
+        Assertions.assertEquals(List.of(item), todoItemService.getAll(principal, list.getId()));
+
+        // Bypass the cache, the cached item should still be returned
+        Assertions.assertTrue(sqliteTodoItemService.delete(principal, list.getId(), item.getId(), null).isPresent());
+        Assertions.assertEquals(Optional.of(item), todoItemService.get(principal, list.getId(), item.getId()));
+    }
+
+    @Test
+    public void testGetFillsCache() {
+        TodoItem item = new TodoItem().setId("id").setTask("task");
+        Assertions.assertTrue(todoItemService.create(principal, list.getId(), item));
+        Assertions.assertEquals(Optional.of(item), todoItemService.get(principal, list.getId(), item.getId()));
+        Assertions.assertEquals(List.of(item), todoItemService.getAll(principal, list.getId()));
+
+        Assertions.assertEquals(1, todoCache.getItemStats().missCount());
+        Assertions.assertEquals(1, todoCache.getItemStats().hitCount());
+    }
+
+    @Test
+    public void testResourceReadsServedFromCache(DataSource dataSource) {
+        AtomicInteger reads = new AtomicInteger();
+        CachingTodoItemService countingService = new CachingTodoItemService(new SqliteTodoItemService(dataSource) {
+            @Override
+            public Optional<TodoItem> get(RapidApiPrincipal principal, String listId, String id) {
+                reads.incrementAndGet();
+                return super.get(principal, listId, id);
+            }
+
+            @Override
+            public List<TodoItem> getAll(RapidApiPrincipal principal, String listId) {
+                reads.incrementAndGet();
+                return super.getAll(principal, listId);
+            }
+
+            @Override
+            public List<TodoItem> getAll(RapidApiPrincipal principal, String listId, TodoItem after, int limit) {
+                reads.incrementAndGet();
+                return super.getAll(principal, listId, after, limit);
+            }
+        }, todoCache);
+        TodoItem item1 = new TodoItem().setId("id1").setTask("a");
+        TodoItem item2 = new TodoItem().setId("id2").setTask("b");
+        TodoItem item3 = new TodoItem().setId("id3").setTask("b");
+        TodoItem item4 = new TodoItem().setId("id4").setTask("a").setDone(true);
+        for (TodoItem item : List.of(item4, item3, item2, item1)) {
+            Assertions.assertTrue(sqliteTodoItemService.create(principal, list.getId(), item));
+        }
+
+        // The calls the resources make: an unpaged stream, a first page, a cursor lookup and the next page
+        try (Stream<TodoItem> stream = countingService.stream(principal, list.getId())) {
+            Assertions.assertEquals(List.of(item1, item2, item3, item4), stream.collect(Collectors.toList()));
+        }
+        Assertions.assertEquals(List.of(item1, item2), countingService.getAll(principal, list.getId(), null, 2));
+        TodoItem after = countingService.get(principal, list.getId(), item2.getId()).orElseThrow();
+        Assertions.assertEquals(List.of(item3, item4), countingService.getAll(principal, list.getId(), after, 2));
+        Assertions.assertEquals(sqliteTodoItemService.getAll(principal, list.getId(), after, 2),
+                countingService.getAll(principal, list.getId(), after, 2));
+        Assertions.assertEquals(1, reads.get());
+
+        // A cursor whose anchor is gone can only be resolved by the database
+        TodoItem deleted = new TodoItem().setId("id0").setTask("b");
+        Assertions.assertEquals(List.of(item2, item3), countingService.getAll(principal, list.getId(), deleted, 2));
+        Assertions.assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void testWritesInvalidate() {
+        TodoItem item1 = new TodoItem().setId("id1").setTask("b");
+        TodoItem item2 = new TodoItem().setId("id2").setTask("a").setDone(true);
+        Assertions.assertTrue(todoItemService.getAll(principal, list.getId()).isEmpty());
+
+        Assertions.assertTrue(todoItemService.create(principal, list.getId(), item1));
+        Assertions.assertTrue(todoItemService.create(principal, list.getId(), item2));
+        Assertions.assertEquals(List.of(item1, item2), todoItemService.getAll(principal, list.getId()));
+
+        TodoItem done = new TodoItem().setId("id1").setTask("b").setDone(true);
+        Assertions.assertEquals(Optional.of(done),
+                todoItemService.update(principal, list.getId(), done, null).map(Versioned::value));
+        Assertions.assertEquals(List.of(item2, done), todoItemService.getAll(principal, list.getId()));
+
+        Assertions.assertTrue(todoItemService.delete(principal, list.getId(), item2.getId(), null).isPresent());
+        Assertions.assertEquals(List.of(done), todoItemService.getAll(principal, list.getId()));
+
+        TodoItem created = new TodoItem().setId("id3").setTask("c");
+        todoItemService.batch(principal, list.getId(), List.of(
+                new TodoItemOperation().setAction(BatchAction.CREATE).setItem(created),
+                new TodoItemOperation().setAction(BatchAction.DELETE).setItem(new TodoItem().setId("id1"))));
+        Assertions.assertEquals(List.of(created), todoItemService.getAll(principal, list.getId()));
+
+        // Every write dropped the cached rows, so each read after one went back to the database
+        Assertions.assertEquals(5, todoCache.getItemStats().missCount());
+        Assertions.assertEquals(sqliteTodoItemService.getAll(principal, list.getId()),
+                todoItemService.getAll(principal, list.getId()));
+    }
+
+    @Test
+    public void testLoadRacingWriteNotCached() {
+        TodoItem stale = new TodoItem().setId("id").setTask("stale");
+        List<TodoItem> loaded = todoCache.getItems(principal.getUser(), list.getId(), () -> {
+            // A write that commits while this load is still reading
+            todoCache.invalidateItems(principal.getUser(), list.getId());
+            return List.of(stale);
+        });
+        Assertions.assertEquals(List.of(stale), loaded);
+        Assertions.assertEquals(Optional.empty(), todoCache.getItemsIfPresent(principal.getUser(), list.getId()));
+    }
+
+    @Test
+    public void testTruncateEvicts() {
+        TodoItem item = new TodoItem().setId("id").setTask("task");
+        Assertions.assertTrue(todoItemService.create(principal, list.getId(), item));
+        Assertions.assertEquals(List.of(item), todoItemService.getAll(principal, list.getId()));
+
+        Assertions.assertEquals(1, todoItemService.truncate());
+        Assertions.assertTrue(todoItemService.getAll(principal, list.getId()).isEmpty());
+    }
+}
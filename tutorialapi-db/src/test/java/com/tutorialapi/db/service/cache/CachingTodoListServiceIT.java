@@ -0,0 +1,154 @@
+package com.tutorialapi.db.service.cache;
+
+import com.tutorialapi.db.DataSourceExtension;
+import com.tutorialapi.db.service.sqlite.SqliteTodoItemService;
+import com.tutorialapi.db.service.sqlite.SqliteTodoListService;
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.TodoList;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+import com.tutorialapi.model.user.Subscription;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@ExtendWith(DataSourceExtension.class)
+public class CachingTodoListServiceIT {
+    private final RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+
+    private final TodoCache todoCache = new TodoCache(100, Duration.ofMinutes(1), Duration.ofMinutes(5));
+    private final SqliteTodoListService sqliteTodoListService;
+    private final CachingTodoListService todoListService;
+    private final CachingTodoItemService todoItemService;
+
+    public CachingTodoListServiceIT(DataSource dataSource) {
+        this.sqliteTodoListService = new SqliteTodoListService(dataSource);
+        this.todoListService = new CachingTodoListService(sqliteTodoListService, todoCache);
+        this.todoItemService = new CachingTodoItemService(new SqliteTodoItemService(dataSource), todoCache);
+    }
+
+    @Test
+    public void testGetAllServedFromCache() {
+        TodoList list = new TodoList().setId("id").setName("name");
+        Assertions.assertTrue(todoListService.create(principal, list));
+        Assertions.assertEquals(List.of(list), todoListService.getAll(principal));
+
+        // Bypass the cache, the cached lists should still be returned
+        Assertions.assertTrue(sqliteTodoListService.delete(principal, list.getId()).isPresent());
+        Assertions.assertEquals(List.of(list), todoListService.getAll(principal));
+        Assertions.assertEquals(Optional.of(list), todoListService.get(principal, list.getId()));
+        Assertions.assertEquals(1, todoCache.getListStats().missCount());
+        Assertions.assertEquals(2, todoCache.getListStats().hitCount());
+    }
+
+    @Test
+    public void testResourceReadsServedFromCache(DataSource dataSource) {
+        AtomicInteger reads = new AtomicInteger();
+        CachingTodoListService countingService = new CachingTodoListService(new SqliteTodoListService(dataSource) {
+            @Override
+            public Optional<TodoList> get(RapidApiPrincipal principal, String id) {
+                reads.incrementAndGet();
+                return super.get(principal, id);
+            }
+
+            @Override
+            public List<TodoList> getAll(RapidApiPrincipal principal) {
+                reads.incrementAndGet();
+                return super.getAll(principal);
+            }
+
+            @Override
+            public List<TodoList> getAll(RapidApiPrincipal principal, TodoList after, int limit) {
+                reads.incrementAndGet();
+                return super.getAll(principal, after, limit);
+            }
+        }, todoCache);
+        TodoList list1 = new TodoList().setId("id1").setName("a");
+        TodoList list2 = new TodoList().setId("id2").setName("b");
+        TodoList list3 = new TodoList().setId("id3").setName("b");
+        for (TodoList list : List.of(list3, list2, list1)) {
+            Assertions.assertTrue(sqliteTodoListService.create(principal, list));
+        }
+
+        // The calls the resources make: an unpaged stream, a first page, a cursor lookup and the next page
+        try (Stream<TodoList> stream = countingService.stream(principal)) {
+            Assertions.assertEquals(List.of(list1, list2, list3), stream.collect(Collectors.toList()));
+        }
+        Assertions.assertEquals(List.of(list1, list2), countingService.getAll(principal, null, 2));
+        TodoList after = countingService.get(principal, list2.getId()).orElseThrow();
+        Assertions.assertEquals(List.of(list3), countingService.getAll(principal, after, 2));
+        Assertions.assertEquals(sqliteTodoListService.getAll(principal, after, 2),
+                countingService.getAll(principal, after, 2));
+        Assertions.assertEquals(1, reads.get());
+
+        // A cursor whose anchor is gone can only be resolved by the database
+        TodoList deleted = new TodoList().setId("id1x").setName("a");
+        Assertions.assertEquals(List.of(list2, list3), countingService.getAll(principal, deleted, 2));
+        Assertions.assertEquals(2, reads.get());
+    }
+
+    @Test
+    public void testWritesInvalidate() {
+        TodoList list1 = new TodoList().setId("id1").setName("b");
+        TodoList list2 = new TodoList().setId("id2").setName("c");
+        Assertions.assertTrue(todoListService.create(principal, list1));
+        Assertions.assertEquals(List.of(list1), todoListService.getAll(principal));
+
+        Assertions.assertTrue(todoListService.create(principal, list2));
+        Assertions.assertEquals(List.of(list1, list2), todoListService.getAll(principal));
+
+        TodoList renamed = new TodoList().setId("id2").setName("a");
+        Assertions.assertEquals(Optional.of(renamed), todoListService.update(principal, renamed));
+        Assertions.assertEquals(List.of(renamed, list1), todoListService.getAll(principal));
+
+        Assertions.assertTrue(todoListService.delete(principal, list1.getId()).isPresent());
+        Assertions.assertEquals(List.of(renamed), todoListService.getAll(principal));
+
+        // Every write dropped the cached lists, so each read after one went back to the database
+        Assertions.assertEquals(4, todoCache.getListStats().missCount());
+        Assertions.assertEquals(sqliteTodoListService.getAll(principal), todoListService.getAll(principal));
+    }
+
+    @Test
+    public void testDeleteDropsItems() {
+        TodoList list = new TodoList().setId("id").setName("name");
+        TodoItem item = new TodoItem().setId("item").setTask("task");
+        Assertions.assertTrue(todoListService.create(principal, list));
+        Assertions.assertTrue(todoItemService.create(principal, list.getId(), item));
+        Assertions.assertEquals(List.of(item), todoItemService.getAll(principal, list.getId()));
+
+        Assertions.assertEquals(1, todoCache.getItemStats().missCount());
+
+        Assertions.assertTrue(todoListService.delete(principal, list.getId()).isPresent());
+        todoItemService.getAll(principal, list.getId());
+        Assertions.assertEquals(2, todoCache.getItemStats().missCount());
+    }
+
+    @Test
+    public void testEviction() {
+        TodoCache smallCache = new TodoCache(2, Duration.ofMinutes(1), Duration.ofMinutes(5));
+        CachingTodoListService smallService = new CachingTodoListService(sqliteTodoListService, smallCache);
+        for (int i = 0; i < 10; i++) {
+            RapidApiPrincipal user = new RapidApiPrincipal("proxy-secret", "user" + i, Subscription.BASIC);
+            Assertions.assertTrue(smallService.getAll(user).isEmpty());
+        }
+        Assertions.assertTrue(smallCache.getListStats().evictionCount() > 0);
+    }
+
+    @Test
+    public void testTruncateEvicts() {
+        TodoList list = new TodoList().setId("id").setName("name");
+        Assertions.assertTrue(todoListService.create(principal, list));
+        Assertions.assertEquals(List.of(list), todoListService.getAll(principal));
+
+        Assertions.assertEquals(1, todoListService.truncate());
+        Assertions.assertTrue(todoListService.getAll(principal).isEmpty());
+    }
+}
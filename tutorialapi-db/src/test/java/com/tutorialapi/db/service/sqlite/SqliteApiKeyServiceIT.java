@@ -59,14 +59,14 @@ public class SqliteApiKeyServiceIT {
     @Test
     public void testUpdateMissing() {
         ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
-        Assertions.assertFalse(apikeyService.update(apikey));
+        Assertions.assertTrue(apikeyService.update(apikey).isEmpty());
     }
 
     @Test
     public void testUpdateExistsButSame() {
         ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
         Assertions.assertTrue(apikeyService.create(apikey));
-        Assertions.assertFalse(apikeyService.update(apikey));
+        Assertions.assertTrue(apikeyService.update(apikey).isEmpty());
     }
 
     @Test
@@ -74,7 +74,7 @@ public class SqliteApiKeyServiceIT {
         ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
         Assertions.assertTrue(apikeyService.create(apikey));
         apikey.setUser("updated");
-        Assertions.assertTrue(apikeyService.update(apikey));
+        Assertions.assertEquals(Optional.of(apikey), apikeyService.update(apikey));
 
         Optional<ApiKey> fetched = apikeyService.get(apikey.getApikey());
         Assertions.assertTrue(fetched.isPresent());
@@ -86,7 +86,7 @@ public class SqliteApiKeyServiceIT {
         ApiKey apikey = new ApiKey().setApikey("key").setUser("user").setSubscription(Subscription.BASIC);
         Assertions.assertTrue(apikeyService.create(apikey));
         apikey.setSubscription(Subscription.PRO);
-        Assertions.assertTrue(apikeyService.update(apikey));
+        Assertions.assertEquals(Optional.of(apikey), apikeyService.update(apikey));
 
         Optional<ApiKey> fetched = apikeyService.get(apikey.getApikey());
         Assertions.assertTrue(fetched.isPresent());
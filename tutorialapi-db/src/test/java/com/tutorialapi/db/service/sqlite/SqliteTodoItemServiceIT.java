@@ -2,8 +2,15 @@ package com.tutorialapi.db.service.sqlite;
 
 import com.tutorialapi.db.DataSourceExtension;
 import com.tutorialapi.db.exception.ConflictException;
+import com.tutorialapi.db.exception.PreconditionFailedException;
+import com.tutorialapi.db.exception.TodoListNotFoundException;
+import com.tutorialapi.db.service.Versioned;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.TodoList;
+import com.tutorialapi.model.batch.BatchAction;
+import com.tutorialapi.model.batch.BatchStatus;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.model.batch.TodoItemResult;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.model.user.Subscription;
 import org.junit.jupiter.api.Assertions;
@@ -12,8 +19,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @ExtendWith(DataSourceExtension.class)
 public class SqliteTodoItemServiceIT {
@@ -123,6 +133,53 @@ public class SqliteTodoItemServiceIT {
         Assertions.assertEquals(item1, fetched.get(1));
     }
 
+    @Test
+    public void testGetAllPaged() {
+        TodoItem item1 = new TodoItem().setId("id1").setTask("same").setDone(false);
+        TodoItem item2 = new TodoItem().setId("id2").setTask("same").setDone(false);
+        TodoItem item3 = new TodoItem().setId("id3").setTask("another").setDone(true);
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item1));
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item2));
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item3));
+
+        Assertions.assertEquals(List.of(item1, item2), todoItemService.getAll(principal1, list1.getId(), null, 2));
+        Assertions.assertEquals(List.of(item3), todoItemService.getAll(principal1, list1.getId(), item2, 2));
+        Assertions.assertTrue(todoItemService.getAll(principal1, list1.getId(), item3, 2).isEmpty());
+        Assertions.assertTrue(todoItemService.getAll(principal1, list2.getId(), null, 2).isEmpty());
+    }
+
+    @Test
+    public void testStream() {
+        TodoItem item1 = new TodoItem().setId("id1").setTask("task1").setDone(true);
+        TodoItem item2 = new TodoItem().setId("id2").setTask("task2").setDone(false);
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item1));
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item2));
+
+        try (Stream<TodoItem> items = todoItemService.stream(principal1, list1.getId())) {
+            Assertions.assertEquals(List.of(item2, item1), items.collect(Collectors.toList()));
+        }
+        try (Stream<TodoItem> items = todoItemService.stream(principal1, list2.getId())) {
+            Assertions.assertEquals(0, items.count());
+        }
+    }
+
+    @Test
+    public void testStreamAcrossChunks() {
+        List<String> expected = new ArrayList<>();
+        for (int done = 0; done < 2; done++) {
+            for (int i = done; i < 1001; i += 2) {
+                expected.add(String.format("id%04d", i));
+            }
+        }
+        for (int i = 0; i < 1001; i++) {
+            todoItemService.create(principal1, list1.getId(),
+                    new TodoItem().setId(String.format("id%04d", i)).setTask("task").setDone(i % 2 == 1));
+        }
+        try (Stream<TodoItem> items = todoItemService.stream(principal1, list1.getId())) {
+            Assertions.assertEquals(expected, items.map(TodoItem::getId).collect(Collectors.toList()));
+        }
+    }
+
     @Test
     public void testCreateConflict() {
         TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
@@ -147,6 +204,7 @@ public class SqliteTodoItemServiceIT {
     @Test
     public void testCreateConflictDifferentUser() {
         TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
+        Assertions.assertTrue(todoListService.create(principal2, list1));
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
         Assertions.assertTrue(todoItemService.create(principal2, list1.getId(), item));
 
@@ -156,10 +214,19 @@ public class SqliteTodoItemServiceIT {
         Assertions.assertTrue(fetched2.isPresent());
     }
 
+    @Test
+    public void testCreateMissingList() {
+        TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
+        TodoListNotFoundException exception = Assertions.assertThrows(TodoListNotFoundException.class,
+                () -> todoItemService.create(principal2, list1.getId(), item));
+        Assertions.assertEquals("List with id id1 not found", exception.getMessage());
+        Assertions.assertTrue(todoItemService.get(principal2, list1.getId(), item.getId()).isEmpty());
+    }
+
     @Test
     public void testUpdateMissing() {
         TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
-        Assertions.assertFalse(todoItemService.update(principal1, list1.getId(), item));
+        Assertions.assertTrue(todoItemService.update(principal1, list1.getId(), item, null).isEmpty());
     }
 
     @Test
@@ -168,7 +235,8 @@ public class SqliteTodoItemServiceIT {
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
 
         item.setTask("updated").setDone(true);
-        Assertions.assertFalse(todoItemService.update(principal2, list1.getId(), item));
+        Assertions.assertThrows(TodoListNotFoundException.class,
+                () -> todoItemService.update(principal2, list1.getId(), item, null));
 
         Optional<TodoItem> fetched = todoItemService.get(principal1, list1.getId(), item.getId());
         Assertions.assertTrue(fetched.isPresent());
@@ -180,7 +248,7 @@ public class SqliteTodoItemServiceIT {
     public void testUpdateExistsButSame() {
         TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
-        Assertions.assertFalse(todoItemService.update(principal1, list1.getId(), item));
+        Assertions.assertTrue(todoItemService.update(principal1, list1.getId(), item, null).isEmpty());
     }
 
     @Test
@@ -188,7 +256,8 @@ public class SqliteTodoItemServiceIT {
         TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
         item.setTask("updated");
-        Assertions.assertTrue(todoItemService.update(principal1, list1.getId(), item));
+        Assertions.assertEquals(Optional.of(item),
+                todoItemService.update(principal1, list1.getId(), item, null).map(Versioned::value));
 
         Optional<TodoItem> fetched = todoItemService.get(principal1, list1.getId(), item.getId());
         Assertions.assertTrue(fetched.isPresent());
@@ -200,7 +269,8 @@ public class SqliteTodoItemServiceIT {
         TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
         item.setDone(true);
-        Assertions.assertTrue(todoItemService.update(principal1, list1.getId(), item));
+        Assertions.assertEquals(Optional.of(item),
+                todoItemService.update(principal1, list1.getId(), item, null).map(Versioned::value));
 
         Optional<TodoItem> fetched = todoItemService.get(principal1, list1.getId(), item.getId());
         Assertions.assertTrue(fetched.isPresent());
@@ -209,7 +279,7 @@ public class SqliteTodoItemServiceIT {
 
     @Test
     public void testDeleteMissing() {
-        Optional<TodoItem> deleted = todoItemService.delete(principal1, list1.getId(), "missing");
+        Optional<TodoItem> deleted = todoItemService.delete(principal1, list1.getId(), "missing", null);
         Assertions.assertFalse(deleted.isPresent());
     }
 
@@ -217,7 +287,7 @@ public class SqliteTodoItemServiceIT {
     public void testDeleteWrongUser() {
         TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
-        Optional<TodoItem> deleted = todoItemService.delete(principal2, list1.getId(), item.getId());
+        Optional<TodoItem> deleted = todoItemService.delete(principal2, list1.getId(), item.getId(), null);
         Assertions.assertFalse(deleted.isPresent());
 
         Optional<TodoItem> fetched = todoItemService.get(principal1, list1.getId(), item.getId());
@@ -228,13 +298,134 @@ public class SqliteTodoItemServiceIT {
     public void testDeleteSuccess() {
         TodoItem item = new TodoItem().setId("id").setTask("task").setDone(false);
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
-        Optional<TodoItem> deleted = todoItemService.delete(principal1, list1.getId(), item.getId());
+        Optional<TodoItem> deleted = todoItemService.delete(principal1, list1.getId(), item.getId(), null);
         Assertions.assertTrue(deleted.isPresent());
 
         Optional<TodoItem> fetched = todoItemService.get(principal1, list1.getId(), item.getId());
         Assertions.assertTrue(fetched.isEmpty());
     }
 
+    @Test
+    public void testBatch() {
+        TodoItem existing = new TodoItem().setId("id1").setTask("task1").setDone(false);
+        TodoItem removed = new TodoItem().setId("id2").setTask("task2").setDone(false);
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), existing));
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), removed));
+
+        TodoItem created = new TodoItem().setId("id3").setTask("task3").setDone(false);
+        TodoItem updated = new TodoItem().setId("id1").setTask("updated").setDone(true);
+        List<TodoItemOperation> operations = List.of(
+                new TodoItemOperation().setAction(BatchAction.CREATE).setItem(created),
+                new TodoItemOperation().setAction(BatchAction.CREATE).setItem(existing),
+                new TodoItemOperation().setAction(BatchAction.UPDATE).setItem(updated),
+                new TodoItemOperation().setAction(BatchAction.UPDATE).setItem(new TodoItem().setId("missing")),
+                new TodoItemOperation().setAction(BatchAction.DELETE).setItem(new TodoItem().setId("id2")),
+                new TodoItemOperation().setAction(BatchAction.DELETE).setItem(new TodoItem().setId("id2"))
+        );
+
+        List<TodoItemResult> results = todoItemService.batch(principal1, list1.getId(), operations);
+
+        Assertions.assertEquals(List.of(
+                new TodoItemResult().setId("id3").setStatus(BatchStatus.CREATED),
+                new TodoItemResult().setId("id1").setStatus(BatchStatus.CONFLICT),
+                new TodoItemResult().setId("id1").setStatus(BatchStatus.UPDATED),
+                new TodoItemResult().setId("missing").setStatus(BatchStatus.NOT_FOUND),
+                new TodoItemResult().setId("id2").setStatus(BatchStatus.DELETED),
+                new TodoItemResult().setId("id2").setStatus(BatchStatus.NOT_FOUND)
+        ), results);
+        Assertions.assertEquals(List.of(created, updated), todoItemService.getAll(principal1, list1.getId()));
+    }
+
+    @Test
+    public void testBatchWrongUser() {
+        TodoItem item = new TodoItem().setId("id1").setTask("task1").setDone(false);
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
+
+        List<TodoItemOperation> operations =
+                List.of(new TodoItemOperation().setAction(BatchAction.DELETE).setItem(item));
+        Assertions.assertThrows(TodoListNotFoundException.class,
+                () -> todoItemService.batch(principal2, list1.getId(), operations));
+        Assertions.assertEquals(List.of(item), todoItemService.getAll(principal1, list1.getId()));
+    }
+
+    @Test
+    public void testVersionBumpedByChanges() {
+        TodoItem item = new TodoItem().setId("id1").setTask("task1").setDone(false);
+        long initial = todoListService.getVersion(principal1, list1.getId()).orElseThrow();
+        long other = todoListService.getVersion(principal1, list2.getId()).orElseThrow();
+
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
+        long created = todoListService.getVersion(principal1, list1.getId()).orElseThrow();
+        Assertions.assertTrue(created > initial);
+
+        TodoItem updated = new TodoItem().setId("id1").setTask("updated").setDone(true);
+        Assertions.assertTrue(todoItemService.update(principal1, list1.getId(), updated, null).isPresent());
+        long afterUpdate = todoListService.getVersion(principal1, list1.getId()).orElseThrow();
+        Assertions.assertTrue(afterUpdate > created);
+
+        List<TodoItemOperation> operations =
+                List.of(new TodoItemOperation().setAction(BatchAction.CREATE).setItem(item));
+        todoItemService.batch(principal1, list1.getId(), operations);
+        Assertions.assertEquals(Optional.of(afterUpdate), todoListService.getVersion(principal1, list1.getId()));
+
+        Assertions.assertTrue(todoItemService.delete(principal1, list1.getId(), item.getId(), null).isPresent());
+        Assertions.assertTrue(todoListService.getVersion(principal1, list1.getId()).orElseThrow() > afterUpdate);
+        Assertions.assertEquals(Optional.of(other), todoListService.getVersion(principal1, list2.getId()));
+    }
+
+    @Test
+    public void testUpdateReturnsNewVersion() {
+        TodoItem item = new TodoItem().setId("id1").setTask("task1").setDone(false);
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
+        long created = todoListService.getVersion(principal1, list1.getId()).orElseThrow();
+
+        TodoItem updated = new TodoItem().setId("id1").setTask("updated").setDone(true);
+        Versioned<TodoItem> result = todoItemService.update(principal1, list1.getId(), updated, created).orElseThrow();
+        Assertions.assertEquals(updated, result.value());
+        Assertions.assertTrue(result.version() > created);
+        Assertions.assertEquals(Optional.of(result.version()), todoListService.getVersion(principal1, list1.getId()));
+    }
+
+    @Test
+    public void testExpectedVersionMismatch() {
+        TodoItem item = new TodoItem().setId("id1").setTask("task1").setDone(false);
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
+        long stale = todoListService.getVersion(principal1, list1.getId()).orElseThrow();
+        TodoItem other = new TodoItem().setId("id2").setTask("task2").setDone(false);
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), other));
+        Optional<Long> current = todoListService.getVersion(principal1, list1.getId());
+
+        TodoItem updated = new TodoItem().setId("id1").setTask("updated").setDone(true);
+        PreconditionFailedException exception = Assertions.assertThrows(PreconditionFailedException.class,
+                () -> todoItemService.update(principal1, list1.getId(), updated, stale));
+        Assertions.assertEquals("List with id id1 does not match the precondition", exception.getMessage());
+        Assertions.assertThrows(PreconditionFailedException.class,
+                () -> todoItemService.delete(principal1, list1.getId(), item.getId(), stale));
+        Assertions.assertThrows(PreconditionFailedException.class,
+                () -> todoItemService.delete(principal1, list1.getId(), "missing", stale));
+
+        // The failed writes were rolled back along with their version bumps
+        Assertions.assertEquals(Optional.of(item), todoItemService.get(principal1, list1.getId(), item.getId()));
+        Assertions.assertEquals(current, todoListService.getVersion(principal1, list1.getId()));
+        Assertions.assertTrue(todoItemService.delete(principal1, list1.getId(), item.getId(), current.orElseThrow())
+                .isPresent());
+    }
+
+    @Test
+    public void testVersionUnchangedByMisses() {
+        TodoItem item = new TodoItem().setId("id1").setTask("task1").setDone(false);
+        Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item));
+        Optional<Long> created = todoListService.getVersion(principal1, list1.getId());
+
+        Assertions.assertTrue(todoItemService.update(principal1, list1.getId(), item, null).isEmpty());
+        Assertions.assertTrue(todoItemService.delete(principal1, list1.getId(), "missing", null).isEmpty());
+        List<TodoItemOperation> operations =
+                List.of(new TodoItemOperation().setAction(BatchAction.DELETE).setItem(new TodoItem().setId("missing")));
+        todoItemService.batch(principal1, list1.getId(), operations);
+
+        Assertions.assertEquals(created, todoListService.getVersion(principal1, list1.getId()));
+    }
+
     @Test
     public void testTruncateNone() {
         int deleted = todoItemService.truncate();
@@ -247,6 +438,7 @@ public class SqliteTodoItemServiceIT {
         TodoItem item2 = new TodoItem().setId("id2").setTask("task2").setDone(false);
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item1));
         Assertions.assertTrue(todoItemService.create(principal1, list1.getId(), item2));
+        Assertions.assertTrue(todoListService.create(principal2, list2));
         Assertions.assertTrue(todoItemService.create(principal2, list2.getId(), item1));
         Assertions.assertTrue(todoItemService.create(principal2, list2.getId(), item2));
 
@@ -12,6 +12,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import javax.sql.DataSource;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @ExtendWith(DataSourceExtension.class)
 public class SqliteTodoListServiceIT {
@@ -108,6 +110,36 @@ public class SqliteTodoListServiceIT {
         Assertions.assertEquals(list2, fetched.get(1));
     }
 
+    @Test
+    public void testGetAllPaged() {
+        TodoList list1 = new TodoList().setId("id1").setName("same");
+        TodoList list2 = new TodoList().setId("id2").setName("same");
+        TodoList list3 = new TodoList().setId("id3").setName("another");
+        Assertions.assertTrue(todoListService.create(principal1, list1));
+        Assertions.assertTrue(todoListService.create(principal1, list2));
+        Assertions.assertTrue(todoListService.create(principal1, list3));
+
+        Assertions.assertEquals(List.of(list3, list1), todoListService.getAll(principal1, null, 2));
+        Assertions.assertEquals(List.of(list2), todoListService.getAll(principal1, list1, 2));
+        Assertions.assertTrue(todoListService.getAll(principal1, list2, 2).isEmpty());
+        Assertions.assertTrue(todoListService.getAll(principal2, null, 2).isEmpty());
+    }
+
+    @Test
+    public void testStream() {
+        TodoList list1 = new TodoList().setId("id1").setName("name2");
+        TodoList list2 = new TodoList().setId("id2").setName("name1");
+        Assertions.assertTrue(todoListService.create(principal1, list1));
+        Assertions.assertTrue(todoListService.create(principal1, list2));
+
+        try (Stream<TodoList> lists = todoListService.stream(principal1)) {
+            Assertions.assertEquals(List.of(list2, list1), lists.collect(Collectors.toList()));
+        }
+        try (Stream<TodoList> lists = todoListService.stream(principal2)) {
+            Assertions.assertEquals(0, lists.count());
+        }
+    }
+
     @Test
     public void testCreateConflict() {
         TodoList list = new TodoList().setId("id").setName("name");
@@ -145,7 +177,7 @@ public class SqliteTodoListServiceIT {
     @Test
     public void testUpdateMissing() {
         TodoList list = new TodoList().setId("id").setName("name");
-        Assertions.assertFalse(todoListService.update(principal1, list));
+        Assertions.assertTrue(todoListService.update(principal1, list).isEmpty());
     }
 
     @Test
@@ -154,7 +186,7 @@ public class SqliteTodoListServiceIT {
         Assertions.assertTrue(todoListService.create(principal1, list));
 
         list.setName("updated");
-        Assertions.assertFalse(todoListService.update(principal2, list));
+        Assertions.assertTrue(todoListService.update(principal2, list).isEmpty());
 
         Optional<TodoList> fetched = todoListService.get(principal1, list.getId());
         Assertions.assertTrue(fetched.isPresent());
@@ -165,7 +197,7 @@ public class SqliteTodoListServiceIT {
     public void testUpdateExistsButSame() {
         TodoList list = new TodoList().setId("id").setName("name");
         Assertions.assertTrue(todoListService.create(principal1, list));
-        Assertions.assertFalse(todoListService.update(principal1, list));
+        Assertions.assertTrue(todoListService.update(principal1, list).isEmpty());
     }
 
     @Test
@@ -173,7 +205,7 @@ public class SqliteTodoListServiceIT {
         TodoList list = new TodoList().setId("id").setName("name");
         Assertions.assertTrue(todoListService.create(principal1, list));
         list.setName("updated");
-        Assertions.assertTrue(todoListService.update(principal1, list));
+        Assertions.assertEquals(Optional.of(list), todoListService.update(principal1, list));
 
         Optional<TodoList> fetched = todoListService.get(principal1, list.getId());
         Assertions.assertTrue(fetched.isPresent());
@@ -208,6 +240,32 @@ public class SqliteTodoListServiceIT {
         Assertions.assertTrue(fetched.isEmpty());
     }
 
+    @Test
+    public void testGetVersion() {
+        TodoList list = new TodoList().setId("id").setName("name");
+        Assertions.assertTrue(todoListService.getVersion(principal1, list.getId()).isEmpty());
+        Assertions.assertTrue(todoListService.create(principal1, list));
+        long created = todoListService.getVersion(principal1, list.getId()).orElseThrow();
+        Assertions.assertTrue(todoListService.getVersion(principal2, list.getId()).isEmpty());
+
+        Assertions.assertTrue(todoListService.update(principal1, list).isEmpty());
+        Assertions.assertEquals(Optional.of(created), todoListService.getVersion(principal1, list.getId()));
+        Assertions.assertTrue(todoListService.update(principal1, list.setName("renamed")).isPresent());
+        Assertions.assertTrue(todoListService.getVersion(principal1, list.getId()).orElseThrow() > created);
+    }
+
+    @Test
+    public void testVersionNotReusedWhenRecreated() {
+        TodoList list = new TodoList().setId("id").setName("name");
+        Assertions.assertTrue(todoListService.create(principal1, list));
+        Assertions.assertTrue(todoListService.update(principal1, list.setName("renamed")).isPresent());
+        long renamed = todoListService.getVersion(principal1, list.getId()).orElseThrow();
+
+        Assertions.assertTrue(todoListService.delete(principal1, list.getId()).isPresent());
+        Assertions.assertTrue(todoListService.create(principal1, list.setName("name")));
+        Assertions.assertTrue(todoListService.getVersion(principal1, list.getId()).orElseThrow() > renamed);
+    }
+
     @Test
     public void testTruncateNone() {
         int deleted = todoListService.truncate();
@@ -0,0 +1,69 @@
+package com.tutorialapi.db.service.timing;
+
+import com.tutorialapi.db.DataSourceExtension;
+import com.tutorialapi.db.exception.ConflictException;
+import com.tutorialapi.db.service.cache.CachingTodoListService;
+import com.tutorialapi.db.service.cache.TodoCache;
+import com.tutorialapi.db.service.sqlite.SqliteTodoListService;
+import com.tutorialapi.model.TodoList;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+import com.tutorialapi.model.user.Subscription;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@ExtendWith(DataSourceExtension.class)
+public class TimingTodoListServiceIT {
+    private final RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+
+    private final TimingTodoListService timingTodoListService;
+    private final CachingTodoListService todoListService;
+
+    public TimingTodoListServiceIT(DataSource dataSource) {
+        this.timingTodoListService = new TimingTodoListService(new SqliteTodoListService(dataSource));
+        this.todoListService = new CachingTodoListService(timingTodoListService,
+                new TodoCache(100, Duration.ofMinutes(1), Duration.ofMinutes(5)));
+    }
+
+    @Test
+    public void testCacheHitNotTimed() {
+        TodoList list = new TodoList().setId("id").setName("name");
+        DatabaseTimer.reset();
+        Assertions.assertTrue(todoListService.create(principal, list));
+        Assertions.assertEquals(List.of(list), todoListService.getAll(principal));
+        Assertions.assertTrue(DatabaseTimer.getElapsedNanos() > 0);
+
+        DatabaseTimer.reset();
+        Assertions.assertEquals(List.of(list), todoListService.getAll(principal));
+        Assertions.assertEquals(0, DatabaseTimer.getElapsedNanos());
+    }
+
+    @Test
+    public void testStreamTimedWhileConsumed() {
+        TodoList list = new TodoList().setId("id").setName("name");
+        Assertions.assertTrue(todoListService.create(principal, list));
+
+        DatabaseTimer.reset();
+        try (Stream<TodoList> stream = timingTodoListService.stream(principal)) {
+            Assertions.assertEquals(0, DatabaseTimer.getElapsedNanos());
+            Assertions.assertEquals(List.of(list), stream.collect(Collectors.toList()));
+        }
+        Assertions.assertTrue(DatabaseTimer.getElapsedNanos() > 0);
+    }
+
+    @Test
+    public void testExceptionStillTimed() {
+        TodoList list = new TodoList().setId("id").setName("name");
+        Assertions.assertTrue(todoListService.create(principal, list));
+
+        DatabaseTimer.reset();
+        Assertions.assertThrows(ConflictException.class, () -> timingTodoListService.create(principal, list));
+        Assertions.assertTrue(DatabaseTimer.getElapsedNanos() > 0);
+    }
+}
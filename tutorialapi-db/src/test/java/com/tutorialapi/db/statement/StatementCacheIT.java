@@ -0,0 +1,103 @@
+package com.tutorialapi.db.statement;
+
+import com.tutorialapi.db.DataSourceExtension;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.JDBC;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+@ExtendWith(DataSourceExtension.class)
+public class StatementCacheIT {
+    private static final String SELECT_LISTS = "SELECT COUNT(*) FROM todo_lists WHERE user_id = ?";
+    private static final String SELECT_ITEMS = "SELECT COUNT(*) FROM todo_items WHERE user_id = ?";
+
+    private final DataSource dataSource;
+
+    public StatementCacheIT(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    private PreparedStatement count(StatementCache statementCache, String sql) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            return statementCache.execute(conn, sql, ps -> {
+                ps.setString(1, "user");
+                try (ResultSet rs = ps.executeQuery()) {
+                    Assertions.assertTrue(rs.next());
+                    Assertions.assertEquals(0, rs.getInt(1));
+                }
+                return ps;
+            });
+        }
+    }
+
+    @Test
+    public void testStatementReusedAcrossConnectionCheckouts() throws SQLException {
+        StatementCache statementCache = new StatementCache();
+        PreparedStatement first = count(statementCache, SELECT_LISTS);
+        PreparedStatement second = count(statementCache, SELECT_LISTS);
+        Assertions.assertSame(first, second);
+        Assertions.assertFalse(second.isClosed());
+        Assertions.assertNotSame(first, count(statementCache, SELECT_ITEMS));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedStatementClosed() throws SQLException {
+        StatementCache statementCache = new StatementCache(1);
+        PreparedStatement lists = count(statementCache, SELECT_LISTS);
+        PreparedStatement items = count(statementCache, SELECT_ITEMS);
+        Assertions.assertTrue(lists.isClosed());
+        Assertions.assertFalse(items.isClosed());
+        Assertions.assertNotSame(lists, count(statementCache, SELECT_LISTS));
+    }
+
+    @Test
+    public void testDisabled() throws SQLException {
+        StatementCache statementCache = new StatementCache(0);
+        PreparedStatement first = count(statementCache, SELECT_LISTS);
+        PreparedStatement second = count(statementCache, SELECT_LISTS);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertTrue(first.isClosed());
+        Assertions.assertTrue(second.isClosed());
+    }
+
+    @Test
+    public void testQueryEndsReadTransaction(@TempDir Path dir) throws SQLException {
+        String url = "jdbc:sqlite:" + dir.resolve("test.db");
+        try (HikariDataSource reads = fileDataSource(url); HikariDataSource writes = fileDataSource(url)) {
+            StatementCache statementCache = new StatementCache();
+            int tables = statementCache.query(reads, "SELECT COUNT(*) FROM sqlite_master", ps -> {
+                try (ResultSet rs = ps.executeQuery()) {
+                    Assertions.assertTrue(rs.next());
+                    return rs.getInt(1);
+                }
+            });
+            Assertions.assertEquals(0, tables);
+
+            // A read transaction left open on the pooled connection would hold its shared lock and block this commit
+            try (Connection conn = writes.getConnection(); Statement statement = conn.createStatement()) {
+                statement.execute("CREATE TABLE test (id INTEGER)");
+                conn.commit();
+            }
+        }
+    }
+
+    private static HikariDataSource fileDataSource(String url) {
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(JDBC.class.getName());
+        config.setJdbcUrl(url);
+        config.setAutoCommit(false);
+        config.setMaximumPoolSize(1);
+        return new HikariDataSource(config);
+    }
+}
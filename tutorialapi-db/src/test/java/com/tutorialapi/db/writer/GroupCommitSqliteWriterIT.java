@@ -0,0 +1,114 @@
+package com.tutorialapi.db.writer;
+
+import com.tutorialapi.db.DefaultServiceFactory;
+import com.tutorialapi.db.ServiceFactory;
+import com.tutorialapi.db.SqliteSettings;
+import com.tutorialapi.db.exception.ConflictException;
+import com.tutorialapi.model.TodoList;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+import com.tutorialapi.model.user.Subscription;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.JDBC;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class GroupCommitSqliteWriterIT {
+    private final RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+
+    private HikariDataSource dataSource;
+    private GroupCommitSqliteWriter writer;
+    private ServiceFactory serviceFactory;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void beforeEach(@TempDir Path tempDir) {
+        SqliteSettings settings = new SqliteSettings().setJournalMode("WAL").setBusyTimeout("5000");
+        HikariConfig config = new HikariConfig();
+        config.setDriverClassName(JDBC.class.getName());
+        config.setJdbcUrl("jdbc:sqlite:" + tempDir.resolve("test.db"));
+        config.setAutoCommit(false);
+        config.setDataSourceProperties(settings.toProperties());
+        config.setMaximumPoolSize(4);
+
+        dataSource = new HikariDataSource(config);
+        writer = new GroupCommitSqliteWriter(dataSource, 16);
+        serviceFactory = new DefaultServiceFactory(dataSource, dataSource, writer);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        executor.shutdownNow();
+        writer.close();
+        dataSource.close();
+    }
+
+    private TodoList list(int index) {
+        return new TodoList().setId("id" + index).setName("name" + index);
+    }
+
+    @Test
+    public void testConcurrentWritesAllCommitted() throws Exception {
+        List<Callable<Boolean>> creates = IntStream.range(0, 100)
+                .mapToObj(i -> (Callable<Boolean>) () -> serviceFactory.getTodoListService().create(principal, list(i)))
+                .collect(Collectors.toList());
+        for (Future<Boolean> future : executor.invokeAll(creates)) {
+            Assertions.assertTrue(future.get());
+        }
+        Assertions.assertEquals(100, serviceFactory.getTodoListService().getAll(principal).size());
+    }
+
+    @Test
+    public void testConflictOnlyFailsOwnWrite() throws Exception {
+        // Every list is created twice, exactly one create of each should conflict without affecting the others
+        List<Callable<Boolean>> creates = IntStream.range(0, 100)
+                .mapToObj(i -> (Callable<Boolean>) () -> serviceFactory.getTodoListService().create(principal, list(i / 2)))
+                .collect(Collectors.toList());
+        int created = 0;
+        int conflicts = 0;
+        for (Future<Boolean> future : executor.invokeAll(creates)) {
+            try {
+                Assertions.assertTrue(future.get());
+                created++;
+            } catch (ExecutionException e) {
+                Assertions.assertTrue(e.getCause() instanceof ConflictException);
+                conflicts++;
+            }
+        }
+        Assertions.assertEquals(50, created);
+        Assertions.assertEquals(50, conflicts);
+        Assertions.assertEquals(50, serviceFactory.getTodoListService().getAll(principal).size());
+    }
+
+    @Test
+    public void testResultsReturnedPerWrite() {
+        Assertions.assertTrue(serviceFactory.getTodoListService().create(principal, list(1)));
+        Assertions.assertTrue(serviceFactory.getTodoListService().update(principal, list(1)).isEmpty());
+        Assertions.assertEquals(Optional.of(list(1).setName("updated")),
+                serviceFactory.getTodoListService().update(principal, list(1).setName("updated")));
+        Assertions.assertEquals("updated",
+                serviceFactory.getTodoListService().delete(principal, "id1").map(TodoList::getName).orElse(null));
+        Assertions.assertTrue(serviceFactory.getTodoListService().get(principal, "id1").isEmpty());
+    }
+
+    @Test
+    public void testWriteAfterClose() {
+        writer.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> writer.write(conn -> true));
+    }
+}
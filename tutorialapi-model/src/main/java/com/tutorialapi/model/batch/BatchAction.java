@@ -0,0 +1,7 @@
+package com.tutorialapi.model.batch;
+
+public enum BatchAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
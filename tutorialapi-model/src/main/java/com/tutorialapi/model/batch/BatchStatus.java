@@ -0,0 +1,9 @@
+package com.tutorialapi.model.batch;
+
+public enum BatchStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    CONFLICT,
+    NOT_FOUND
+}
@@ -0,0 +1,88 @@
+package com.tutorialapi.model.batch;
+
+import com.tutorialapi.model.TodoItem;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Objects;
+
+@Schema(
+        name = "TodoItemOperation",
+        title = "Todo Item Operation",
+        description = """
+                A single create, update or delete of a `TodoItem` within a batch.
+                """,
+        example = """
+                {
+                  "action": "UPDATE",
+                  "item": {
+                    "id": "item-id",
+                    "task": "Mow the lawn",
+                    "done": true
+                  }
+                }
+                """
+)
+public class TodoItemOperation {
+    @NotNull(message = "Batch operation action cannot be empty")
+    private BatchAction action;
+
+    @NotNull(message = "Batch operation item cannot be empty")
+    private TodoItem item;
+
+    @Schema(
+            name = "action",
+            title = "Action",
+            description = """
+                The change to make, one of `CREATE`, `UPDATE` or `DELETE`.
+                """,
+            example = """
+                CREATE
+                """
+    )
+    public BatchAction getAction() {
+        return action;
+    }
+
+    public TodoItemOperation setAction(BatchAction action) {
+        this.action = action;
+        return this;
+    }
+
+    @Schema(
+            name = "item",
+            title = "Item",
+            description = """
+                The `TodoItem` to create or update. Only the `id` is needed to delete an item.
+                """
+    )
+    public TodoItem getItem() {
+        return item;
+    }
+
+    public TodoItemOperation setItem(TodoItem item) {
+        this.item = item;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TodoItemOperation that = (TodoItemOperation) o;
+        return action == that.action && Objects.equals(item, that.item);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(action, item);
+    }
+
+    @Override
+    public String toString() {
+        return "TodoItemOperation{" +
+                "action=" + action +
+                ", item=" + item +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+package com.tutorialapi.model.batch;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Objects;
+
+@Schema(
+        name = "TodoItemResult",
+        title = "Todo Item Result",
+        description = """
+                The outcome of a single `TodoItemOperation` within a batch.
+                """,
+        example = """
+                {
+                  "id": "item-id",
+                  "status": "UPDATED"
+                }
+                """
+)
+public class TodoItemResult {
+    private String id;
+    private BatchStatus status;
+
+    @Schema(
+            name = "id",
+            title = "ID",
+            description = """
+                The identifier of the `TodoItem` the operation applied to, including any generated `id`.
+                """,
+            example = """
+                my-item-id
+                """
+    )
+    public String getId() {
+        return id;
+    }
+
+    public TodoItemResult setId(String id) {
+        this.id = id;
+        return this;
+    }
+
+    @Schema(
+            name = "status",
+            title = "Status",
+            description = """
+                What happened, one of `CREATED`, `UPDATED`, `DELETED`, `CONFLICT` or `NOT_FOUND`.
+                """,
+            example = """
+                CREATED
+                """
+    )
+    public BatchStatus getStatus() {
+        return status;
+    }
+
+    public TodoItemResult setStatus(BatchStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TodoItemResult that = (TodoItemResult) o;
+        return Objects.equals(id, that.id) && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, status);
+    }
+
+    @Override
+    public String toString() {
+        return "TodoItemResult{" +
+                "id='" + id + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -1,15 +1,92 @@
 package com.tutorialapi.model.config;
 
+import java.util.Optional;
+
 public enum ConfigKey implements Key {
     SERVER_KEYSTORE_FILE,
     SERVER_KEYSTORE_TYPE,
     SERVER_KEYSTORE_PASSWORD,
+    SERVER_KEYSTORE_RELOAD_INTERVAL("60"),
     SERVER_WEB_CONTENT,
 
+    SERVER_TLS_PROVIDER(""),
+    SERVER_TLS_PROTOCOLS("TLSv1.3,TLSv1.2"),
+    SERVER_TLS_CIPHERS("TLS_AES_128_GCM_SHA256,TLS_AES_256_GCM_SHA384,TLS_CHACHA20_POLY1305_SHA256,"
+            + "TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256,TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256,"
+            + "TLS_ECDHE_ECDSA_WITH_AES_256_GCM_SHA384,TLS_ECDHE_RSA_WITH_AES_256_GCM_SHA384,"
+            + "TLS_ECDHE_ECDSA_WITH_CHACHA20_POLY1305_SHA256,TLS_ECDHE_RSA_WITH_CHACHA20_POLY1305_SHA256"),
+    SERVER_TLS_SESSION_CACHE_SIZE("20480"),
+    SERVER_TLS_SESSION_TIMEOUT("3600"),
+
+    SERVER_GZIP_ENABLED("true"),
+    SERVER_GZIP_MIN_SIZE("1024"),
+    SERVER_GZIP_MIME_TYPES("application/json,text/html,text/css,text/plain,application/javascript,image/svg+xml"),
+    SERVER_GZIP_COMPRESSION_LEVEL("6"),
+    SERVER_GZIP_INFLATE_BUFFER_SIZE("8192"),
+    SERVER_GZIP_PRECOMPRESS("true"),
+    SERVER_GZIP_CACHE_DIRECTORY,
+
+    SERVER_HTTP2_MAX_CONCURRENT_STREAMS("128"),
+    SERVER_HTTP2_INITIAL_STREAM_WINDOW("524288"),
+    SERVER_HTTP2_INITIAL_SESSION_WINDOW("1048576"),
+    SERVER_HTTP2_STREAM_IDLE_TIMEOUT("30000"),
+
+    SERVER_CLEARTEXT_ENABLED("false"),
+
+    SERVER_VIRTUAL_THREADS("false"),
+    SERVER_THREADS_MIN("8"),
+    SERVER_THREADS_MAX("200"),
+    SERVER_THREADS_IDLE_TIMEOUT("60000"),
+    SERVER_THREADS_RESERVED("-1"),
+    SERVER_THREADS_QUEUE_SIZE("1024"),
+    SERVER_THREADS_QUEUE_RETRY_AFTER("1"),
+    SERVER_REQUESTS_MAX_IN_FLIGHT("1024"),
+    SERVER_CONNECTOR_ACCEPTORS("-1"),
+    SERVER_CONNECTOR_SELECTORS("-1"),
+    SERVER_CONNECTOR_ACCEPT_QUEUE_SIZE("128"),
+    SERVER_CONNECTOR_IDLE_TIMEOUT("30000"),
+    SERVER_OUTPUT_BUFFER_SIZE("32768"),
+
     DB_DRIVER,
     DB_URL,
     DB_USERNAME,
     DB_PASSWORD,
 
-    RAPIDAPI_PROXY_SECRET,
+    DB_POOL_READ_SIZE("8"),
+    DB_POOL_WRITE_SIZE("2"),
+    DB_POOL_CONNECTION_TIMEOUT("30000"),
+    DB_POOL_IDLE_TIMEOUT("600000"),
+    DB_POOL_MAX_LIFETIME("1800000"),
+
+    DB_SQLITE_JOURNAL_MODE("WAL"),
+    DB_SQLITE_SYNCHRONOUS("NORMAL"),
+    DB_SQLITE_MMAP_SIZE("268435456"),
+    DB_SQLITE_CACHE_SIZE("-16384"),
+    DB_SQLITE_TEMP_STORE("MEMORY"),
+    DB_SQLITE_BUSY_TIMEOUT("5000"),
+    DB_SQLITE_GROUP_COMMIT("false"),
+    DB_SQLITE_GROUP_COMMIT_BATCH_SIZE("128"),
+    DB_SQLITE_STATEMENT_CACHE_SIZE("64"),
+
+    DB_CACHE_TODO_MAXIMUM_WEIGHT("100000"),
+    DB_CACHE_TODO_IDLE_TIMEOUT("300000"),
+    DB_CACHE_TODO_EXPIRATION("1800000"),
+    DB_CACHE_APIKEY_MAXIMUM_SIZE("10000"),
+    DB_CACHE_APIKEY_EXPIRATION("300000"),
+
+    RAPIDAPI_PROXY_SECRET;
+
+    private final String defaultValue;
+
+    ConfigKey() {
+        this(null);
+    }
+
+    ConfigKey(String defaultValue) {
+        this.defaultValue = defaultValue;
+    }
+
+    public Optional<String> getDefaultValue() {
+        return Optional.ofNullable(defaultValue);
+    }
 }
@@ -2,7 +2,12 @@ package com.tutorialapi.model.config;
 
 public enum SystemKey implements Key {
     PORT("8443"),
-    MODE("dev");
+    CLEARTEXT_PORT("8080"),
+    MODE("dev"),
+    CONFIG_LOCATION("https://raw.githubusercontent.com/apiburn/tutorialapi/main/system-{mode}.properties");
+
+    // Replaced literally, so a config location may contain any other characters, '%' included
+    public static final String MODE_PLACEHOLDER = "{mode}";
 
     private final String defaultValue;
 
@@ -3,9 +3,18 @@ package com.tutorialapi.model.config;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Optional;
+
 public class ConfigKeyTest {
     @Test
     public void testGetKey() {
         Assertions.assertEquals("server.keystore.file", ConfigKey.SERVER_KEYSTORE_FILE.getKey());
+        Assertions.assertEquals("db.sqlite.journal.mode", ConfigKey.DB_SQLITE_JOURNAL_MODE.getKey());
+    }
+
+    @Test
+    public void testDefaultValues() {
+        Assertions.assertEquals(Optional.empty(), ConfigKey.DB_URL.getDefaultValue());
+        Assertions.assertEquals(Optional.of("WAL"), ConfigKey.DB_SQLITE_JOURNAL_MODE.getDefaultValue());
     }
 }
@@ -7,11 +7,17 @@ public class SystemKeyTest {
     @Test
     public void testDefaultValues() {
         Assertions.assertEquals("8443", SystemKey.PORT.getDefaultValue());
+        Assertions.assertEquals("8080", SystemKey.CLEARTEXT_PORT.getDefaultValue());
         Assertions.assertEquals("dev", SystemKey.MODE.getDefaultValue());
+        Assertions.assertEquals("https://raw.githubusercontent.com/apiburn/tutorialapi/main/system-{mode}.properties",
+                SystemKey.CONFIG_LOCATION.getDefaultValue());
+        Assertions.assertTrue(SystemKey.CONFIG_LOCATION.getDefaultValue().contains(SystemKey.MODE_PLACEHOLDER));
     }
 
     @Test
     public void testGetKey() {
         Assertions.assertEquals("port", SystemKey.PORT.getKey());
+        Assertions.assertEquals("cleartext.port", SystemKey.CLEARTEXT_PORT.getKey());
+        Assertions.assertEquals("config.location", SystemKey.CONFIG_LOCATION.getKey());
     }
 }
@@ -1,5 +1,11 @@
 package com.tutorialapi.rest;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.TodoList;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.rest.json.ObjectMapperResolver;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.jaxrs2.integration.resources.AcceptHeaderOpenApiResource;
 import io.swagger.v3.jaxrs2.integration.resources.OpenApiResource;
 import jakarta.ws.rs.ApplicationPath;
@@ -17,10 +23,18 @@ public class ApiApplication extends ResourceConfig {
         register(OpenApiResource.class);
         register(AcceptHeaderOpenApiResource.class);
 
+        ObjectMapper objectMapper = new ObjectMapper();
+        register(new ObjectMapperResolver(objectMapper));
+
+        ValidationService validationService =
+                new ValidationService(TodoItem.class, TodoList.class, TodoItemOperation.class);
+
         register(new AbstractBinder() {
             @Override
             protected void configure() {
                 bind(environmentSupplier).to(new TypeLiteral<Supplier<Environment>>() {});
+                bind(validationService).to(ValidationService.class);
+                bind(objectMapper).to(ObjectMapper.class);
             }
         });
     }
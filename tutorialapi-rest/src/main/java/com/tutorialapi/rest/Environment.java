@@ -1,105 +1,228 @@
 package com.tutorialapi.rest;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.tutorialapi.db.DefaultServiceFactory;
 import com.tutorialapi.db.ServiceFactory;
+import com.tutorialapi.db.SqliteSettings;
+import com.tutorialapi.db.service.cache.TodoCache;
+import com.tutorialapi.db.statement.StatementCache;
+import com.tutorialapi.db.writer.DirectSqliteWriter;
+import com.tutorialapi.db.writer.GroupCommitSqliteWriter;
+import com.tutorialapi.db.writer.SqliteWriter;
 import com.tutorialapi.model.config.ConfigKey;
+import com.tutorialapi.rest.config.ConfigSource;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigParseOptions;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.sql.DataSource;
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class Environment {
     private static final Logger LOGGER = LoggerFactory.getLogger(Environment.class);
 
-    private static final String CONFIG_URL_PATTERN =
-        "https://raw.githubusercontent.com/apiburn/tutorialapi/main/system-%s.properties";
+    private static final long RELOAD_INTERVAL_SECONDS = TimeUnit.MINUTES.toSeconds(2);
+    private static final long DRAIN_DELAY_SECONDS = 30;
+    private static final long CACHE_STATS_INTERVAL_SECONDS = TimeUnit.MINUTES.toSeconds(5);
+
+    private static final Map<String, String> DEFAULTS = Stream.of(ConfigKey.values())
+            .filter(configKey -> configKey.getDefaultValue().isPresent())
+            .collect(Collectors.toMap(ConfigKey::getKey, configKey -> configKey.getDefaultValue().get()));
 
     private final Config config;
     private final ServiceFactory serviceFactory;
+    private final List<SqliteWriter> writers;
+    private final List<HikariDataSource> dataSources;
+    private final List<TodoCache> todoCaches;
 
     public Environment(Config config, ServiceFactory serviceFactory) {
+        this(config, serviceFactory, Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+    }
+
+    public Environment(Config config, ServiceFactory serviceFactory,
+                       List<SqliteWriter> writers, List<HikariDataSource> dataSources, List<TodoCache> todoCaches) {
         this.config = config;
         this.serviceFactory = serviceFactory;
+        this.writers = writers;
+        this.dataSources = dataSources;
+        this.todoCaches = todoCaches;
     }
 
-    private static ServiceFactory createServiceFactory(Config config) {
+    private static HikariConfig createDbConfig(Config config, String poolName) {
         HikariConfig dbConfig = new HikariConfig();
+        dbConfig.setPoolName(poolName);
         dbConfig.setDriverClassName(config.getString(ConfigKey.DB_DRIVER.getKey()));
         dbConfig.setJdbcUrl(config.getString(ConfigKey.DB_URL.getKey()));
         dbConfig.setUsername(config.getString(ConfigKey.DB_USERNAME.getKey()));
         dbConfig.setPassword(config.getString(ConfigKey.DB_PASSWORD.getKey()));
-        dbConfig.setAutoCommit(false);
+        dbConfig.setConnectionTimeout(config.getLong(ConfigKey.DB_POOL_CONNECTION_TIMEOUT.getKey()));
+        dbConfig.setIdleTimeout(config.getLong(ConfigKey.DB_POOL_IDLE_TIMEOUT.getKey()));
+        dbConfig.setMaxLifetime(config.getLong(ConfigKey.DB_POOL_MAX_LIFETIME.getKey()));
+        return dbConfig;
+    }
+
+    private static Environment createEnvironment(Config config) {
+        List<SqliteWriter> writers = new ArrayList<>();
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        try {
+            return createEnvironment(config, writers, dataSources);
+        } catch (RuntimeException e) {
+            // Nothing else holds on to what was opened before the failure, a failed reload would leak it for good
+            writers.forEach(SqliteWriter::close);
+            dataSources.forEach(HikariDataSource::close);
+            throw e;
+        }
+    }
+
+    private static Environment createEnvironment(Config config, List<SqliteWriter> writers,
+                                                 List<HikariDataSource> dataSources) {
+        SqliteSettings sqliteSettings = new SqliteSettings()
+                .setJournalMode(config.getString(ConfigKey.DB_SQLITE_JOURNAL_MODE.getKey()))
+                .setSynchronous(config.getString(ConfigKey.DB_SQLITE_SYNCHRONOUS.getKey()))
+                .setMmapSize(config.getString(ConfigKey.DB_SQLITE_MMAP_SIZE.getKey()))
+                .setCacheSize(config.getString(ConfigKey.DB_SQLITE_CACHE_SIZE.getKey()))
+                .setTempStore(config.getString(ConfigKey.DB_SQLITE_TEMP_STORE.getKey()))
+                .setBusyTimeout(config.getString(ConfigKey.DB_SQLITE_BUSY_TIMEOUT.getKey()));
+
+        HikariConfig writeConfig = createDbConfig(config, "sqlite-write");
+        writeConfig.setAutoCommit(false);
+        writeConfig.setDataSourceProperties(sqliteSettings.toProperties());
+
+        HikariDataSource writeDataSource;
+        HikariDataSource readDataSource;
+        if (sqliteSettings.isWriteAheadLog()) {
+            writeConfig.setMaximumPoolSize(config.getInt(ConfigKey.DB_POOL_WRITE_SIZE.getKey()));
+            writeDataSource = new HikariDataSource(writeConfig);
+            dataSources.add(writeDataSource);
+
+            // Opened after the write pool, which creates the database file a read-only connection needs
+            HikariConfig readConfig = createDbConfig(config, "sqlite-read");
+            readConfig.setAutoCommit(true);
+            // Must match the connection's open mode, sqlite-jdbc refuses to change the read-only flag after opening
+            readConfig.setReadOnly(true);
+            readConfig.setDataSourceProperties(sqliteSettings.toReadOnlyProperties());
+            readConfig.setConnectionInitSql(SqliteSettings.QUERY_ONLY_SQL);
+            readConfig.setMaximumPoolSize(config.getInt(ConfigKey.DB_POOL_READ_SIZE.getKey()));
+            readDataSource = new HikariDataSource(readConfig);
+            dataSources.add(readDataSource);
+        } else {
+            // With a rollback journal a writer locks out readers, so everything shares a single connection
+            writeConfig.setMaximumPoolSize(1);
+            writeDataSource = new HikariDataSource(writeConfig);
+            readDataSource = writeDataSource;
+            dataSources.add(writeDataSource);
+        }
+
+        int batchSize = config.getInt(ConfigKey.DB_SQLITE_GROUP_COMMIT_BATCH_SIZE.getKey());
+        SqliteWriter writer = config.getBoolean(ConfigKey.DB_SQLITE_GROUP_COMMIT.getKey())
+                ? new GroupCommitSqliteWriter(writeDataSource, batchSize)
+                : new DirectSqliteWriter(writeDataSource);
+        writers.add(writer);
+        StatementCache statementCache =
+                new StatementCache(config.getInt(ConfigKey.DB_SQLITE_STATEMENT_CACHE_SIZE.getKey()));
+        long cacheWeight = config.getLong(ConfigKey.DB_CACHE_TODO_MAXIMUM_WEIGHT.getKey());
+        TodoCache todoCache = cacheWeight > 0
+                ? new TodoCache(cacheWeight,
+                        Duration.ofMillis(config.getLong(ConfigKey.DB_CACHE_TODO_IDLE_TIMEOUT.getKey())),
+                        Duration.ofMillis(config.getLong(ConfigKey.DB_CACHE_TODO_EXPIRATION.getKey())))
+                : null;
+        ServiceFactory serviceFactory = new DefaultServiceFactory(readDataSource, writeDataSource, writer,
+                statementCache, todoCache, config.getLong(ConfigKey.DB_CACHE_APIKEY_MAXIMUM_SIZE.getKey()),
+                Duration.ofMillis(config.getLong(ConfigKey.DB_CACHE_APIKEY_EXPIRATION.getKey())));
+        List<TodoCache> todoCaches = todoCache == null ? Collections.emptyList() : List.of(todoCache);
+        return new Environment(config, serviceFactory, List.copyOf(writers), List.copyOf(dataSources), todoCaches);
+    }
 
-        DataSource dataSource = new HikariDataSource(dbConfig);
-        return new DefaultServiceFactory(dataSource);
+    private static Config parseConfig(ConfigSource configSource, byte[] content) {
+        ConfigParseOptions options = ConfigParseOptions.defaults()
+                .setOriginDescription(configSource.getName())
+                .setSyntax(configSource.getSyntax());
+        return ConfigFactory.parseString(new String(content, StandardCharsets.UTF_8), options)
+                .withFallback(ConfigFactory.parseMap(DEFAULTS, "defaults"));
     }
 
-    private static boolean hasChanged(Config oldConfig, Config newConfig) {
-        String oldConfigStr = oldConfig.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> entry.getKey() + " => " + entry.getValue().render())
-                .collect(Collectors.joining("\n"));
-        String newConfigStr = newConfig.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .map(entry -> entry.getKey() + " => " + entry.getValue().render())
-                .collect(Collectors.joining("\n"));
-        return !oldConfigStr.equals(newConfigStr);
+    private static byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to create config digest", e);
+        }
     }
 
-    private static final AtomicReference<Environment> environmentRef = new AtomicReference<>();
-
-    public static Supplier<Environment> createEnvironment(Executor executor, String mode) {
-        LoadingCache<Boolean, Environment> loadingCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(2, TimeUnit.MINUTES)
-                .build(CacheLoader.asyncReloading(CacheLoader.from(() -> {
-                    try {
-                        String url = String.format(CONFIG_URL_PATTERN, mode);
-                        Config config = ConfigFactory.parseURL(new URL(url));
-
-                        boolean loadEnvironment = false;
-                        if (environmentRef.get() == null) {
-                            LOGGER.info("Creating environment");
-                            loadEnvironment = true;
-                        } else if (hasChanged(environmentRef.get().getConfig(), config)) {
-                            LOGGER.info("Reloading environment since config changed");
-                            loadEnvironment = true;
-                        }
-
-                        if (loadEnvironment) {
-                            return new Environment(config, createServiceFactory(config));
-                        }
-                        return environmentRef.get();
-                    } catch (MalformedURLException e) {
-                        throw new RuntimeException("Invalid URL", e);
-                    }
-                }), executor));
-
-        return () -> {
-            try {
-                Environment environment = loadingCache.get(true);
-                environmentRef.set(environment);
-                return environment;
-            } catch (ExecutionException e) {
-                LOGGER.error("Failed to create environment", e);
-                throw new RuntimeException(e);
+    private static void reloadEnvironment(AtomicReference<Environment> environmentRef,
+                                          AtomicReference<byte[]> digestRef,
+                                          ScheduledExecutorService executor,
+                                          ConfigSource configSource) {
+        try {
+            byte[] content = configSource.read();
+            byte[] digest = digest(content);
+            if (!MessageDigest.isEqual(digestRef.get(), digest)) {
+                LOGGER.info("Reloading environment since config changed");
+                Environment current = environmentRef.get();
+                environmentRef.set(createEnvironment(parseConfig(configSource, content)));
+                digestRef.set(digest);
+
+                // Give in-flight requests time to finish with the old connection pools before closing them
+                current.drain();
+                executor.schedule(current::close, DRAIN_DELAY_SECONDS, TimeUnit.SECONDS);
             }
-        };
+        } catch (RuntimeException e) {
+            // Keep serving the current environment, the next scheduled reload will try again
+            LOGGER.error("Failed to reload environment", e);
+        }
+    }
+
+    public static Supplier<Environment> createEnvironment(ScheduledExecutorService executor,
+                                                          ConfigSource configSource) {
+        LOGGER.info("Creating environment from {}", configSource.getName());
+        byte[] content = configSource.read();
+        AtomicReference<byte[]> digestRef = new AtomicReference<>(digest(content));
+        AtomicReference<Environment> environmentRef =
+                new AtomicReference<>(createEnvironment(parseConfig(configSource, content)));
+
+        // All reloads run on the single executor thread, whether polled or triggered by a watched source
+        Runnable reload = () -> reloadEnvironment(environmentRef, digestRef, executor, configSource);
+        executor.scheduleWithFixedDelay(reload, RELOAD_INTERVAL_SECONDS, RELOAD_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        configSource.watch(() -> executor.execute(reload));
+        executor.scheduleWithFixedDelay(() -> environmentRef.get().logCacheStats(),
+                CACHE_STATS_INTERVAL_SECONDS, CACHE_STATS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+        return environmentRef::get;
+    }
+
+    private void drain() {
+        dataSources.stream()
+                .map(HikariDataSource::getHikariPoolMXBean)
+                .forEach(HikariPoolMXBean::softEvictConnections);
+    }
+
+    private void logCacheStats() {
+        todoCaches.forEach(todoCache -> {
+            LOGGER.info("Todo list cache: {}", todoCache.getListStats());
+            LOGGER.info("Todo item cache: {}", todoCache.getItemStats());
+        });
+    }
+
+    private void close() {
+        // Stop the writers first so queued writes are not sent to a closed pool
+        writers.forEach(SqliteWriter::close);
+        dataSources.forEach(HikariDataSource::close);
     }
 
     public Config getConfig() {
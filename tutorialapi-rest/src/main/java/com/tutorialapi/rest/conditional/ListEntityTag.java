@@ -0,0 +1,62 @@
+package com.tutorialapi.rest.conditional;
+
+import com.tutorialapi.db.exception.PreconditionFailedException;
+import com.tutorialapi.db.service.TodoListService;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Optional;
+
+public class ListEntityTag {
+    private final EntityTag entityTag;
+
+    private ListEntityTag(EntityTag entityTag) {
+        this.entityTag = entityTag;
+    }
+
+    public static ListEntityTag lookup(TodoListService todoListService, RapidApiPrincipal principal, String listId) {
+        // Every item change bumps the list version, so it identifies the state of the list and all of its items
+        return new ListEntityTag(todoListService.getVersion(principal, listId)
+                .map(version -> new EntityTag(Long.toString(version)))
+                .orElse(null));
+    }
+
+    public static ListEntityTag of(long version) {
+        return new ListEntityTag(new EntityTag(Long.toString(version)));
+    }
+
+    public static Long expectedVersion(String listId, String ifMatch) {
+        // Writes compare the version inside their own transaction, so only a single strong tag or * is supported
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not a tag this API issued, so it can never match
+            }
+        }
+        throw new PreconditionFailedException(listId);
+    }
+
+    public static ListEntityTag lookupIfConditional(TodoListService todoListService, RapidApiPrincipal principal,
+                                                    String listId, String precondition) {
+        // Reading the version costs a query, so only requests that can be answered from it pay for it
+        return precondition == null ? new ListEntityTag(null) : lookup(todoListService, principal, listId);
+    }
+
+    public Optional<Response> evaluatePreconditions(Request request) {
+        Response.ResponseBuilder builder = entityTag == null
+                ? request.evaluatePreconditions()
+                : request.evaluatePreconditions(entityTag);
+        return Optional.ofNullable(builder).map(Response.ResponseBuilder::build);
+    }
+
+    public Response tag(Response response) {
+        return entityTag == null ? response : Response.fromResponse(response).tag(entityTag).build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.tutorialapi.rest.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public class ClasspathConfigSource implements ConfigSource {
+    private final String resource;
+
+    public ClasspathConfigSource(String resource) {
+        this.resource = resource;
+    }
+
+    @Override
+    public String getName() {
+        return resource;
+    }
+
+    @Override
+    public byte[] read() {
+        try (InputStream inputStream = ClasspathConfigSource.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new RuntimeException("Config resource not found on classpath: " + resource);
+            }
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read config resource " + resource + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.tutorialapi.rest.config;
+
+import com.typesafe.config.ConfigSyntax;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Paths;
+
+import static java.util.Locale.ENGLISH;
+
+public interface ConfigSource {
+    String CLASSPATH_PREFIX = "classpath:";
+    String FILE_PREFIX = "file:";
+
+    String getName();
+
+    byte[] read();
+
+    default ConfigSyntax getSyntax() {
+        String name = getName().toLowerCase(ENGLISH);
+        if (name.endsWith(".properties")) {
+            return ConfigSyntax.PROPERTIES;
+        } else if (name.endsWith(".json")) {
+            return ConfigSyntax.JSON;
+        }
+        return ConfigSyntax.CONF;
+    }
+
+    default void watch(Runnable listener) {
+        // By default, sources are only polled for changes
+    }
+
+    default void close() {
+        // Only sources that watch for changes hold anything that needs releasing
+    }
+
+    static ConfigSource from(String location) {
+        if (location.startsWith(CLASSPATH_PREFIX)) {
+            return new ClasspathConfigSource(location.substring(CLASSPATH_PREFIX.length()));
+        } else if (location.startsWith(FILE_PREFIX)) {
+            return new FileConfigSource(Paths.get(URI.create(location)));
+        }
+
+        try {
+            return new UrlConfigSource(new URL(location));
+        } catch (MalformedURLException e) {
+            return new FileConfigSource(Paths.get(location));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.tutorialapi.rest.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+public class FileConfigSource implements ConfigSource {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileConfigSource.class);
+
+    private final Path path;
+    private volatile WatchService watchService;
+    private volatile boolean closed;
+
+    public FileConfigSource(Path path) {
+        this.path = path.toAbsolutePath();
+    }
+
+    @Override
+    public String getName() {
+        return path.toString();
+    }
+
+    @Override
+    public byte[] read() {
+        try {
+            return Files.readAllBytes(path);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read config file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void watch(Runnable listener) {
+        try {
+            WatchService watchService = FileSystems.getDefault().newWatchService();
+            path.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            this.watchService = watchService;
+
+            Thread watcher = new Thread(() -> watch(watchService, listener), "config-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to watch config file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        WatchService watchService = this.watchService;
+        if (watchService != null) {
+            // Wakes the watcher thread blocked in take, which then exits
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to stop watching config file {}", path, e);
+            }
+        }
+    }
+
+    private void watch(WatchService watchService, Runnable listener) {
+        try (watchService) {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey watchKey = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (path.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                watchKey.reset();
+
+                if (changed) {
+                    LOGGER.info("Config file changed: {}", path);
+                    listener.run();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException | IOException e) {
+            if (closed) {
+                LOGGER.info("Stopped watching config file {}", path);
+            } else {
+                LOGGER.error("Stopped watching config file {}", path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.tutorialapi.rest.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+public class UrlConfigSource implements ConfigSource {
+    private final URL url;
+
+    public UrlConfigSource(URL url) {
+        this.url = url;
+    }
+
+    @Override
+    public String getName() {
+        return url.toString();
+    }
+
+    @Override
+    public byte[] read() {
+        try (InputStream inputStream = url.openStream()) {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read config from " + url + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.tutorialapi.rest.exception;
+
+import com.tutorialapi.db.exception.PreconditionFailedException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import static jakarta.ws.rs.core.Response.Status.PRECONDITION_FAILED;
+
+@Provider
+public class PreconditionFailedExceptionMapper implements ExceptionMapper<PreconditionFailedException> {
+    @Override
+    public Response toResponse(PreconditionFailedException exception) {
+        return Response.status(PRECONDITION_FAILED)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(new ErrorResponse(PRECONDITION_FAILED.getStatusCode(), exception.getMessage()))
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.tutorialapi.rest.exception;
+
+import com.tutorialapi.db.exception.TodoListNotFoundException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+
+@Provider
+public class TodoListNotFoundExceptionMapper implements ExceptionMapper<TodoListNotFoundException> {
+    @Override
+    public Response toResponse(TodoListNotFoundException exception) {
+        return Response.status(NOT_FOUND)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(new ErrorResponse(NOT_FOUND.getStatusCode(), exception.getMessage()))
+                .build();
+    }
+}
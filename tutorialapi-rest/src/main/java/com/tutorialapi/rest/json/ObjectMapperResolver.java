@@ -0,0 +1,18 @@
+package com.tutorialapi.rest.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.ext.ContextResolver;
+
+// Registered as an instance by the application, not scanned, so entities and streamed bodies share one mapper
+public class ObjectMapperResolver implements ContextResolver<ObjectMapper> {
+    private final ObjectMapper objectMapper;
+
+    public ObjectMapperResolver(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ObjectMapper getContext(Class<?> type) {
+        return objectMapper;
+    }
+}
@@ -0,0 +1,156 @@
+package com.tutorialapi.rest.log;
+
+import com.tutorialapi.model.user.Subscription;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+public class AccessLogEntry {
+    private long timestamp;
+    private long startNanos;
+    private String requestId;
+    private String user;
+    private Subscription subscription;
+    private String method;
+    private String path;
+    private int status;
+    private long bytes;
+    private long latencyNanos;
+    private long databaseNanos;
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public String getRequestId() {
+        return requestId;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public AccessLogEntry setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+        return this;
+    }
+
+    public AccessLogEntry setStartNanos(long startNanos) {
+        this.startNanos = startNanos;
+        return this;
+    }
+
+    public AccessLogEntry setRequestId(String requestId) {
+        this.requestId = requestId;
+        return this;
+    }
+
+    public AccessLogEntry setUser(String user) {
+        this.user = user;
+        return this;
+    }
+
+    public AccessLogEntry setSubscription(Subscription subscription) {
+        this.subscription = subscription;
+        return this;
+    }
+
+    public AccessLogEntry setMethod(String method) {
+        this.method = method;
+        return this;
+    }
+
+    public AccessLogEntry setPath(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public AccessLogEntry setStatus(int status) {
+        this.status = status;
+        return this;
+    }
+
+    public AccessLogEntry setBytes(long bytes) {
+        this.bytes = bytes;
+        return this;
+    }
+
+    public AccessLogEntry setLatencyNanos(long latencyNanos) {
+        this.latencyNanos = latencyNanos;
+        return this;
+    }
+
+    public AccessLogEntry setDatabaseNanos(long databaseNanos) {
+        this.databaseNanos = databaseNanos;
+        return this;
+    }
+
+    void copyFrom(AccessLogEntry entry) {
+        timestamp = entry.timestamp;
+        startNanos = entry.startNanos;
+        requestId = entry.requestId;
+        user = entry.user;
+        subscription = entry.subscription;
+        method = entry.method;
+        path = entry.path;
+        status = entry.status;
+        bytes = entry.bytes;
+        latencyNanos = entry.latencyNanos;
+        databaseNanos = entry.databaseNanos;
+    }
+
+    private static void appendString(StringBuilder builder, String value) {
+        if (value == null) {
+            builder.append("null");
+            return;
+        }
+        builder.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xf, 16));
+            } else {
+                builder.append(c);
+            }
+        }
+        builder.append('"');
+    }
+
+    void appendTo(StringBuilder builder) {
+        builder.append("{\"time\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(timestamp), builder);
+        builder.append("\",\"requestId\":");
+        appendString(builder, requestId);
+        builder.append(",\"user\":");
+        appendString(builder, user);
+        builder.append(",\"subscription\":");
+        appendString(builder, subscription == null ? null : subscription.name());
+        builder.append(",\"method\":");
+        appendString(builder, method);
+        builder.append(",\"path\":");
+        appendString(builder, path);
+        builder.append(",\"status\":").append(status)
+                .append(",\"bytes\":").append(bytes)
+                .append(",\"latencyMicros\":").append(TimeUnit.NANOSECONDS.toMicros(latencyNanos))
+                .append(",\"databaseMicros\":").append(TimeUnit.NANOSECONDS.toMicros(databaseNanos))
+                .append('}');
+    }
+
+    void clear() {
+        // Slots and pooled entries are reused, so nothing from one request may leak into the next or stay reachable
+        timestamp = 0;
+        startNanos = 0;
+        requestId = null;
+        user = null;
+        subscription = null;
+        method = null;
+        path = null;
+        status = 0;
+        bytes = 0;
+        latencyNanos = 0;
+        databaseNanos = 0;
+    }
+}
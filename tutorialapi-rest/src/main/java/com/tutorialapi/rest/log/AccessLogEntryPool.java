@@ -0,0 +1,40 @@
+package com.tutorialapi.rest.log;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class AccessLogEntryPool {
+    private static final int MAX_PROBES = 8;
+
+    private final AtomicReferenceArray<AccessLogEntry> entries;
+
+    public AccessLogEntryPool(int capacity) {
+        this.entries = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            entries.set(i, new AccessLogEntry());
+        }
+    }
+
+    public AccessLogEntry acquire() {
+        // Probes start at a random slot so concurrent requests rarely contend on the same one
+        int start = ThreadLocalRandom.current().nextInt(entries.length());
+        for (int i = 0; i < Math.min(MAX_PROBES, entries.length()); i++) {
+            AccessLogEntry entry = entries.getAndSet((start + i) % entries.length(), null);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        // Only when far more requests are in flight than the pool was sized for
+        return new AccessLogEntry();
+    }
+
+    public void release(AccessLogEntry entry) {
+        entry.clear();
+        int start = ThreadLocalRandom.current().nextInt(entries.length());
+        for (int i = 0; i < Math.min(MAX_PROBES, entries.length()); i++) {
+            if (entries.compareAndSet((start + i) % entries.length(), null, entry)) {
+                return;
+            }
+        }
+    }
+}
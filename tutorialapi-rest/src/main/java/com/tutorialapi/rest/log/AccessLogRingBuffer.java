@@ -0,0 +1,110 @@
+package com.tutorialapi.rest.log;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+public class AccessLogRingBuffer {
+    public static final long FULL = -1;
+
+    private final AccessLogEntry[] entries;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    // Set while the consumer is parked waiting for an entry, cleared by whichever publish wakes it
+    private final AtomicReference<Thread> waiter = new AtomicReference<>();
+    // Only ever advanced by the single thread calling drain
+    private volatile long consumed;
+
+    public AccessLogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.entries = new AccessLogEntry[size];
+        Arrays.setAll(entries, index -> new AccessLogEntry());
+        long[] initial = new long[size];
+        Arrays.fill(initial, -1);
+        this.published = new AtomicLongArray(initial);
+        this.mask = size - 1;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    public long claim() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= entries.length) {
+                // Never make a request wait on the log writer, losing an entry is the cheaper failure
+                dropped.increment();
+                return FULL;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    public AccessLogEntry get(long sequence) {
+        return entries[index(sequence)];
+    }
+
+    public void publish(long sequence) {
+        published.lazySet(index(sequence), sequence);
+        // Only the first entry published while the consumer sleeps pays for waking it
+        if (waiter.get() != null) {
+            Thread thread = waiter.getAndSet(null);
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    public void awaitPublished(long timeoutNanos) {
+        waiter.set(Thread.currentThread());
+        // Checked after registering, so an entry published before then is drained rather than waited for. The lazy
+        // publish can still be seen late, and the timeout bounds how long such an entry waits to be written
+        if (published.get(index(consumed)) != consumed) {
+            LockSupport.parkNanos(this, timeoutNanos);
+        }
+        waiter.set(null);
+    }
+
+    public boolean offer(AccessLogEntry entry) {
+        long sequence = claim();
+        if (sequence == FULL) {
+            return false;
+        }
+        get(sequence).copyFrom(entry);
+        publish(sequence);
+        return true;
+    }
+
+    public int drain(StringBuilder builder, int maxEntries) {
+        long next = consumed;
+        int count = 0;
+        // Stops at the first unpublished slot so entries are always written in claim order
+        while (count < maxEntries && published.get(index(next)) == next) {
+            AccessLogEntry entry = entries[index(next)];
+            if (count > 0) {
+                builder.append('\n');
+            }
+            entry.appendTo(builder);
+            entry.clear();
+            next++;
+            count++;
+        }
+        consumed = next;
+        return count;
+    }
+
+    public long getAndResetDropped() {
+        return dropped.sumThenReset();
+    }
+}
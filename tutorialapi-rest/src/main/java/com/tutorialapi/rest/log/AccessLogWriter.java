@@ -0,0 +1,59 @@
+package com.tutorialapi.rest.log;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class AccessLogWriter implements Runnable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AccessLogWriter.class);
+
+    private static final int BATCH_SIZE = 256;
+    private static final int LINE_LENGTH = 128;
+    // Only bounds the delay of an entry whose wake-up was missed, an idle writer is otherwise woken by the next entry
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final AccessLogRingBuffer ringBuffer;
+    private final Consumer<String> batchConsumer;
+    private final StringBuilder builder = new StringBuilder(BATCH_SIZE * LINE_LENGTH);
+
+    public AccessLogWriter(AccessLogRingBuffer ringBuffer, Consumer<String> batchConsumer) {
+        this.ringBuffer = ringBuffer;
+        this.batchConsumer = batchConsumer;
+    }
+
+    public static AccessLogRingBuffer start(AccessLogRingBuffer ringBuffer, Consumer<String> batchConsumer) {
+        Thread thread = new Thread(new AccessLogWriter(ringBuffer, batchConsumer), "access-log-writer");
+        thread.setDaemon(true);
+        thread.start();
+        return ringBuffer;
+    }
+
+    int writeBatch() {
+        builder.setLength(0);
+        int count = ringBuffer.drain(builder, BATCH_SIZE);
+        if (count > 0) {
+            // One event per batch, so the appender does a single write and flush for all of its lines
+            batchConsumer.accept(builder.toString());
+        }
+        long dropped = ringBuffer.getAndResetDropped();
+        if (dropped > 0) {
+            LOGGER.warn("Dropped {} access log entries since the ring buffer was full", dropped);
+        }
+        return count;
+    }
+
+    @Override
+    public void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (writeBatch() == 0) {
+                    ringBuffer.awaitPublished(IDLE_NANOS);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to write access log batch", e);
+            }
+        }
+    }
+}
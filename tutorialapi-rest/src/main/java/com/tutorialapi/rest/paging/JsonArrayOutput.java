@@ -0,0 +1,34 @@
+package com.tutorialapi.rest.paging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.core.StreamingOutput;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+public class JsonArrayOutput<T> implements StreamingOutput {
+    private final ObjectMapper objectMapper;
+    private final Stream<T> rows;
+
+    public JsonArrayOutput(ObjectMapper objectMapper, Stream<T> rows) {
+        this.objectMapper = objectMapper;
+        this.rows = rows;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        // Rows are written as they are read so memory use does not grow with the size of the result
+        try (Stream<T> stream = rows;
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.writeStartArray();
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.tutorialapi.rest.paging;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+public final class Page {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private static final int MAX_CURSOR_LENGTH = 256;
+    private static final int MAX_ID_LENGTH = 36;
+    private static final int KEY_PREFIX_LENGTH = 32;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private Page() {
+    }
+
+    public static boolean isRequested(Integer limit, String cursor) {
+        return limit != null || cursor != null;
+    }
+
+    public static int getLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    public static Cursor decodeCursor(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        if (cursor.length() > MAX_CURSOR_LENGTH) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        Cursor decoded;
+        try {
+            decoded = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), Cursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        if (decoded == null || decoded.id() == null || decoded.id().isEmpty() || decoded.id().length() > MAX_ID_LENGTH) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return decoded;
+    }
+
+    public static String encodeCursor(Cursor cursor) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(cursor));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode cursor: " + e.getMessage(), e);
+        }
+    }
+
+    public static <T> Response toResponse(List<T> rows, int limit, Function<T, Cursor> toCursor) {
+        // Callers fetch one row past the limit, its presence means there is another page
+        if (rows.size() <= limit) {
+            return Response.ok(rows).build();
+        }
+        List<T> page = rows.subList(0, limit);
+        return Response.ok(page).header(NEXT_CURSOR_HEADER, encodeCursor(toCursor.apply(page.get(limit - 1)))).build();
+    }
+
+    // Callers look the anchor row up by id, the sort key prefix is only a fallback for when that row has since been
+    // deleted. Seeking from a prefix of the key can repeat a few rows but never skips any.
+    @JsonInclude(JsonInclude.Include.NON_DEFAULT)
+    public record Cursor(String id, boolean done, String key) {
+        public Cursor {
+            if (key == null) {
+                key = "";
+            } else if (key.length() > KEY_PREFIX_LENGTH) {
+                int end = Character.isHighSurrogate(key.charAt(KEY_PREFIX_LENGTH - 1))
+                        ? KEY_PREFIX_LENGTH - 1
+                        : KEY_PREFIX_LENGTH;
+                key = key.substring(0, end);
+            }
+        }
+    }
+}
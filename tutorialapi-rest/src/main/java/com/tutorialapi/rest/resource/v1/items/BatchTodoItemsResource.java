@@ -0,0 +1,271 @@
+package com.tutorialapi.rest.resource.v1.items;
+
+import com.google.common.base.Strings;
+import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.batch.BatchAction;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.model.batch.TodoItemResult;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.exception.ErrorResponse;
+import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.SecurityContext;
+import org.apache.commons.text.StringEscapeUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Singleton
+@Path("/v1/lists/{listId}/batch")
+public class BatchTodoItemsResource extends BaseResource {
+    public static final int MAX_OPERATIONS = 1000;
+
+    private final Supplier<Environment> environmentSupplier;
+
+    @Inject
+    public BatchTodoItemsResource(Supplier<Environment> environmentSupplier, ValidationService validationService) {
+        super(validationService);
+        this.environmentSupplier = environmentSupplier;
+    }
+
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Operation(
+            tags = "Todo Items",
+            summary = "Batch Items",
+            description = """
+                    Create, update and delete many `TodoItem`s in the specified `TodoList` in a single transaction.
+
+                    This example shows how to use `curl` to apply a batch of operations:
+
+                    ```bash
+                    curl -sk https://localhost:8443/api/lists/list-id/batch -XPOST \\
+                         -H "X-RapidAPI-Proxy-Secret: secret" \\
+                         -H "X-RapidAPI-User: user" \\
+                         -H "X-RapidAPI-Subscription: BASIC" \\
+                         -H "Content-Type: application/json" \\
+                         -d '[{"action": "CREATE", "item": {"task": "Mow the lawn"}},
+                              {"action": "UPDATE", "item": {"id": "item-id", "task": "Rake leaves", "done": true}},
+                              {"action": "DELETE", "item": {"id": "old-item-id"}}]'
+                    ```
+
+                    Up to 1000 operations can be sent at once. Every operation is validated before any of them are
+                    applied, so an invalid operation rejects the whole batch with a `400 Bad Request`. As with the
+                    single item endpoint, the `id` is optional when creating an item.
+
+                    After applying the batch, this endpoint will return one result per operation, in the same order:
+
+                    ```json
+                    [
+                      {
+                        "id": "123e4567-e89b-12d3-a456-556642440000",
+                        "status": "CREATED"
+                      },
+                      {
+                        "id": "item-id",
+                        "status": "UPDATED"
+                      },
+                      {
+                        "id": "old-item-id",
+                        "status": "NOT_FOUND"
+                      }
+                    ]
+                    ```
+
+                    A create for an `id` that already exists reports `CONFLICT`, and an update or delete of a missing
+                    item reports `NOT_FOUND`, without affecting the rest of the batch.
+                    """,
+            operationId = "batch-items",
+            requestBody = @RequestBody(
+                    description = """
+                            The request body is expected to provide the operations to apply to the specified list.
+                            """,
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON,
+                            examples = @ExampleObject(
+                                    name = "todo-item-operations-body",
+                                    summary = "Example TodoItemOperations",
+                                    description = """
+                                            Provides an example batch of operations to apply to the specified list:
+                                            """,
+                                    value = """
+                                            [
+                                              {
+                                                "action": "CREATE",
+                                                "item": {
+                                                  "task": "Mow the lawn",
+                                                  "done": false
+                                                }
+                                              },
+                                              {
+                                                "action": "DELETE",
+                                                "item": {
+                                                  "id": "old-item-id"
+                                                }
+                                              }
+                                            ]
+                                            """
+                            ),
+                            array = @ArraySchema(schema = @Schema(implementation = TodoItemOperation.class))
+                    ),
+                    required = true
+            ),
+            responses = {
+                    @ApiResponse(
+                            description = "Successful Batch",
+                            responseCode = "200",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON,
+                                    examples = @ExampleObject(
+                                            name = "success",
+                                            summary = "Example TodoItemResults",
+                                            description = """
+                                                    Provides an example list of `TodoItemResult`s returned after
+                                                    applying the batch:
+                                                    """,
+                                            value = """
+                                                    [
+                                                      {
+                                                        "id": "item-id",
+                                                        "status": "CREATED"
+                                                      },
+                                                      {
+                                                        "id": "old-item-id",
+                                                        "status": "DELETED"
+                                                      }
+                                                    ]
+                                                    """
+                                    ),
+                                    array = @ArraySchema(schema = @Schema(implementation = TodoItemResult.class))
+                            )
+                    ),
+                    @ApiResponse(
+                            description = "Bad Request",
+                            responseCode = "400",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON,
+                                    examples = @ExampleObject(
+                                            name = "bad-request",
+                                            summary = "Example ErrorResponse",
+                                            description = """
+                                                    Provides an example `ErrorResponse` returned when one of the
+                                                    provided operations is invalid:
+                                                    """,
+                                            value = """
+                                                    {
+                                                      "status": 400,
+                                                      "message": "Todo item task cannot be empty"
+                                                    }
+                                                    """
+                                    ),
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            description = "Not Found",
+                            responseCode = "404",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON,
+                                    examples = @ExampleObject(
+                                            name = "not-found",
+                                            summary = "Example ErrorResponse",
+                                            description = """
+                                                    Provides an example `ErrorResponse` returned when the requested
+                                                    list is not found:
+                                                    """,
+                                            value = """
+                                                    {
+                                                      "status": 404,
+                                                      "message": "List with id list-id not found"
+                                                    }
+                                                    """
+                                    ),
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            description = "Server Error",
+                            responseCode = "500",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON,
+                                    examples = @ExampleObject(
+                                            name = "server-error",
+                                            summary = "Example ErrorResponse",
+                                            value = """
+                                                    {
+                                                      "status": 500,
+                                                      "message": "The database is offline"
+                                                    }
+                                                    """,
+                                            description = """
+                                                    Provides an example ErrorResponse returned when there is an
+                                                    unexpected server error.
+                                                    """
+                                    ),
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    )
+            }
+    )
+    public List<TodoItemResult> batchTodoItems(@Context SecurityContext securityContext,
+                                               @Parameter(
+                                                       name = "listId",
+                                                       in = ParameterIn.PATH,
+                                                       description = "The unique id of the list to apply the batch to",
+                                                       required = true,
+                                                       example = "my-list-id"
+                                               )
+                                               @PathParam("listId") String listId,
+                                               List<TodoItemOperation> operations) {
+        if (operations == null || operations.isEmpty() || operations.size() > MAX_OPERATIONS) {
+            throw new BadRequestException("Batch must contain between 1 and " + MAX_OPERATIONS + " operations");
+        }
+        // Everything is checked before the first write so an invalid operation cannot leave a partial batch
+        operations.forEach(this::prepare);
+
+        RapidApiPrincipal principal = (RapidApiPrincipal) securityContext.getUserPrincipal();
+        TodoItemService todoItemService = environmentSupplier.get().getServiceFactory().getTodoItemService();
+        return todoItemService.batch(principal, listId, operations);
+    }
+
+    private void prepare(TodoItemOperation operation) {
+        if (operation == null) {
+            throw new BadRequestException("Batch operation cannot be empty");
+        }
+        validate(operation);
+
+        TodoItem todoItem = operation.getItem();
+        if (operation.getAction() == BatchAction.CREATE) {
+            todoItem.setId(Optional.ofNullable(todoItem.getId())
+                    .map(StringEscapeUtils::escapeHtml4)
+                    .orElseGet(() -> UUID.randomUUID().toString()));
+        }
+        if (operation.getAction() == BatchAction.DELETE) {
+            if (Strings.isNullOrEmpty(todoItem.getId())) {
+                throw new BadRequestException("Todo item id cannot be empty");
+            }
+            return;
+        }
+        todoItem.setTask(Optional.ofNullable(todoItem.getTask()).map(StringEscapeUtils::escapeHtml4).orElse(null));
+        validate(todoItem);
+    }
+}
@@ -1,10 +1,13 @@
 package com.tutorialapi.rest.resource.v1.items;
 
+import com.tutorialapi.db.ServiceFactory;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.conditional.ListEntityTag;
 import com.tutorialapi.rest.exception.ErrorResponse;
 import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -13,19 +16,23 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.SecurityContext;
 
 import java.util.function.Supplier;
 
+@Singleton
 @Path("/v1/lists/{listId}/items/{id}")
 public class DeleteTodoItemResource extends BaseResource {
     private final Supplier<Environment> environmentSupplier;
 
     @Inject
-    public DeleteTodoItemResource(Supplier<Environment> environmentSupplier) {
+    public DeleteTodoItemResource(Supplier<Environment> environmentSupplier, ValidationService validationService) {
+        super(validationService);
         this.environmentSupplier = environmentSupplier;
     }
 
@@ -117,6 +124,28 @@ public class DeleteTodoItemResource extends BaseResource {
                                     schema = @Schema(implementation = ErrorResponse.class)
                             )
                     ),
+                    @ApiResponse(
+                            description = "Precondition Failed",
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON,
+                                    examples = @ExampleObject(
+                                            name = "precondition-failed",
+                                            summary = "Example ErrorResponse",
+                                            description = """
+                                                    Provides an example `ErrorResponse` returned when the `If-Match`
+                                                    header does not match the current version of the list:
+                                                    """,
+                                            value = """
+                                                    {
+                                                      "status": 412,
+                                                      "message": "List with id list-id does not match the precondition"
+                                                    }
+                                                    """
+                                    ),
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
                     @ApiResponse(
                             description = "Server Error",
                             responseCode = "500",
@@ -142,6 +171,13 @@ public class DeleteTodoItemResource extends BaseResource {
             }
     )
     public TodoItem deleteTodoItem(@Context SecurityContext securityContext,
+                                   @Parameter(
+                                           name = HttpHeaders.IF_MATCH,
+                                           in = ParameterIn.HEADER,
+                                           description = "Only delete the item when the list still has this ETag",
+                                           example = "\"3\""
+                                   )
+                                   @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
                                    @Parameter(
                                            name = "listId",
                                            in = ParameterIn.PATH,
@@ -159,7 +195,9 @@ public class DeleteTodoItemResource extends BaseResource {
                                    )
                                    @PathParam("id") String id) {
         RapidApiPrincipal principal = (RapidApiPrincipal) securityContext.getUserPrincipal();
-        return environmentSupplier.get().getServiceFactory().getTodoItemService().delete(principal, listId, id)
+        ServiceFactory serviceFactory = environmentSupplier.get().getServiceFactory();
+        Long expectedVersion = ListEntityTag.expectedVersion(listId, ifMatch);
+        return serviceFactory.getTodoItemService().delete(principal, listId, id, expectedVersion)
                 .orElseThrow(() -> new NotFoundException("Item with id " + id + " not found in list with id " + listId));
     }
 }
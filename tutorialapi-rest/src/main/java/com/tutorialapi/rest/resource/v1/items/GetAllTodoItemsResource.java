@@ -1,37 +1,57 @@
 package com.tutorialapi.rest.resource.v1.items;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutorialapi.db.ServiceFactory;
+import com.tutorialapi.db.service.TodoItemService;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.conditional.ListEntityTag;
 import com.tutorialapi.rest.exception.ErrorResponse;
+import com.tutorialapi.rest.paging.JsonArrayOutput;
+import com.tutorialapi.rest.paging.Page;
 import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Supplier;
 
+@Singleton
 @Path("/v1/lists/{listId}/items")
 public class GetAllTodoItemsResource extends BaseResource {
     private final Supplier<Environment> environmentSupplier;
+    private final ObjectMapper objectMapper;
 
     @Inject
-    public GetAllTodoItemsResource(Supplier<Environment> environmentSupplier) {
+    public GetAllTodoItemsResource(Supplier<Environment> environmentSupplier, ValidationService validationService,
+            ObjectMapper objectMapper) {
+        super(validationService);
         this.environmentSupplier = environmentSupplier;
+        this.objectMapper = objectMapper;
     }
 
     @GET
@@ -74,6 +94,17 @@ public class GetAllTodoItemsResource extends BaseResource {
                     [ ]
                     ```
 
+                    Results can be fetched a page at a time by passing a `limit`. When more results are available the
+                    response includes an `X-Next-Cursor` header, pass its value as the `cursor` parameter to fetch the
+                    next page:
+
+                    ```bash
+                    curl -sk "https://localhost:8443/api/lists/list-id/items?limit=50&cursor=eyJpZCI6Imxpc3QxIn0" -XGET \\
+                         -H "X-RapidAPI-Proxy-Secret: secret" \\
+                         -H "X-RapidAPI-User: user" \\
+                         -H "X-RapidAPI-Subscription: BASIC"
+                    ```
+
                     If a list with the specified `listId` does not exist, this endpoint will return a `404 Not Found`
                     response like this example:
 
@@ -89,6 +120,23 @@ public class GetAllTodoItemsResource extends BaseResource {
                     @ApiResponse(
                             description = "Successful Fetch",
                             responseCode = "200",
+                            headers = {
+                                    @Header(
+                                            name = Page.NEXT_CURSOR_HEADER,
+                                            description = """
+                                                    The cursor for the next page, only present when more results remain
+                                                    """,
+                                            schema = @Schema(implementation = String.class)
+                                    ),
+                                    @Header(
+                                            name = HttpHeaders.ETAG,
+                                            description = """
+                                                    The current version of the list and its items, only sent when the
+                                                    request has an `If-None-Match` header
+                                                    """,
+                                            schema = @Schema(implementation = String.class)
+                                    )
+                            },
                             content = @Content(
                                     mediaType = MediaType.APPLICATION_JSON,
                                     examples = @ExampleObject(
@@ -116,6 +164,10 @@ public class GetAllTodoItemsResource extends BaseResource {
                                     array = @ArraySchema(schema = @Schema(implementation = TodoItem.class))
                             )
                     ),
+                    @ApiResponse(
+                            description = "Not Modified",
+                            responseCode = "304"
+                    ),
                     @ApiResponse(
                             description = "Not Found",
                             responseCode = "404",
@@ -162,18 +214,61 @@ public class GetAllTodoItemsResource extends BaseResource {
                     )
             }
     )
-    public List<TodoItem> getAllTodoItems(@Context SecurityContext securityContext,
-                                          @Parameter(
-                                                  name = "listId",
-                                                  in = ParameterIn.PATH,
-                                                  description = """
-                                                          The unique id of the list containing the items to fetch
-                                                          """,
-                                                  required = true,
-                                                  example = "my-list-id"
-                                          )
-                                          @PathParam("listId") String listId) {
+    public Response getAllTodoItems(@Context SecurityContext securityContext,
+                                    @Context Request request,
+                                    @Parameter(
+                                            name = HttpHeaders.IF_NONE_MATCH,
+                                            in = ParameterIn.HEADER,
+                                            description = "Return 304 Not Modified when the list still has this ETag",
+                                            example = "\"3\""
+                                    )
+                                    @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                    @Parameter(
+                                            name = "listId",
+                                            in = ParameterIn.PATH,
+                                            description = """
+                                                    The unique id of the list containing the items to fetch
+                                                    """,
+                                            required = true,
+                                            example = "my-list-id"
+                                    )
+                                    @PathParam("listId") String listId,
+                                    @Parameter(
+                                            name = "limit",
+                                            in = ParameterIn.QUERY,
+                                            description = "The maximum number of results to return, up to 1000",
+                                            example = "50"
+                                    )
+                                    @QueryParam("limit") Integer limit,
+                                    @Parameter(
+                                            name = "cursor",
+                                            in = ParameterIn.QUERY,
+                                            description = "The X-Next-Cursor header value from the previous page"
+                                    )
+                                    @QueryParam("cursor") String cursor) {
         RapidApiPrincipal principal = (RapidApiPrincipal) securityContext.getUserPrincipal();
-        return environmentSupplier.get().getServiceFactory().getTodoItemService().getAll(principal, listId);
+        ServiceFactory serviceFactory = environmentSupplier.get().getServiceFactory();
+        // Look up the version before reading so a concurrent change can only make the tag older than the items
+        ListEntityTag entityTag = ListEntityTag.lookupIfConditional(serviceFactory.getTodoListService(), principal,
+                listId, ifNoneMatch);
+        Optional<Response> notModified = entityTag.evaluatePreconditions(request);
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+
+        TodoItemService todoItemService = serviceFactory.getTodoItemService();
+        if (!Page.isRequested(limit, cursor)) {
+            JsonArrayOutput<TodoItem> output =
+                    new JsonArrayOutput<>(objectMapper, todoItemService.stream(principal, listId));
+            return entityTag.tag(Response.ok(output).build());
+        }
+
+        int pageLimit = Page.getLimit(limit);
+        Page.Cursor decoded = Page.decodeCursor(cursor);
+        TodoItem after = decoded == null ? null : todoItemService.get(principal, listId, decoded.id())
+                .orElseGet(() -> new TodoItem().setId(decoded.id()).setDone(decoded.done()).setTask(decoded.key()));
+        List<TodoItem> items = todoItemService.getAll(principal, listId, after, pageLimit + 1);
+        return entityTag.tag(Page.toResponse(items, pageLimit,
+                item -> new Page.Cursor(item.getId(), item.isDone(), item.getTask())));
     }
 }
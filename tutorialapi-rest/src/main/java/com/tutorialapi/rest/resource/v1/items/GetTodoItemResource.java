@@ -1,31 +1,42 @@
 package com.tutorialapi.rest.resource.v1.items;
 
+import com.tutorialapi.db.ServiceFactory;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.conditional.ListEntityTag;
 import com.tutorialapi.rest.exception.ErrorResponse;
 import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 
+import java.util.Optional;
 import java.util.function.Supplier;
 
+@Singleton
 @Path("/v1/lists/{listId}/items/{id}")
 public class GetTodoItemResource extends BaseResource {
     private final Supplier<Environment> environmentSupplier;
 
     @Inject
-    public GetTodoItemResource(Supplier<Environment> environmentSupplier) {
+    public GetTodoItemResource(Supplier<Environment> environmentSupplier, ValidationService validationService) {
+        super(validationService);
         this.environmentSupplier = environmentSupplier;
     }
 
@@ -72,6 +83,14 @@ public class GetTodoItemResource extends BaseResource {
                     @ApiResponse(
                             description = "Successful Fetch",
                             responseCode = "200",
+                            headers = @Header(
+                                    name = HttpHeaders.ETAG,
+                                    description = """
+                                            The current version of the list and its items, only sent when the
+                                            request has an `If-None-Match` header
+                                            """,
+                                    schema = @Schema(implementation = String.class)
+                            ),
                             content = @Content(
                                     mediaType = MediaType.APPLICATION_JSON,
                                     examples = @ExampleObject(
@@ -92,6 +111,10 @@ public class GetTodoItemResource extends BaseResource {
                                     schema = @Schema(implementation = TodoItem.class)
                             )
                     ),
+                    @ApiResponse(
+                            description = "Not Modified",
+                            responseCode = "304"
+                    ),
                     @ApiResponse(
                             description = "Not Found",
                             responseCode = "404",
@@ -138,7 +161,15 @@ public class GetTodoItemResource extends BaseResource {
                     )
             }
     )
-    public TodoItem getTodoItem(@Context SecurityContext securityContext,
+    public Response getTodoItem(@Context SecurityContext securityContext,
+                                @Context Request request,
+                                @Parameter(
+                                        name = HttpHeaders.IF_NONE_MATCH,
+                                        in = ParameterIn.HEADER,
+                                        description = "Return 304 Not Modified when the list still has this ETag",
+                                        example = "\"3\""
+                                )
+                                @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
                                 @Parameter(
                                         name = "listId",
                                         in = ParameterIn.PATH,
@@ -156,7 +187,16 @@ public class GetTodoItemResource extends BaseResource {
                                 )
                                 @PathParam("id") String id) {
         RapidApiPrincipal principal = (RapidApiPrincipal) securityContext.getUserPrincipal();
-        return environmentSupplier.get().getServiceFactory().getTodoItemService().get(principal, listId, id)
+        ServiceFactory serviceFactory = environmentSupplier.get().getServiceFactory();
+        ListEntityTag entityTag = ListEntityTag.lookupIfConditional(serviceFactory.getTodoListService(), principal,
+                listId, ifNoneMatch);
+        Optional<Response> notModified = entityTag.evaluatePreconditions(request);
+        if (notModified.isPresent()) {
+            return notModified.get();
+        }
+
+        TodoItem todoItem = serviceFactory.getTodoItemService().get(principal, listId, id)
                 .orElseThrow(() -> new NotFoundException("Item with id " + id + " not found in list with id " + listId));
+        return entityTag.tag(Response.ok(todoItem).build());
     }
 }
@@ -1,11 +1,12 @@
 package com.tutorialapi.rest.resource.v1.items;
 
-import com.tutorialapi.db.ServiceFactory;
+import com.tutorialapi.db.service.TodoItemService;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.rest.Environment;
 import com.tutorialapi.rest.exception.ErrorResponse;
 import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -15,6 +16,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
@@ -25,12 +27,14 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Supplier;
 
+@Singleton
 @Path("/v1/lists/{listId}/items")
 public class PostTodoItemResource extends BaseResource {
     private final Supplier<Environment> environmentSupplier;
 
     @Inject
-    public PostTodoItemResource(Supplier<Environment> environmentSupplier) {
+    public PostTodoItemResource(Supplier<Environment> environmentSupplier, ValidationService validationService) {
+        super(validationService);
         this.environmentSupplier = environmentSupplier;
     }
 
@@ -235,11 +239,9 @@ public class PostTodoItemResource extends BaseResource {
         validate(todoItem);
 
         RapidApiPrincipal principal = (RapidApiPrincipal) securityContext.getUserPrincipal();
-        ServiceFactory serviceFactory = environmentSupplier.get().getServiceFactory();
-        serviceFactory.getTodoListService().get(principal, listId)
-                .orElseThrow(() -> new NotFoundException("List with id " + listId + " not found"));
-
-        if (serviceFactory.getTodoItemService().create(principal, listId, todoItem)) {
+        // A missing list is reported by the item service, so this is the only database call
+        TodoItemService todoItemService = environmentSupplier.get().getServiceFactory().getTodoItemService();
+        if (todoItemService.create(principal, listId, todoItem)) {
             return todoItem;
         }
         throw new BadRequestException("Invalid input, failed to insert todo item");
@@ -1,35 +1,45 @@
 package com.tutorialapi.rest.resource.v1.items;
 
 import com.tutorialapi.db.ServiceFactory;
+import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.db.service.Versioned;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.conditional.ListEntityTag;
 import com.tutorialapi.rest.exception.ErrorResponse;
 import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 import org.apache.commons.text.StringEscapeUtils;
 
 import java.util.Optional;
 import java.util.function.Supplier;
 
+@Singleton
 @Path("/v1/lists/{listId}/items/{id}")
 public class PutTodoItemResource extends BaseResource {
     private final Supplier<Environment> environmentSupplier;
 
     @Inject
-    public PutTodoItemResource(Supplier<Environment> environmentSupplier) {
+    public PutTodoItemResource(Supplier<Environment> environmentSupplier, ValidationService validationService) {
+        super(validationService);
         this.environmentSupplier = environmentSupplier;
     }
 
@@ -101,6 +111,11 @@ public class PutTodoItemResource extends BaseResource {
                     @ApiResponse(
                             description = "Successful Update",
                             responseCode = "200",
+                            headers = @Header(
+                                    name = HttpHeaders.ETAG,
+                                    description = "The version of the list and its items after the update",
+                                    schema = @Schema(implementation = String.class)
+                            ),
                             content = @Content(
                                     mediaType = MediaType.APPLICATION_JSON,
                                     examples = @ExampleObject(
@@ -165,6 +180,28 @@ public class PutTodoItemResource extends BaseResource {
                                     schema = @Schema(implementation = ErrorResponse.class)
                             )
                     ),
+                    @ApiResponse(
+                            description = "Precondition Failed",
+                            responseCode = "412",
+                            content = @Content(
+                                    mediaType = MediaType.APPLICATION_JSON,
+                                    examples = @ExampleObject(
+                                            name = "precondition-failed",
+                                            summary = "Example ErrorResponse",
+                                            description = """
+                                                    Provides an example `ErrorResponse` returned when the `If-Match`
+                                                    header does not match the current version of the list:
+                                                    """,
+                                            value = """
+                                                    {
+                                                      "status": 412,
+                                                      "message": "List with id list-id does not match the precondition"
+                                                    }
+                                                    """
+                                    ),
+                                    schema = @Schema(implementation = ErrorResponse.class)
+                            )
+                    ),
                     @ApiResponse(
                             description = "Server Error",
                             responseCode = "500",
@@ -189,7 +226,14 @@ public class PutTodoItemResource extends BaseResource {
                     )
             }
     )
-    public TodoItem putTodoItem(@Context SecurityContext securityContext,
+    public Response putTodoItem(@Context SecurityContext securityContext,
+                                @Parameter(
+                                        name = HttpHeaders.IF_MATCH,
+                                        in = ParameterIn.HEADER,
+                                        description = "Only update the item when the list still has this ETag",
+                                        example = "\"3\""
+                                )
+                                @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
                                 @Parameter(
                                         name = "listId",
                                         in = ParameterIn.PATH,
@@ -213,12 +257,13 @@ public class PutTodoItemResource extends BaseResource {
 
         RapidApiPrincipal principal = (RapidApiPrincipal) securityContext.getUserPrincipal();
         ServiceFactory serviceFactory = environmentSupplier.get().getServiceFactory();
-        serviceFactory.getTodoListService().get(principal, listId)
-                .orElseThrow(() -> new NotFoundException("List with id " + listId + " not found"));
+        // Compared inside the write, so two clients holding the same tag cannot both update the list
+        Long expectedVersion = ListEntityTag.expectedVersion(listId, ifMatch);
 
-        if (serviceFactory.getTodoItemService().update(principal, listId, todoItem)) {
-            return todoItem;
-        }
-        throw new NotFoundException("Item with id " + id + " not found in list with id " + listId);
+        TodoItemService todoItemService = serviceFactory.getTodoItemService();
+        Versioned<TodoItem> updated = todoItemService.update(principal, listId, todoItem, expectedVersion)
+                .orElseThrow(() -> new NotFoundException("Item with id " + id + " not found in list with id " + listId));
+        // Tagged with the version this write drew, so the client can make its next conditional request right away
+        return ListEntityTag.of(updated.version()).tag(Response.ok(updated.value()).build());
     }
 }
@@ -5,6 +5,7 @@ import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.rest.Environment;
 import com.tutorialapi.rest.exception.ErrorResponse;
 import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
@@ -20,12 +22,14 @@ import jakarta.ws.rs.core.SecurityContext;
 
 import java.util.function.Supplier;
 
+@Singleton
 @Path("/v1/lists/{listId}")
 public class DeleteTodoListResource extends BaseResource {
     private final Supplier<Environment> environmentSupplier;
 
     @Inject
-    public DeleteTodoListResource(Supplier<Environment> environmentSupplier) {
+    public DeleteTodoListResource(Supplier<Environment> environmentSupplier, ValidationService validationService) {
+        super(validationService);
         this.environmentSupplier = environmentSupplier;
     }
 
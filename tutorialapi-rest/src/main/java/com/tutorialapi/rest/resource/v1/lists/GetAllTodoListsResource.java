@@ -1,34 +1,50 @@
 package com.tutorialapi.rest.resource.v1.lists;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tutorialapi.db.service.TodoListService;
 import com.tutorialapi.model.TodoList;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.rest.Environment;
 import com.tutorialapi.rest.exception.ErrorResponse;
+import com.tutorialapi.rest.paging.JsonArrayOutput;
+import com.tutorialapi.rest.paging.Page;
 import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
 
 import java.util.List;
 import java.util.function.Supplier;
 
+@Singleton
 @Path("/v1/lists")
 public class GetAllTodoListsResource extends BaseResource {
     private final Supplier<Environment> environmentSupplier;
+    private final ObjectMapper objectMapper;
 
     @Inject
-    public GetAllTodoListsResource(Supplier<Environment> environmentSupplier) {
+    public GetAllTodoListsResource(Supplier<Environment> environmentSupplier, ValidationService validationService,
+            ObjectMapper objectMapper) {
+        super(validationService);
         this.environmentSupplier = environmentSupplier;
+        this.objectMapper = objectMapper;
     }
 
     @GET
@@ -68,12 +84,28 @@ public class GetAllTodoListsResource extends BaseResource {
                     ```json
                     [ ]
                     ```
+
+                    Results can be fetched a page at a time by passing a `limit`. When more results are available the
+                    response includes an `X-Next-Cursor` header, pass its value as the `cursor` parameter to fetch the
+                    next page:
+
+                    ```bash
+                    curl -sk "https://localhost:8443/api/lists?limit=50&cursor=eyJpZCI6Imxpc3QxIn0" -XGET \\
+                         -H "X-RapidAPI-Proxy-Secret: secret" \\
+                         -H "X-RapidAPI-User: user" \\
+                         -H "X-RapidAPI-Subscription: BASIC"
+                    ```
                     """,
             operationId = "get-all-lists",
             responses = {
                     @ApiResponse(
                             description = "Successful Fetch",
                             responseCode = "200",
+                            headers = @Header(
+                                    name = Page.NEXT_CURSOR_HEADER,
+                                    description = "The cursor for the next page, only present when more results remain",
+                                    schema = @Schema(implementation = String.class)
+                            ),
                             content = @Content(
                                     mediaType = MediaType.APPLICATION_JSON,
                                     examples = @ExampleObject(
@@ -123,8 +155,31 @@ public class GetAllTodoListsResource extends BaseResource {
                     )
             }
     )
-    public List<TodoList> getAllTodoLists(@Context SecurityContext securityContext) {
+    public Response getAllTodoLists(@Context SecurityContext securityContext,
+                                    @Parameter(
+                                            name = "limit",
+                                            in = ParameterIn.QUERY,
+                                            description = "The maximum number of results to return, up to 1000",
+                                            example = "50"
+                                    )
+                                    @QueryParam("limit") Integer limit,
+                                    @Parameter(
+                                            name = "cursor",
+                                            in = ParameterIn.QUERY,
+                                            description = "The X-Next-Cursor header value from the previous page"
+                                    )
+                                    @QueryParam("cursor") String cursor) {
         RapidApiPrincipal principal = (RapidApiPrincipal) securityContext.getUserPrincipal();
-        return environmentSupplier.get().getServiceFactory().getTodoListService().getAll(principal);
+        TodoListService todoListService = environmentSupplier.get().getServiceFactory().getTodoListService();
+        if (!Page.isRequested(limit, cursor)) {
+            return Response.ok(new JsonArrayOutput<>(objectMapper, todoListService.stream(principal))).build();
+        }
+
+        int pageLimit = Page.getLimit(limit);
+        Page.Cursor decoded = Page.decodeCursor(cursor);
+        TodoList after = decoded == null ? null : todoListService.get(principal, decoded.id())
+                .orElseGet(() -> new TodoList().setId(decoded.id()).setName(decoded.key()));
+        List<TodoList> lists = todoListService.getAll(principal, after, pageLimit + 1);
+        return Page.toResponse(lists, pageLimit, list -> new Page.Cursor(list.getId(), false, list.getName()));
     }
 }
@@ -5,6 +5,7 @@ import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.rest.Environment;
 import com.tutorialapi.rest.exception.ErrorResponse;
 import com.tutorialapi.rest.resource.v1.BaseResource;
+import com.tutorialapi.rest.validation.ValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -14,6 +15,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
@@ -23,12 +25,14 @@ import org.apache.commons.text.StringEscapeUtils;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+@Singleton
 @Path("/v1/lists/{listId}")
 public class PutTodoListResource extends BaseResource {
     private final Supplier<Environment> environmentSupplier;
 
     @Inject
-    public PutTodoListResource(Supplier<Environment> environmentSupplier) {
+    public PutTodoListResource(Supplier<Environment> environmentSupplier, ValidationService validationService) {
+        super(validationService);
         this.environmentSupplier = environmentSupplier;
     }
 
@@ -190,9 +194,7 @@ public class PutTodoListResource extends BaseResource {
         validate(todoList);
 
         RapidApiPrincipal principal = (RapidApiPrincipal) securityContext.getUserPrincipal();
-        if (environmentSupplier.get().getServiceFactory().getTodoListService().update(principal, todoList)) {
-            return todoList;
-        }
-        throw new NotFoundException("List with id " + listId + " not found");
+        return environmentSupplier.get().getServiceFactory().getTodoListService().update(principal, todoList)
+                .orElseThrow(() -> new NotFoundException("List with id " + listId + " not found"));
     }
 }
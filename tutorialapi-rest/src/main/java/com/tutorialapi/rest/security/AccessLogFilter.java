@@ -1,46 +1,147 @@
 package com.tutorialapi.rest.security;
 
+import com.tutorialapi.db.service.timing.DatabaseTimer;
 import com.tutorialapi.model.user.RapidApiPrincipal;
+import com.tutorialapi.rest.log.AccessLogEntry;
+import com.tutorialapi.rest.log.AccessLogEntryPool;
+import com.tutorialapi.rest.log.AccessLogRingBuffer;
+import com.tutorialapi.rest.log.AccessLogWriter;
+import com.tutorialapi.rest.log.CountingOutputStream;
 import jakarta.annotation.Priority;
+import jakarta.ws.rs.HttpMethod;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
 import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.function.Consumer;
-import java.util.stream.Stream;
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Clock;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
 
 @Provider
+@PreMatching
 @Priority(2)
-public class AccessLogFilter implements ContainerRequestFilter {
+public class AccessLogFilter implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
     private static final Logger LOGGER = LoggerFactory.getLogger("access-log");
 
-    private final Consumer<String> logConsumer;
+    private static final String ENTRY_PROPERTY = "access-log.entry";
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+    private static final int RING_BUFFER_CAPACITY = 8192;
+    private static final int ENTRY_POOL_CAPACITY = 1024;
+    private static final AccessLogRingBuffer RING_BUFFER =
+            AccessLogWriter.start(new AccessLogRingBuffer(RING_BUFFER_CAPACITY), LOGGER::info);
+    private static final AccessLogEntryPool ENTRY_POOL = new AccessLogEntryPool(ENTRY_POOL_CAPACITY);
+
+    private final AccessLogRingBuffer ringBuffer;
+    private final AccessLogEntryPool entryPool;
+    private final Clock clock;
+    private final LongSupplier nanoTime;
 
     public AccessLogFilter() {
-        this(LOGGER::info);
+        this(RING_BUFFER, ENTRY_POOL, Clock.systemUTC(), System::nanoTime);
+    }
+
+    public AccessLogFilter(AccessLogRingBuffer ringBuffer, AccessLogEntryPool entryPool, Clock clock,
+                           LongSupplier nanoTime) {
+        this.ringBuffer = ringBuffer;
+        this.entryPool = entryPool;
+        this.clock = clock;
+        this.nanoTime = nanoTime;
     }
 
-    public AccessLogFilter(Consumer<String> logConsumer) {
-        this.logConsumer = logConsumer;
+    private static boolean isValidRequestId(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        // Ends up in a response header and the log, so only accept characters that need no escaping in either
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '-' || c == '.'
+                    || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String getRequestId(ContainerRequestContext containerRequestContext) {
+        String requestId = containerRequestContext.getHeaderString(REQUEST_ID_HEADER);
+        return isValidRequestId(requestId) ? requestId : Long.toHexString(ThreadLocalRandom.current().nextLong());
     }
 
     @Override
     public void filter(ContainerRequestContext containerRequestContext) {
-        String user = Stream.of(containerRequestContext.getSecurityContext())
-                .filter(context -> context instanceof RapidApiSecurityContext)
-                .map(context -> (RapidApiSecurityContext) context)
-                .map(RapidApiSecurityContext::getUserPrincipal)
-                .filter(principal -> principal instanceof RapidApiPrincipal)
-                .map(principal -> (RapidApiPrincipal) principal)
-                .map(RapidApiPrincipal::getUser)
-                .findFirst()
-                .orElse("?");
-
-        String method = containerRequestContext.getMethod();
-        String path = containerRequestContext.getUriInfo().getAbsolutePath().getPath();
-
-        logConsumer.accept(String.format("%s => %s %s", user, method, path));
+        // Pre-matching, so requests rejected by later filters are still timed from the start
+        DatabaseTimer.reset();
+        // Pooled rather than a ring slot claimed up front, a slow response would stall the writer behind its slot
+        containerRequestContext.setProperty(ENTRY_PROPERTY, entryPool.acquire()
+                .setTimestamp(clock.millis())
+                .setStartNanos(nanoTime.getAsLong())
+                .setRequestId(getRequestId(containerRequestContext))
+                .setMethod(containerRequestContext.getMethod())
+                .setPath(containerRequestContext.getUriInfo().getRequestUri().getPath()));
+    }
+
+    @Override
+    public void filter(ContainerRequestContext containerRequestContext,
+                       ContainerResponseContext containerResponseContext) {
+        Object property = containerRequestContext.getProperty(ENTRY_PROPERTY);
+        if (!(property instanceof AccessLogEntry)) {
+            return;
+        }
+        AccessLogEntry entry = (AccessLogEntry) property;
+        containerResponseContext.getHeaders().putSingle(REQUEST_ID_HEADER, entry.getRequestId());
+
+        entry.setUser("?");
+        if (containerRequestContext.getSecurityContext() instanceof RapidApiSecurityContext) {
+            Principal principal = containerRequestContext.getSecurityContext().getUserPrincipal();
+            if (principal instanceof RapidApiPrincipal) {
+                entry.setUser(((RapidApiPrincipal) principal).getUser())
+                        .setSubscription(((RapidApiPrincipal) principal).getSubscription());
+            }
+        }
+        entry.setStatus(containerResponseContext.getStatus())
+                .setDatabaseNanos(DatabaseTimer.getElapsedNanos())
+                .setLatencyNanos(nanoTime.getAsLong() - entry.getStartNanos());
+
+        // Anything with a body is logged once it has been written, with its size and the time spent writing it
+        if (!containerResponseContext.hasEntity() || HttpMethod.HEAD.equals(entry.getMethod())) {
+            containerRequestContext.removeProperty(ENTRY_PROPERTY);
+            ringBuffer.offer(entry);
+            entryPool.release(entry);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext writerInterceptorContext) throws IOException {
+        Object property = writerInterceptorContext.getProperty(ENTRY_PROPERTY);
+        if (!(property instanceof AccessLogEntry)) {
+            writerInterceptorContext.proceed();
+            return;
+        }
+        writerInterceptorContext.removeProperty(ENTRY_PROPERTY);
+
+        CountingOutputStream outputStream = new CountingOutputStream(writerInterceptorContext.getOutputStream());
+        writerInterceptorContext.setOutputStream(outputStream);
+        try {
+            writerInterceptorContext.proceed();
+        } finally {
+            // Streamed bodies read their rows while writing, so the database time is only complete now
+            AccessLogEntry entry = (AccessLogEntry) property;
+            ringBuffer.offer(entry.setBytes(outputStream.getCount())
+                    .setDatabaseNanos(DatabaseTimer.getElapsedNanos())
+                    .setLatencyNanos(nanoTime.getAsLong() - entry.getStartNanos()));
+            entryPool.release(entry);
+        }
     }
 }
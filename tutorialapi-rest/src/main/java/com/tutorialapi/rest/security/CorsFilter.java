@@ -1,9 +1,11 @@
 package com.tutorialapi.rest.security;
 
+import com.tutorialapi.rest.paging.Page;
 import jakarta.annotation.Priority;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerResponseContext;
 import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.ext.Provider;
 
 @Provider
@@ -17,5 +19,7 @@ public class CorsFilter implements ContainerResponseFilter {
                 "Access-Control-Allow-Methods",
                 "DELETE, HEAD, GET, OPTIONS, PATCH, POST, PUT"
         );
+        containerResponseContext.getHeaders().add("Access-Control-Expose-Headers",
+                String.join(", ", Page.NEXT_CURSOR_HEADER, HttpHeaders.ETAG, AccessLogFilter.REQUEST_ID_HEADER));
     }
 }
@@ -11,9 +11,11 @@ public class RapidApiSecurityContext implements SecurityContext {
     private static final String AUTHENTICATION_SCHEME = "RapidAPI";
 
     private final RapidApiPrincipal principal;
+    private final boolean secure;
 
-    public RapidApiSecurityContext(RapidApiPrincipal principal) {
+    public RapidApiSecurityContext(RapidApiPrincipal principal, boolean secure) {
         this.principal = principal;
+        this.secure = secure;
     }
 
     @Override
@@ -28,7 +30,7 @@ public class RapidApiSecurityContext implements SecurityContext {
 
     @Override
     public boolean isSecure() {
-        return true;
+        return secure;
     }
 
     @Override
@@ -41,18 +43,19 @@ public class RapidApiSecurityContext implements SecurityContext {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         RapidApiSecurityContext that = (RapidApiSecurityContext) o;
-        return Objects.equals(principal, that.principal);
+        return secure == that.secure && Objects.equals(principal, that.principal);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(principal);
+        return Objects.hash(principal, secure);
     }
 
     @Override
     public String toString() {
         return "RapidApiSecurityContext{" +
                 "principal=" + principal +
+                ", secure=" + secure +
                 '}';
     }
 }
@@ -26,6 +26,8 @@ import static jakarta.ws.rs.core.Response.Status.UNAUTHORIZED;
 @Provider
 @Priority(1)
 public class SecurityFilter implements ContainerRequestFilter {
+    private static final String HTTPS = "https";
+
     private final Supplier<Environment> environmentSupplier;
 
     @Inject
@@ -84,6 +86,8 @@ public class SecurityFilter implements ContainerRequestFilter {
             principal = new RapidApiPrincipal(proxySecret.get(), user.get(), subscription.get());
         }
 
-        containerRequestContext.setSecurityContext(new RapidApiSecurityContext(principal));
+        // Behind a TLS-terminating proxy the forwarded headers have already rewritten the scheme to the client's
+        boolean secure = HTTPS.equalsIgnoreCase(containerRequestContext.getUriInfo().getRequestUri().getScheme());
+        containerRequestContext.setSecurityContext(new RapidApiSecurityContext(principal, secure));
     }
 }
@@ -0,0 +1,33 @@
+package com.tutorialapi.rest.validation;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.BadRequestException;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class ValidationService {
+    private final Validator validator;
+
+    public ValidationService(Class<?>... validatedTypes) {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+        // Build the constraint metadata up front so the first request does not pay for it
+        for (Class<?> validatedType : validatedTypes) {
+            validator.getConstraintsForClass(validatedType);
+        }
+    }
+
+    public <T> void validate(T object) {
+        Set<ConstraintViolation<T>> violations = validator.validate(object);
+        if (!violations.isEmpty()) {
+            String errorMessage = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            throw new BadRequestException(errorMessage);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.tutorialapi.rest.config;
+
+import com.typesafe.config.ConfigSyntax;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class ConfigSourceTest {
+    @Test
+    public void testFromUrl() {
+        ConfigSource configSource = ConfigSource.from("https://localhost/system-dev.properties");
+        Assertions.assertTrue(configSource instanceof UrlConfigSource);
+        Assertions.assertEquals(ConfigSyntax.PROPERTIES, configSource.getSyntax());
+    }
+
+    @Test
+    public void testFromClasspath() {
+        ConfigSource configSource = ConfigSource.from("classpath:logback-test.xml");
+        Assertions.assertTrue(configSource instanceof ClasspathConfigSource);
+        Assertions.assertEquals(ConfigSyntax.CONF, configSource.getSyntax());
+        Assertions.assertTrue(configSource.read().length > 0);
+    }
+
+    @Test
+    public void testFromClasspathMissing() {
+        ConfigSource configSource = ConfigSource.from("classpath:missing.properties");
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class, configSource::read);
+        Assertions.assertEquals("Config resource not found on classpath: missing.properties", exception.getMessage());
+    }
+
+    @Test
+    public void testFromFile(@TempDir Path tempDir) throws IOException {
+        Path file = Files.writeString(tempDir.resolve("system.json"), "{}");
+
+        ConfigSource fromUri = ConfigSource.from(file.toUri().toString());
+        Assertions.assertTrue(fromUri instanceof FileConfigSource);
+        Assertions.assertEquals(ConfigSyntax.JSON, fromUri.getSyntax());
+        Assertions.assertEquals("{}", new String(fromUri.read(), StandardCharsets.UTF_8));
+
+        ConfigSource fromPath = ConfigSource.from(file.toString());
+        Assertions.assertTrue(fromPath instanceof FileConfigSource);
+        Assertions.assertEquals("{}", new String(fromPath.read(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testFileWatch(@TempDir Path tempDir) throws IOException, InterruptedException {
+        Path file = Files.writeString(tempDir.resolve("system.properties"), "a = 1");
+
+        CountDownLatch changed = new CountDownLatch(1);
+        ConfigSource configSource = ConfigSource.from(file.toString());
+        configSource.watch(changed::countDown);
+
+        Files.writeString(file, "a = 2");
+        Assertions.assertTrue(changed.await(30, TimeUnit.SECONDS));
+        Assertions.assertEquals("a = 2", new String(configSource.read(), StandardCharsets.UTF_8));
+        configSource.close();
+    }
+
+    @Test
+    public void testFileWatchStoppedOnClose(@TempDir Path tempDir) throws IOException, InterruptedException {
+        Path file = Files.writeString(tempDir.resolve("system.properties"), "a = 1");
+
+        ConfigSource configSource = ConfigSource.from(file.toString());
+        configSource.watch(() -> { });
+        List<Thread> watchers = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> "config-watcher".equals(thread.getName()))
+                .collect(Collectors.toList());
+        Assertions.assertFalse(watchers.isEmpty());
+
+        configSource.close();
+        for (Thread watcher : watchers) {
+            watcher.join(TimeUnit.SECONDS.toMillis(30));
+            Assertions.assertFalse(watcher.isAlive());
+        }
+    }
+}
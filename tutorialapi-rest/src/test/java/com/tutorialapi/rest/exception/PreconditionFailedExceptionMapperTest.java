@@ -0,0 +1,22 @@
+package com.tutorialapi.rest.exception;
+
+import com.tutorialapi.db.exception.PreconditionFailedException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static jakarta.ws.rs.core.Response.Status.PRECONDITION_FAILED;
+
+public class PreconditionFailedExceptionMapperTest {
+    @Test
+    public void test() {
+        PreconditionFailedException exception = new PreconditionFailedException("id");
+        Response response = new PreconditionFailedExceptionMapper().toResponse(exception);
+
+        Assertions.assertEquals(PRECONDITION_FAILED.getStatusCode(), response.getStatus());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+        Assertions.assertEquals(new ErrorResponse(PRECONDITION_FAILED.getStatusCode(),
+                "List with id id does not match the precondition"), response.getEntity());
+    }
+}
@@ -0,0 +1,22 @@
+package com.tutorialapi.rest.exception;
+
+import com.tutorialapi.db.exception.TodoListNotFoundException;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static jakarta.ws.rs.core.Response.Status.NOT_FOUND;
+
+public class TodoListNotFoundExceptionMapperTest {
+    @Test
+    public void test() {
+        TodoListNotFoundException exception = new TodoListNotFoundException("list-id");
+        Response response = new TodoListNotFoundExceptionMapper().toResponse(exception);
+
+        Assertions.assertEquals(NOT_FOUND.getStatusCode(), response.getStatus());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+        Assertions.assertEquals(new ErrorResponse(NOT_FOUND.getStatusCode(), "List with id list-id not found"),
+                response.getEntity());
+    }
+}
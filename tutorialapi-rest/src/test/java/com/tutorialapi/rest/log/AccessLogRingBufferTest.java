@@ -0,0 +1,132 @@
+package com.tutorialapi.rest.log;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class AccessLogRingBufferTest {
+    private static void add(AccessLogRingBuffer ringBuffer, String path) {
+        long sequence = ringBuffer.claim();
+        Assertions.assertNotEquals(AccessLogRingBuffer.FULL, sequence);
+        ringBuffer.get(sequence).setUser("user").setMethod("GET").setPath(path).setStatus(200);
+        ringBuffer.publish(sequence);
+    }
+
+    private static String drain(AccessLogRingBuffer ringBuffer, int maxEntries) {
+        StringBuilder builder = new StringBuilder();
+        ringBuffer.drain(builder, maxEntries);
+        return builder.toString();
+    }
+
+    @Test
+    public void testCapacityRoundedUp() {
+        Assertions.assertEquals(2, new AccessLogRingBuffer(1).getCapacity());
+        Assertions.assertEquals(4, new AccessLogRingBuffer(3).getCapacity());
+        Assertions.assertEquals(8192, new AccessLogRingBuffer(8192).getCapacity());
+    }
+
+    @Test
+    public void testDrainInOrder() {
+        AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(4);
+        add(ringBuffer, "/a");
+        add(ringBuffer, "/b");
+
+        String[] lines = drain(ringBuffer, 10).split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[0].contains("\"path\":\"/a\""), lines[0]);
+        Assertions.assertTrue(lines[1].contains("\"path\":\"/b\""), lines[1]);
+        Assertions.assertEquals("", drain(ringBuffer, 10));
+    }
+
+    @Test
+    public void testDrainBatchSize() {
+        AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(4);
+        add(ringBuffer, "/a");
+        add(ringBuffer, "/b");
+        add(ringBuffer, "/c");
+
+        Assertions.assertTrue(drain(ringBuffer, 2).contains("\"path\":\"/b\""));
+        Assertions.assertTrue(drain(ringBuffer, 2).contains("\"path\":\"/c\""));
+    }
+
+    @Test
+    public void testDrainStopsAtUnpublished() {
+        AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(4);
+        long first = ringBuffer.claim();
+        add(ringBuffer, "/b");
+
+        Assertions.assertEquals("", drain(ringBuffer, 10));
+        ringBuffer.get(first).setUser("user").setMethod("GET").setPath("/a").setStatus(200);
+        ringBuffer.publish(first);
+        Assertions.assertEquals(2, drain(ringBuffer, 10).split("\n").length);
+    }
+
+    @Test
+    public void testFullDropsAndWrapsAround() {
+        AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(2);
+        add(ringBuffer, "/a");
+        add(ringBuffer, "/b");
+        Assertions.assertEquals(AccessLogRingBuffer.FULL, ringBuffer.claim());
+        Assertions.assertEquals(1, ringBuffer.getAndResetDropped());
+        Assertions.assertEquals(0, ringBuffer.getAndResetDropped());
+
+        drain(ringBuffer, 10);
+        add(ringBuffer, "/c");
+        Assertions.assertEquals("{\"time\":\"1970-01-01T00:00:00Z\",\"requestId\":null,\"user\":\"user\","
+                + "\"subscription\":null,\"method\":\"GET\",\"path\":\"/c\",\"status\":200,\"bytes\":0,"
+                + "\"latencyMicros\":0,\"databaseMicros\":0}", drain(ringBuffer, 10));
+    }
+
+    @Test
+    public void testOffer() {
+        AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(1);
+        AccessLogEntry entry = new AccessLogEntry().setUser("user").setMethod("GET").setPath("/a").setStatus(200);
+        Assertions.assertTrue(ringBuffer.offer(entry));
+        Assertions.assertTrue(ringBuffer.offer(entry.setPath("/b")));
+        Assertions.assertFalse(ringBuffer.offer(entry.setPath("/c")));
+
+        Assertions.assertTrue(drain(ringBuffer, 1).contains("\"path\":\"/a\""));
+        Assertions.assertTrue(drain(ringBuffer, 1).contains("\"path\":\"/b\""));
+    }
+
+    @Test
+    public void testWriterBatches() {
+        AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(4);
+        List<String> batches = new ArrayList<>();
+        AccessLogWriter writer = new AccessLogWriter(ringBuffer, batches::add);
+        add(ringBuffer, "/a");
+        add(ringBuffer, "/b");
+
+        Assertions.assertEquals(2, writer.writeBatch());
+        Assertions.assertEquals(0, writer.writeBatch());
+        Assertions.assertEquals(1, batches.size());
+        Assertions.assertEquals(2, batches.get(0).split("\n").length);
+    }
+
+    @Test
+    public void testAwaitReturnsWhenPublished() {
+        AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(4);
+        add(ringBuffer, "/a");
+
+        long start = System.nanoTime();
+        ringBuffer.awaitPublished(TimeUnit.MINUTES.toNanos(1));
+        Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    public void testPublishWakesWaiter() throws InterruptedException {
+        AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(4);
+        Thread consumer = new Thread(() -> ringBuffer.awaitPublished(TimeUnit.MINUTES.toNanos(1)));
+        consumer.start();
+        while (consumer.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+
+        add(ringBuffer, "/a");
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        Assertions.assertFalse(consumer.isAlive());
+    }
+}
@@ -0,0 +1,91 @@
+package com.tutorialapi.rest.paging;
+
+import com.google.common.base.Strings;
+import com.tutorialapi.model.TodoItem;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class PageTest {
+    @Test
+    public void testIsRequested() {
+        Assertions.assertFalse(Page.isRequested(null, null));
+        Assertions.assertTrue(Page.isRequested(10, null));
+        Assertions.assertTrue(Page.isRequested(null, "cursor"));
+    }
+
+    @Test
+    public void testGetLimit() {
+        Assertions.assertEquals(Page.DEFAULT_LIMIT, Page.getLimit(null));
+        Assertions.assertEquals(1, Page.getLimit(1));
+        Assertions.assertEquals(Page.MAX_LIMIT, Page.getLimit(Page.MAX_LIMIT));
+        Assertions.assertThrows(BadRequestException.class, () -> Page.getLimit(0));
+        Assertions.assertThrows(BadRequestException.class, () -> Page.getLimit(Page.MAX_LIMIT + 1));
+    }
+
+    @Test
+    public void testCursorRoundTrip() {
+        Page.Cursor cursor = new Page.Cursor("id", true, "Task with / and + characters");
+        String encoded = Page.encodeCursor(cursor);
+        Assertions.assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+        Assertions.assertEquals(cursor, Page.decodeCursor(encoded));
+        Assertions.assertNull(Page.decodeCursor(null));
+    }
+
+    @Test
+    public void testCursorKeepsOnlyKeyPrefix() {
+        Page.Cursor cursor = new Page.Cursor("id", false, Strings.repeat("a", 200));
+        Assertions.assertEquals(Strings.repeat("a", 32), cursor.key());
+        Assertions.assertTrue(Page.encodeCursor(cursor).length() < 100);
+
+        // Never cut between the two halves of a surrogate pair
+        String emoji = "\uD83D\uDE00";
+        Page.Cursor split = new Page.Cursor("id", false, Strings.repeat("a", 31) + emoji);
+        Assertions.assertEquals(Strings.repeat("a", 31), split.key());
+    }
+
+    @Test
+    public void testCursorWithoutKey() {
+        // {"id":"list1"}
+        Assertions.assertEquals(new Page.Cursor("list1", false, ""), Page.decodeCursor("eyJpZCI6Imxpc3QxIn0"));
+    }
+
+    @Test
+    public void testInvalidCursor() {
+        Assertions.assertThrows(BadRequestException.class, () -> Page.decodeCursor("not a cursor"));
+        Assertions.assertThrows(BadRequestException.class, () -> Page.decodeCursor("bm90IGpzb24"));
+        // null, {}, {"id":""} and {"id":"x","extra":1}
+        Assertions.assertThrows(BadRequestException.class, () -> Page.decodeCursor("bnVsbA"));
+        Assertions.assertThrows(BadRequestException.class, () -> Page.decodeCursor("e30"));
+        Assertions.assertThrows(BadRequestException.class, () -> Page.decodeCursor("eyJpZCI6IiJ9"));
+        Assertions.assertThrows(BadRequestException.class, () -> Page.decodeCursor("eyJpZCI6IngiLCJleHRyYSI6MX0"));
+        Assertions.assertThrows(BadRequestException.class,
+                () -> Page.decodeCursor(Page.encodeCursor(new Page.Cursor(Strings.repeat("a", 37), false, null))));
+        Assertions.assertThrows(BadRequestException.class, () -> Page.decodeCursor(Strings.repeat("a", 257)));
+    }
+
+    @Test
+    public void testToResponseLastPage() {
+        List<TodoItem> items = List.of(new TodoItem().setId("1").setTask("Task 1"));
+        Response response = Page.toResponse(items, 2, PageTest::toCursor);
+        Assertions.assertEquals(items, response.getEntity());
+        Assertions.assertNull(response.getHeaderString(Page.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void testToResponseMorePages() {
+        TodoItem item1 = new TodoItem().setId("1").setTask("Task 1");
+        TodoItem item2 = new TodoItem().setId("2").setTask("Task 2");
+        Response response = Page.toResponse(List.of(item1, item2), 1, PageTest::toCursor);
+        Assertions.assertEquals(List.of(item1), response.getEntity());
+        Assertions.assertEquals(new Page.Cursor("1", false, "Task 1"),
+                Page.decodeCursor(response.getHeaderString(Page.NEXT_CURSOR_HEADER)));
+    }
+
+    private static Page.Cursor toCursor(TodoItem item) {
+        return new Page.Cursor(item.getId(), item.isDone(), item.getTask());
+    }
+}
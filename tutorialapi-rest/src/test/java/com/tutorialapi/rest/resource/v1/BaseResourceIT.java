@@ -28,5 +28,7 @@ public abstract class BaseResourceIT extends JerseyTest {
         Assertions.assertEquals("*", response.getHeaderString("Access-Control-Allow-Origin"));
         Assertions.assertEquals("DELETE, HEAD, GET, OPTIONS, PATCH, POST, PUT",
                 response.getHeaderString("Access-Control-Allow-Methods"));
+        Assertions.assertEquals("X-Next-Cursor, ETag, X-Request-Id",
+                response.getHeaderString("Access-Control-Expose-Headers"));
     }
 }
@@ -0,0 +1,164 @@
+package com.tutorialapi.rest.resource.v1.items;
+
+import com.tutorialapi.db.ServiceFactory;
+import com.tutorialapi.db.exception.TodoListNotFoundException;
+import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.db.service.TodoListService;
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.batch.BatchAction;
+import com.tutorialapi.model.batch.BatchStatus;
+import com.tutorialapi.model.batch.TodoItemOperation;
+import com.tutorialapi.model.batch.TodoItemResult;
+import com.tutorialapi.model.config.ConfigKey;
+import com.tutorialapi.model.user.RapidApiPrincipal;
+import com.tutorialapi.model.user.Subscription;
+import com.tutorialapi.rest.ApiApplication;
+import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.resource.v1.BaseResourceIT;
+import com.tutorialapi.rest.security.SecurityHeader;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+public class BatchTodoItemsResourceIT extends BaseResourceIT {
+    private TodoListService todoListService;
+    private TodoItemService todoItemService;
+
+    @Override
+    protected Application configure() {
+        ServiceFactory serviceFactory = Mockito.mock(ServiceFactory.class);
+        todoListService = Mockito.mock(TodoListService.class);
+        todoItemService = Mockito.mock(TodoItemService.class);
+        Mockito.when(serviceFactory.getTodoListService()).thenReturn(todoListService);
+        Mockito.when(serviceFactory.getTodoItemService()).thenReturn(todoItemService);
+
+        Properties configProperties = new Properties();
+        configProperties.setProperty(ConfigKey.RAPIDAPI_PROXY_SECRET.getKey(), "proxy-secret");
+        Config config = ConfigFactory.parseProperties(configProperties);
+
+        return new ApiApplication(() -> new Environment(config, serviceFactory));
+    }
+
+    private Response post(List<TodoItemOperation> operations) {
+        return target("/v1/lists/list-id/batch").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .post(Entity.entity(operations, MediaType.APPLICATION_JSON_TYPE));
+    }
+
+    @Test
+    public void testNoSecurityHeaders() {
+        List<TodoItemOperation> operations = List.of(new TodoItemOperation().setAction(BatchAction.DELETE)
+                .setItem(new TodoItem().setId("item-id")));
+        Response response = target("/v1/lists/list-id/batch").request()
+                .post(Entity.entity(operations, MediaType.APPLICATION_JSON_TYPE));
+        verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
+                "Missing security header: X-RapidAPI-Proxy-Secret");
+        Mockito.verify(todoItemService, Mockito.times(0)).batch(any(), any(), any());
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        Response response = post(Collections.emptyList());
+        verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(),
+                "Batch must contain between 1 and 1000 operations");
+        Mockito.verify(todoItemService, Mockito.times(0)).batch(any(), any(), any());
+    }
+
+    @Test
+    public void testInvalidOperation() {
+        List<TodoItemOperation> operations = List.of(
+                new TodoItemOperation().setAction(BatchAction.CREATE).setItem(new TodoItem().setTask("Task")),
+                new TodoItemOperation().setAction(BatchAction.UPDATE).setItem(new TodoItem().setId("item-id"))
+        );
+        Response response = post(operations);
+        verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(), "Todo item task cannot be empty");
+        Mockito.verify(todoListService, Mockito.times(0)).get(any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).batch(any(), any(), any());
+    }
+
+    @Test
+    public void testMissingAction() {
+        List<TodoItemOperation> operations = List.of(new TodoItemOperation().setItem(new TodoItem().setId("item-id")));
+        Response response = post(operations);
+        verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(),
+                "Batch operation action cannot be empty");
+        Mockito.verify(todoItemService, Mockito.times(0)).batch(any(), any(), any());
+    }
+
+    @Test
+    public void testTodoListNotFound() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        List<TodoItemOperation> operations = List.of(new TodoItemOperation().setAction(BatchAction.DELETE)
+                .setItem(new TodoItem().setId("item-id")));
+        Mockito.when(todoItemService.batch(eq(principal), eq("list-id"), eq(operations)))
+                .thenThrow(new TodoListNotFoundException("list-id"));
+        Response response = post(operations);
+        verifyErrorResponse(response, Response.Status.NOT_FOUND.getStatusCode(), "List with id list-id not found");
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).batch(eq(principal), eq("list-id"), eq(operations));
+    }
+
+    @Test
+    public void testBatch() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        List<TodoItemOperation> operations = List.of(
+                new TodoItemOperation().setAction(BatchAction.CREATE)
+                        .setItem(new TodoItem().setId("item-1").setTask("Task 1")),
+                new TodoItemOperation().setAction(BatchAction.UPDATE)
+                        .setItem(new TodoItem().setId("item-2").setTask("Task 2").setDone(true)),
+                new TodoItemOperation().setAction(BatchAction.DELETE)
+                        .setItem(new TodoItem().setId("item-3"))
+        );
+        List<TodoItemResult> results = List.of(
+                new TodoItemResult().setId("item-1").setStatus(BatchStatus.CREATED),
+                new TodoItemResult().setId("item-2").setStatus(BatchStatus.UPDATED),
+                new TodoItemResult().setId("item-3").setStatus(BatchStatus.NOT_FOUND)
+        );
+        Mockito.when(todoItemService.batch(eq(principal), eq("list-id"), eq(operations))).thenReturn(results);
+
+        Response response = post(operations);
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+        Assertions.assertEquals(results, response.readEntity(new GenericType<List<TodoItemResult>>() {}));
+        verifyCorsHeaders(response);
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).batch(eq(principal), eq("list-id"), eq(operations));
+    }
+
+    @Test
+    public void testBatchCreateNoId() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoItemService.batch(eq(principal), eq("list-id"), any())).thenAnswer(invocation -> {
+            List<TodoItemOperation> operations = invocation.getArgument(2);
+            return List.of(new TodoItemResult()
+                    .setId(operations.get(0).getItem().getId())
+                    .setStatus(BatchStatus.CREATED));
+        });
+
+        Response response = post(List.of(new TodoItemOperation().setAction(BatchAction.CREATE)
+                .setItem(new TodoItem().setTask("Task"))));
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        List<TodoItemResult> results = response.readEntity(new GenericType<>() {});
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertEquals(36, results.get(0).getId().length());
+        Assertions.assertEquals(BatchStatus.CREATED, results.get(0).getStatus());
+    }
+}
@@ -1,7 +1,9 @@
 package com.tutorialapi.rest.resource.v1.items;
 
 import com.tutorialapi.db.ServiceFactory;
+import com.tutorialapi.db.exception.PreconditionFailedException;
 import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.db.service.TodoListService;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.config.ConfigKey;
 import com.tutorialapi.model.user.RapidApiPrincipal;
@@ -13,6 +15,7 @@ import com.tutorialapi.rest.security.SecurityHeader;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Assertions;
@@ -24,14 +27,18 @@ import java.util.Properties;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 public class DeleteTodoItemResourceIT extends BaseResourceIT {
+    private TodoListService todoListService;
     private TodoItemService todoItemService;
 
     @Override
     protected Application configure() {
         ServiceFactory serviceFactory = Mockito.mock(ServiceFactory.class);
+        todoListService = Mockito.mock(TodoListService.class);
         todoItemService = Mockito.mock(TodoItemService.class);
+        Mockito.when(serviceFactory.getTodoListService()).thenReturn(todoListService);
         Mockito.when(serviceFactory.getTodoItemService()).thenReturn(todoItemService);
 
         Properties configProperties = new Properties();
@@ -46,7 +53,7 @@ public class DeleteTodoItemResourceIT extends BaseResourceIT {
         Response response = target("/v1/lists/list-id/items/item-id").request().delete();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing security header: X-RapidAPI-Proxy-Secret");
-        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any(), any());
     }
 
     @Test
@@ -56,7 +63,7 @@ public class DeleteTodoItemResourceIT extends BaseResourceIT {
                 .delete();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing security header: X-RapidAPI-User");
-        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any(), any());
     }
 
     @Test
@@ -67,7 +74,7 @@ public class DeleteTodoItemResourceIT extends BaseResourceIT {
                 .delete();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing or invalid security header: X-RapidAPI-Subscription");
-        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any(), any());
     }
 
     @Test
@@ -79,13 +86,14 @@ public class DeleteTodoItemResourceIT extends BaseResourceIT {
                 .delete();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing or invalid security header: X-RapidAPI-Subscription");
-        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any(), any());
     }
 
     @Test
     public void testMissingTodoItem() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoItemService.delete(eq(principal), eq("list-id"), eq("item-id"))).thenReturn(Optional.empty());
+        Mockito.when(todoItemService.delete(eq(principal), eq("list-id"), eq("item-id"), isNull()))
+                .thenReturn(Optional.empty());
 
         Response response = target("/v1/lists/list-id/items/item-id").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -94,14 +102,15 @@ public class DeleteTodoItemResourceIT extends BaseResourceIT {
                 .delete();
         verifyErrorResponse(response, Response.Status.NOT_FOUND.getStatusCode(),
                 "Item with id item-id not found in list with id list-id");
-        Mockito.verify(todoItemService, Mockito.times(1)).delete(eq(principal), eq("list-id"), eq("item-id"));
+        Mockito.verify(todoItemService, Mockito.times(1)).delete(eq(principal), eq("list-id"), eq("item-id"), isNull());
     }
 
     @Test
     public void testTodoItemFound() {
         TodoItem item = new TodoItem().setId("item-id").setTask("Task 1").setDone(false);
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoItemService.delete(eq(principal), eq("list-id"), eq("item-id"))).thenReturn(Optional.of(item));
+        Mockito.when(todoItemService.delete(eq(principal), eq("list-id"), eq("item-id"), isNull()))
+                .thenReturn(Optional.of(item));
 
         Response response = target("/v1/lists/list-id/items/item-id").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -113,13 +122,13 @@ public class DeleteTodoItemResourceIT extends BaseResourceIT {
         Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
         Assertions.assertEquals(item, response.readEntity(TodoItem.class));
         verifyCorsHeaders(response);
-        Mockito.verify(todoItemService, Mockito.times(1)).delete(eq(principal), eq("list-id"), eq("item-id"));
+        Mockito.verify(todoItemService, Mockito.times(1)).delete(eq(principal), eq("list-id"), eq("item-id"), isNull());
     }
 
     @Test
     public void testServiceException() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoItemService.delete(eq(principal), eq("list-id"), eq("item-id")))
+        Mockito.when(todoItemService.delete(eq(principal), eq("list-id"), eq("item-id"), isNull()))
                 .thenThrow(new RuntimeException("Failed"));
 
         Response response = target("/v1/lists/list-id/items/item-id").request()
@@ -128,6 +137,57 @@ public class DeleteTodoItemResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .delete();
         verifyErrorResponse(response, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), "Failed");
-        Mockito.verify(todoItemService, Mockito.times(1)).delete(eq(principal), eq("list-id"), eq("item-id"));
+        Mockito.verify(todoItemService, Mockito.times(1)).delete(eq(principal), eq("list-id"), eq("item-id"), isNull());
+    }
+
+    @Test
+    public void testIfMatchFailed() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoItemService.delete(eq(principal), eq("list-id"), eq("item-id"), eq(4L)))
+                .thenThrow(new PreconditionFailedException("list-id"));
+
+        Response response = target("/v1/lists/list-id/items/item-id").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .delete();
+
+        verifyErrorResponse(response, Response.Status.PRECONDITION_FAILED.getStatusCode(),
+                "List with id list-id does not match the precondition");
+        Mockito.verifyNoInteractions(todoListService);
+    }
+
+    @Test
+    public void testIfMatchNotIssuedTag() {
+        Response response = target("/v1/lists/list-id/items/item-id").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_MATCH, "W/\"4\"")
+                .delete();
+
+        verifyErrorResponse(response, Response.Status.PRECONDITION_FAILED.getStatusCode(),
+                "List with id list-id does not match the precondition");
+        Mockito.verify(todoItemService, Mockito.times(0)).delete(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testIfMatchSucceeded() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
+        Mockito.when(todoItemService.delete(eq(principal), eq("list-id"), eq("item-id"), eq(5L)))
+                .thenReturn(Optional.of(todoItem));
+
+        Response response = target("/v1/lists/list-id/items/item-id").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .delete();
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assertions.assertEquals(todoItem, response.readEntity(TodoItem.class));
+        Mockito.verifyNoInteractions(todoListService);
     }
 }
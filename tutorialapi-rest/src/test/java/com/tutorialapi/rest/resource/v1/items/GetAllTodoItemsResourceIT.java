@@ -2,18 +2,21 @@ package com.tutorialapi.rest.resource.v1.items;
 
 import com.tutorialapi.db.ServiceFactory;
 import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.db.service.TodoListService;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.config.ConfigKey;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.model.user.Subscription;
 import com.tutorialapi.rest.ApiApplication;
 import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.paging.Page;
 import com.tutorialapi.rest.resource.v1.BaseResourceIT;
 import com.tutorialapi.rest.security.SecurityHeader;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import jakarta.ws.rs.core.Application;
 import jakarta.ws.rs.core.GenericType;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Assertions;
@@ -23,18 +26,26 @@ import org.mockito.Mockito;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 public class GetAllTodoItemsResourceIT extends BaseResourceIT {
+    private TodoListService todoListService;
     private TodoItemService todoItemService;
 
     @Override
     protected Application configure() {
         ServiceFactory serviceFactory = Mockito.mock(ServiceFactory.class);
+        todoListService = Mockito.mock(TodoListService.class);
         todoItemService = Mockito.mock(TodoItemService.class);
+        Mockito.when(serviceFactory.getTodoListService()).thenReturn(todoListService);
         Mockito.when(serviceFactory.getTodoItemService()).thenReturn(todoItemService);
 
         Properties configProperties = new Properties();
@@ -49,7 +60,7 @@ public class GetAllTodoItemsResourceIT extends BaseResourceIT {
         Response response = target("/v1/lists/list-id/items").request().get();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing security header: X-RapidAPI-Proxy-Secret");
-        Mockito.verify(todoItemService, Mockito.times(0)).getAll(any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).stream(any(), any());
     }
 
     @Test
@@ -59,7 +70,7 @@ public class GetAllTodoItemsResourceIT extends BaseResourceIT {
                 .get();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing security header: X-RapidAPI-User");
-        Mockito.verify(todoItemService, Mockito.times(0)).getAll(any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).stream(any(), any());
     }
 
     @Test
@@ -70,7 +81,7 @@ public class GetAllTodoItemsResourceIT extends BaseResourceIT {
                 .get();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing or invalid security header: X-RapidAPI-Subscription");
-        Mockito.verify(todoItemService, Mockito.times(0)).getAll(any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).stream(any(), any());
     }
 
     @Test
@@ -82,13 +93,13 @@ public class GetAllTodoItemsResourceIT extends BaseResourceIT {
                 .get();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing or invalid security header: X-RapidAPI-Subscription");
-        Mockito.verify(todoItemService, Mockito.times(0)).getAll(any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).stream(any(), any());
     }
 
     @Test
     public void testNoTodoItems() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoItemService.getAll(eq(principal), eq("list-id"))).thenReturn(Collections.emptyList());
+        Mockito.when(todoItemService.stream(eq(principal), eq("list-id"))).thenReturn(Stream.empty());
 
         Response response = target("/v1/lists/list-id/items").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -101,7 +112,7 @@ public class GetAllTodoItemsResourceIT extends BaseResourceIT {
         List<TodoItem> results = response.readEntity(new GenericType<>() {});
         Assertions.assertTrue(results.isEmpty());
         verifyCorsHeaders(response);
-        Mockito.verify(todoItemService, Mockito.times(1)).getAll(eq(principal), eq("list-id"));
+        Mockito.verify(todoItemService, Mockito.times(1)).stream(eq(principal), eq("list-id"));
     }
 
     @Test
@@ -111,7 +122,9 @@ public class GetAllTodoItemsResourceIT extends BaseResourceIT {
                 new TodoItem().setId("2").setTask("Task 2").setDone(true)
         );
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoItemService.getAll(eq(principal), eq("list-id"))).thenReturn(items);
+        AtomicBoolean closed = new AtomicBoolean();
+        Mockito.when(todoItemService.stream(eq(principal), eq("list-id")))
+                .thenReturn(items.stream().onClose(() -> closed.set(true)));
 
         Response response = target("/v1/lists/list-id/items").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -123,14 +136,74 @@ public class GetAllTodoItemsResourceIT extends BaseResourceIT {
         Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
         List<TodoItem> results = response.readEntity(new GenericType<>() {});
         Assertions.assertEquals(items, results);
+        Assertions.assertTrue(closed.get());
         verifyCorsHeaders(response);
-        Mockito.verify(todoItemService, Mockito.times(1)).getAll(eq(principal), eq("list-id"));
+        Mockito.verify(todoItemService, Mockito.times(1)).stream(eq(principal), eq("list-id"));
+    }
+
+    @Test
+    public void testPagedTodoItems() {
+        TodoItem item1 = new TodoItem().setId("1").setTask("Task 1").setDone(false);
+        TodoItem item2 = new TodoItem().setId("2").setTask("Task 2").setDone(true);
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoItemService.getAll(eq(principal), eq("list-id"), isNull(), eq(2)))
+                .thenReturn(Arrays.asList(item1, item2));
+        Mockito.when(todoItemService.getAll(eq(principal), eq("list-id"), eq(item1), eq(2)))
+                .thenReturn(Collections.singletonList(item2));
+        Mockito.when(todoItemService.get(eq(principal), eq("list-id"), eq("1"))).thenReturn(Optional.of(item1));
+
+        Response response = target("/v1/lists/list-id/items").queryParam("limit", 1).request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .get();
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        List<TodoItem> results = response.readEntity(new GenericType<>() {});
+        Assertions.assertEquals(List.of(item1), results);
+        String cursor = response.getHeaderString(Page.NEXT_CURSOR_HEADER);
+        Assertions.assertNotNull(cursor);
+        verifyCorsHeaders(response);
+
+        response = target("/v1/lists/list-id/items").queryParam("limit", 1).queryParam("cursor", cursor).request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .get();
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        results = response.readEntity(new GenericType<>() {});
+        Assertions.assertEquals(List.of(item2), results);
+        Assertions.assertNull(response.getHeaderString(Page.NEXT_CURSOR_HEADER));
+        Mockito.verify(todoItemService, Mockito.times(0)).stream(any(), any());
+    }
+
+    @Test
+    public void testInvalidLimit() {
+        Response response = target("/v1/lists/list-id/items").queryParam("limit", 0).request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .get();
+        verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(), "Limit must be between 1 and 1000");
+        Mockito.verify(todoItemService, Mockito.times(0)).getAll(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    public void testInvalidCursor() {
+        Response response = target("/v1/lists/list-id/items").queryParam("cursor", "invalid!").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .get();
+        verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(), "Invalid cursor");
+        Mockito.verify(todoItemService, Mockito.times(0)).getAll(any(), any(), any(), anyInt());
     }
 
     @Test
     public void testServiceException() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoItemService.getAll(eq(principal), eq("list-id"))).thenThrow(new RuntimeException("Failed"));
+        Mockito.when(todoItemService.stream(eq(principal), eq("list-id"))).thenThrow(new RuntimeException("Failed"));
 
         Response response = target("/v1/lists/list-id/items").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -138,6 +211,61 @@ public class GetAllTodoItemsResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .get();
         verifyErrorResponse(response, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), "Failed");
-        Mockito.verify(todoItemService, Mockito.times(1)).getAll(eq(principal), eq("list-id"));
+        Mockito.verify(todoItemService, Mockito.times(1)).stream(eq(principal), eq("list-id"));
+    }
+
+    @Test
+    public void testNoETagWithoutPrecondition() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoItemService.stream(eq(principal), eq("list-id"))).thenReturn(Stream.empty());
+
+        Response response = target("/v1/lists/list-id/items").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .get();
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assertions.assertNull(response.getHeaderString(HttpHeaders.ETAG));
+        verifyCorsHeaders(response);
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).stream(eq(principal), eq("list-id"));
+    }
+
+    @Test
+    public void testNotModified() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoListService.getVersion(eq(principal), eq("list-id"))).thenReturn(Optional.of(3L));
+
+        Response response = target("/v1/lists/list-id/items").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .get();
+
+        Assertions.assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        Assertions.assertEquals("\"3\"", response.getHeaderString(HttpHeaders.ETAG));
+        Mockito.verify(todoListService, Mockito.times(1)).getVersion(eq(principal), eq("list-id"));
+        Mockito.verifyNoInteractions(todoItemService);
+    }
+
+    @Test
+    public void testModified() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoListService.getVersion(eq(principal), eq("list-id"))).thenReturn(Optional.of(4L));
+        Mockito.when(todoItemService.getAll(eq(principal), eq("list-id"), isNull(), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+        Response response = target("/v1/lists/list-id/items").queryParam("limit", 10).request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                .get();
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assertions.assertEquals("\"4\"", response.getHeaderString(HttpHeaders.ETAG));
+        Mockito.verify(todoItemService, Mockito.times(1)).getAll(eq(principal), eq("list-id"), isNull(), eq(10 + 1));
     }
 }
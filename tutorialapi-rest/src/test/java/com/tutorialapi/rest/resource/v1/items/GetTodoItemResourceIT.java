@@ -2,6 +2,7 @@ package com.tutorialapi.rest.resource.v1.items;
 
 import com.tutorialapi.db.ServiceFactory;
 import com.tutorialapi.db.service.TodoItemService;
+import com.tutorialapi.db.service.TodoListService;
 import com.tutorialapi.model.TodoItem;
 import com.tutorialapi.model.config.ConfigKey;
 import com.tutorialapi.model.user.RapidApiPrincipal;
@@ -13,6 +14,7 @@ import com.tutorialapi.rest.security.SecurityHeader;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Assertions;
@@ -26,12 +28,15 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 
 public class GetTodoItemResourceIT extends BaseResourceIT {
+    private TodoListService todoListService;
     private TodoItemService todoItemService;
 
     @Override
     protected Application configure() {
         ServiceFactory serviceFactory = Mockito.mock(ServiceFactory.class);
+        todoListService = Mockito.mock(TodoListService.class);
         todoItemService = Mockito.mock(TodoItemService.class);
+        Mockito.when(serviceFactory.getTodoListService()).thenReturn(todoListService);
         Mockito.when(serviceFactory.getTodoItemService()).thenReturn(todoItemService);
 
         Properties configProperties = new Properties();
@@ -112,10 +117,29 @@ public class GetTodoItemResourceIT extends BaseResourceIT {
         Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
         Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
         Assertions.assertEquals(item, response.readEntity(TodoItem.class));
+        Assertions.assertNull(response.getHeaderString(HttpHeaders.ETAG));
         verifyCorsHeaders(response);
+        Mockito.verifyNoInteractions(todoListService);
         Mockito.verify(todoItemService, Mockito.times(1)).get(eq(principal), eq("list-id"), eq("item-id"));
     }
 
+    @Test
+    public void testTodoItemNamedBatch() {
+        TodoItem item = new TodoItem().setId("batch").setTask("Task 1").setDone(false);
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoItemService.get(eq(principal), eq("list-id"), eq("batch"))).thenReturn(Optional.of(item));
+
+        Response response = target("/v1/lists/list-id/items/batch").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .get();
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assertions.assertEquals(item, response.readEntity(TodoItem.class));
+        Mockito.verify(todoItemService, Mockito.times(1)).get(eq(principal), eq("list-id"), eq("batch"));
+    }
+
     @Test
     public void testServiceException() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
@@ -130,4 +154,20 @@ public class GetTodoItemResourceIT extends BaseResourceIT {
         verifyErrorResponse(response, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), "Failed");
         Mockito.verify(todoItemService, Mockito.times(1)).get(eq(principal), eq("list-id"), eq("item-id"));
     }
+
+    @Test
+    public void testNotModified() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoListService.getVersion(eq(principal), eq("list-id"))).thenReturn(Optional.of(7L));
+
+        Response response = target("/v1/lists/list-id/items/item-id").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"7\"")
+                .get();
+
+        Assertions.assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        Mockito.verifyNoInteractions(todoItemService);
+    }
 }
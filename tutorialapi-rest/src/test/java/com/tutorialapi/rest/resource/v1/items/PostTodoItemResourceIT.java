@@ -3,10 +3,10 @@ package com.tutorialapi.rest.resource.v1.items;
 import com.google.common.base.Strings;
 import com.tutorialapi.db.ServiceFactory;
 import com.tutorialapi.db.exception.ConflictException;
+import com.tutorialapi.db.exception.TodoListNotFoundException;
 import com.tutorialapi.db.service.TodoItemService;
 import com.tutorialapi.db.service.TodoListService;
 import com.tutorialapi.model.TodoItem;
-import com.tutorialapi.model.TodoList;
 import com.tutorialapi.model.config.ConfigKey;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.model.user.Subscription;
@@ -24,7 +24,6 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
-import java.util.Optional;
 import java.util.Properties;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -101,8 +100,9 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
     @Test
     public void testTodoListNotFound() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.empty());
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
+        Mockito.when(todoItemService.create(eq(principal), eq("list-id"), eq(todoItem)))
+                .thenThrow(new TodoListNotFoundException("list-id"));
         Entity<TodoItem> entity = Entity.entity(todoItem, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id/items").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -110,15 +110,13 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .post(entity);
         verifyErrorResponse(response, Response.Status.NOT_FOUND.getStatusCode(), "List with id list-id not found");
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
-        Mockito.verify(todoItemService, Mockito.times(0)).create(any(), any(), any());
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).create(eq(principal), eq("list-id"), eq(todoItem));
     }
 
     @Test
     public void testTodoItemCreateFalse() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
         Mockito.when(todoItemService.create(eq(principal), eq("list-id"), eq(todoItem))).thenReturn(false);
 
@@ -130,15 +128,13 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
                 .post(entity);
         verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(),
                 "Invalid input, failed to insert todo item");
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
+        Mockito.verifyNoInteractions(todoListService);
         Mockito.verify(todoItemService, Mockito.times(1)).create(eq(principal), eq("list-id"), eq(todoItem));
     }
 
     @Test
     public void testTodoItemCreateTrue() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
         Mockito.when(todoItemService.create(eq(principal), eq("list-id"), eq(todoItem))).thenReturn(true);
 
@@ -153,15 +149,13 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
         Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
         Assertions.assertEquals(todoItem, response.readEntity(TodoItem.class));
         verifyCorsHeaders(response);
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
+        Mockito.verifyNoInteractions(todoListService);
         Mockito.verify(todoItemService, Mockito.times(1)).create(eq(principal), eq("list-id"), eq(todoItem));
     }
 
     @Test
     public void testTodoItemNoId() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         Mockito.when(todoItemService.create(eq(principal), eq("list-id"), any())).thenReturn(true);
 
         TodoItem todoItem = new TodoItem().setTask("Item Task").setDone(false);
@@ -179,15 +173,13 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
         Assertions.assertEquals(todoItem.getTask(), result.getTask());
         Assertions.assertEquals(todoItem.isDone(), result.isDone());
         verifyCorsHeaders(response);
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
+        Mockito.verifyNoInteractions(todoListService);
         Mockito.verify(todoItemService, Mockito.times(1)).create(eq(principal), eq("list-id"), eq(result));
     }
 
     @Test
     public void testConflictException() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
         Mockito.when(todoItemService.create(eq(principal), eq("list-id"), eq(todoItem)))
                 .thenThrow(new ConflictException("Already exists"));
@@ -199,15 +191,13 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .post(entity);
         verifyErrorResponse(response, Response.Status.CONFLICT.getStatusCode(), "Already exists");
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
+        Mockito.verifyNoInteractions(todoListService);
         Mockito.verify(todoItemService, Mockito.times(1)).create(eq(principal), eq("list-id"), eq(todoItem));
     }
 
     @Test
     public void testServiceException() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
         Mockito.when(todoItemService.create(eq(principal), eq("list-id"), eq(todoItem)))
                 .thenThrow(new RuntimeException("Failed"));
@@ -219,7 +209,7 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .post(entity);
         verifyErrorResponse(response, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), "Failed");
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
+        Mockito.verifyNoInteractions(todoListService);
         Mockito.verify(todoItemService, Mockito.times(1)).create(eq(principal), eq("list-id"), eq(todoItem));
     }
 
@@ -240,8 +230,6 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
     @Test
     public void testHtml() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("<h1>Item & Task</h1>").setDone(false);
         Mockito.when(todoItemService.create(eq(principal), eq("list-id"), any())).thenReturn(true);
 
@@ -257,7 +245,7 @@ public class PostTodoItemResourceIT extends BaseResourceIT {
         TodoItem result = response.readEntity(TodoItem.class);
         Assertions.assertEquals("&lt;h1&gt;Item &amp; Task&lt;/h1&gt;", result.getTask());
         verifyCorsHeaders(response);
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
+        Mockito.verifyNoInteractions(todoListService);
         Mockito.verify(todoItemService, Mockito.times(1)).create(eq(principal), eq("list-id"), any());
     }
 
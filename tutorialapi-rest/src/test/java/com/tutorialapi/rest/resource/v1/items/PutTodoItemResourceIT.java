@@ -2,10 +2,12 @@ package com.tutorialapi.rest.resource.v1.items;
 
 import com.google.common.base.Strings;
 import com.tutorialapi.db.ServiceFactory;
+import com.tutorialapi.db.exception.PreconditionFailedException;
+import com.tutorialapi.db.exception.TodoListNotFoundException;
 import com.tutorialapi.db.service.TodoItemService;
 import com.tutorialapi.db.service.TodoListService;
+import com.tutorialapi.db.service.Versioned;
 import com.tutorialapi.model.TodoItem;
-import com.tutorialapi.model.TodoList;
 import com.tutorialapi.model.config.ConfigKey;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.model.user.Subscription;
@@ -17,6 +19,7 @@ import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import jakarta.ws.rs.client.Entity;
 import jakarta.ws.rs.core.Application;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.Assertions;
@@ -28,6 +31,7 @@ import java.util.Properties;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 public class PutTodoItemResourceIT extends BaseResourceIT {
     private TodoListService todoListService;
@@ -55,7 +59,7 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
         Response response = target("/v1/lists/list-id/items/item-id").request().put(entity);
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing security header: X-RapidAPI-Proxy-Secret");
-        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any(), any());
     }
 
     @Test
@@ -67,7 +71,7 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .put(entity);
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing security header: X-RapidAPI-User");
-        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any(), any());
     }
 
     @Test
@@ -80,7 +84,7 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .put(entity);
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing or invalid security header: X-RapidAPI-Subscription");
-        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any(), any());
     }
 
     @Test
@@ -94,14 +98,15 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .put(entity);
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing or invalid security header: X-RapidAPI-Subscription");
-        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any(), any());
     }
 
     @Test
     public void testTodoListNotFound() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.empty());
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
+        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem), isNull()))
+                .thenThrow(new TodoListNotFoundException("list-id"));
         Entity<TodoItem> entity = Entity.entity(todoItem, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id/items/item-id").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -109,17 +114,16 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .put(entity);
         verifyErrorResponse(response, Response.Status.NOT_FOUND.getStatusCode(), "List with id list-id not found");
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
-        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any());
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(todoItem), isNull());
     }
 
     @Test
     public void testTodoItemUpdateFalse() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
-        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem))).thenReturn(false);
+        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem), isNull()))
+                .thenReturn(Optional.empty());
 
         Entity<TodoItem> entity = Entity.entity(todoItem, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id/items/item-id").request()
@@ -129,17 +133,16 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .put(entity);
         verifyErrorResponse(response, Response.Status.NOT_FOUND.getStatusCode(),
                 "Item with id item-id not found in list with id list-id");
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
-        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(todoItem));
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(todoItem), isNull());
     }
 
     @Test
     public void testTodoItemUpdateTrue() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
-        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem))).thenReturn(true);
+        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem), isNull()))
+                .thenReturn(Optional.of(new Versioned<>(todoItem, 6L)));
 
         Entity<TodoItem> entity = Entity.entity(todoItem, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id/items/item-id").request()
@@ -151,17 +154,17 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
         Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
         Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
         Assertions.assertEquals(todoItem, response.readEntity(TodoItem.class));
+        Assertions.assertEquals("\"6\"", response.getHeaderString(HttpHeaders.ETAG));
         verifyCorsHeaders(response);
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
-        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(todoItem));
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(todoItem), isNull());
     }
 
     @Test
     public void testTodoItemNoId() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
-        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), any())).thenReturn(true);
+        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), any(), isNull()))
+                .thenAnswer(invocation -> Optional.of(new Versioned<TodoItem>(invocation.getArgument(2), 6L)));
 
         TodoItem todoItem = new TodoItem().setTask("Item Task").setDone(false);
         Entity<TodoItem> entity = Entity.entity(todoItem, MediaType.APPLICATION_JSON_TYPE);
@@ -177,17 +180,15 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
         todoItem.setId("item-id");
         Assertions.assertEquals(todoItem, result);
         verifyCorsHeaders(response);
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
-        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(result));
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(result), isNull());
     }
 
     @Test
     public void testServiceException() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
-        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem)))
+        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem), isNull()))
                 .thenThrow(new RuntimeException("Failed"));
 
         Entity<TodoItem> entity = Entity.entity(todoItem, MediaType.APPLICATION_JSON_TYPE);
@@ -197,8 +198,8 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .put(entity);
         verifyErrorResponse(response, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), "Failed");
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
-        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(todoItem));
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), eq(todoItem), isNull());
     }
 
     @Test
@@ -212,16 +213,15 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .put(entity);
         verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(),
                 "Todo item task must have at least 1 and no more than 200 characters");
-        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any(), any());
     }
 
     @Test
     public void testHtml() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        TodoList todoList = new TodoList().setId("list-id").setName("List Name");
-        Mockito.when(todoListService.get(eq(principal), eq("list-id"))).thenReturn(Optional.of(todoList));
         TodoItem todoItem = new TodoItem().setId("item-id").setTask("<h1>Item & Task</h1>").setDone(false);
-        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), any())).thenReturn(true);
+        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), any(), isNull()))
+                .thenAnswer(invocation -> Optional.of(new Versioned<TodoItem>(invocation.getArgument(2), 6L)));
 
         Entity<TodoItem> entity = Entity.entity(todoItem, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id/items/item-id").request()
@@ -235,8 +235,8 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
         TodoItem result = response.readEntity(TodoItem.class);
         Assertions.assertEquals("&lt;h1&gt;Item &amp; Task&lt;/h1&gt;", result.getTask());
         verifyCorsHeaders(response);
-        Mockito.verify(todoListService, Mockito.times(1)).get(eq(principal), eq("list-id"));
-        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), any());
+        Mockito.verifyNoInteractions(todoListService);
+        Mockito.verify(todoItemService, Mockito.times(1)).update(eq(principal), eq("list-id"), any(), isNull());
     }
 
     @Test
@@ -249,7 +249,7 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .put(entity);
         verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(), "Todo item task cannot be empty");
-        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any(), any());
     }
 
     @Test
@@ -263,6 +263,60 @@ public class PutTodoItemResourceIT extends BaseResourceIT {
                 .put(entity);
         verifyErrorResponse(response, Response.Status.BAD_REQUEST.getStatusCode(),
                 "Todo item task cannot be empty; Todo item task must have at least 1 and no more than 200 characters");
-        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any());
+        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testIfMatchFailed() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
+        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem), eq(4L)))
+                .thenThrow(new PreconditionFailedException("list-id"));
+
+        Response response = target("/v1/lists/list-id/items/item-id").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .put(Entity.entity(new TodoItem().setTask("Item Task"), MediaType.APPLICATION_JSON_TYPE));
+
+        verifyErrorResponse(response, Response.Status.PRECONDITION_FAILED.getStatusCode(),
+                "List with id list-id does not match the precondition");
+        Mockito.verifyNoInteractions(todoListService);
+    }
+
+    @Test
+    public void testIfMatchNotIssuedTag() {
+        Response response = target("/v1/lists/list-id/items/item-id").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_MATCH, "\"abc\"")
+                .put(Entity.entity(new TodoItem().setTask("Item Task"), MediaType.APPLICATION_JSON_TYPE));
+
+        verifyErrorResponse(response, Response.Status.PRECONDITION_FAILED.getStatusCode(),
+                "List with id list-id does not match the precondition");
+        Mockito.verify(todoItemService, Mockito.times(0)).update(any(), any(), any(), any());
+    }
+
+    @Test
+    public void testIfMatchSucceeded() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        TodoItem todoItem = new TodoItem().setId("item-id").setTask("Item Task").setDone(false);
+        Mockito.when(todoItemService.update(eq(principal), eq("list-id"), eq(todoItem), eq(5L)))
+                .thenReturn(Optional.of(new Versioned<>(todoItem, 6L)));
+
+        Response response = target("/v1/lists/list-id/items/item-id").request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .put(Entity.entity(new TodoItem().setTask("Item Task"), MediaType.APPLICATION_JSON_TYPE));
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assertions.assertEquals(todoItem, response.readEntity(TodoItem.class));
+        // The tag comes from the version the update drew, without reading it back
+        Assertions.assertEquals("\"6\"", response.getHeaderString(HttpHeaders.ETAG));
+        Mockito.verifyNoInteractions(todoListService);
     }
 }
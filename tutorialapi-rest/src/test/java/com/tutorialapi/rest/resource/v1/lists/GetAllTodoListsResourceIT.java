@@ -8,6 +8,7 @@ import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.model.user.Subscription;
 import com.tutorialapi.rest.ApiApplication;
 import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.paging.Page;
 import com.tutorialapi.rest.resource.v1.BaseResourceIT;
 import com.tutorialapi.rest.security.SecurityHeader;
 import com.typesafe.config.Config;
@@ -21,12 +22,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 public class GetAllTodoListsResourceIT extends BaseResourceIT {
     private TodoListService todoListService;
@@ -49,7 +52,7 @@ public class GetAllTodoListsResourceIT extends BaseResourceIT {
         Response response = target("/v1/lists").request().get();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing security header: X-RapidAPI-Proxy-Secret");
-        Mockito.verify(todoListService, Mockito.times(0)).getAll(any());
+        Mockito.verify(todoListService, Mockito.times(0)).stream(any());
     }
 
     @Test
@@ -59,7 +62,7 @@ public class GetAllTodoListsResourceIT extends BaseResourceIT {
                 .get();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing security header: X-RapidAPI-User");
-        Mockito.verify(todoListService, Mockito.times(0)).getAll(any());
+        Mockito.verify(todoListService, Mockito.times(0)).stream(any());
     }
 
     @Test
@@ -70,7 +73,7 @@ public class GetAllTodoListsResourceIT extends BaseResourceIT {
                 .get();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing or invalid security header: X-RapidAPI-Subscription");
-        Mockito.verify(todoListService, Mockito.times(0)).getAll(any());
+        Mockito.verify(todoListService, Mockito.times(0)).stream(any());
     }
 
     @Test
@@ -82,13 +85,13 @@ public class GetAllTodoListsResourceIT extends BaseResourceIT {
                 .get();
         verifyErrorResponse(response, Response.Status.UNAUTHORIZED.getStatusCode(),
                 "Missing or invalid security header: X-RapidAPI-Subscription");
-        Mockito.verify(todoListService, Mockito.times(0)).getAll(any());
+        Mockito.verify(todoListService, Mockito.times(0)).stream(any());
     }
 
     @Test
     public void testNoTodoLists() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.getAll(eq(principal))).thenReturn(Collections.emptyList());
+        Mockito.when(todoListService.stream(eq(principal))).thenReturn(Stream.empty());
 
         Response response = target("/v1/lists").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -101,7 +104,7 @@ public class GetAllTodoListsResourceIT extends BaseResourceIT {
         List<TodoList> results = response.readEntity(new GenericType<>() {});
         Assertions.assertTrue(results.isEmpty());
         verifyCorsHeaders(response);
-        Mockito.verify(todoListService, Mockito.times(1)).getAll(eq(principal));
+        Mockito.verify(todoListService, Mockito.times(1)).stream(eq(principal));
     }
 
     @Test
@@ -111,7 +114,8 @@ public class GetAllTodoListsResourceIT extends BaseResourceIT {
                 new TodoList().setId("2").setName("List 2")
         );
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.getAll(eq(principal))).thenReturn(lists);
+        AtomicBoolean closed = new AtomicBoolean();
+        Mockito.when(todoListService.stream(eq(principal))).thenReturn(lists.stream().onClose(() -> closed.set(true)));
 
         Response response = target("/v1/lists").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -123,14 +127,39 @@ public class GetAllTodoListsResourceIT extends BaseResourceIT {
         Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
         List<TodoList> results = response.readEntity(new GenericType<>() {});
         Assertions.assertEquals(lists, results);
+        Assertions.assertTrue(closed.get());
         verifyCorsHeaders(response);
-        Mockito.verify(todoListService, Mockito.times(1)).getAll(eq(principal));
+        Mockito.verify(todoListService, Mockito.times(1)).stream(eq(principal));
+    }
+
+    @Test
+    public void testPagedTodoLists() {
+        TodoList list1 = new TodoList().setId("1").setName("List 1");
+        TodoList list2 = new TodoList().setId("2").setName("List 2");
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        Mockito.when(todoListService.getAll(eq(principal), isNull(), eq(2))).thenReturn(Arrays.asList(list1, list2));
+
+        Response response = target("/v1/lists").queryParam("limit", 1).request()
+                .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
+                .header(SecurityHeader.RAPID_API_USER.getHeader(), "user")
+                .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
+                .get();
+
+        Assertions.assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        Assertions.assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+        List<TodoList> results = response.readEntity(new GenericType<>() {});
+        Assertions.assertEquals(List.of(list1), results);
+        Assertions.assertEquals(new Page.Cursor("1", false, "List 1"),
+                Page.decodeCursor(response.getHeaderString(Page.NEXT_CURSOR_HEADER)));
+        verifyCorsHeaders(response);
+        Mockito.verify(todoListService, Mockito.times(0)).stream(any());
+        Mockito.verify(todoListService, Mockito.times(1)).getAll(eq(principal), isNull(), eq(2));
     }
 
     @Test
     public void testServiceException() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.getAll(eq(principal))).thenThrow(new RuntimeException("Failed"));
+        Mockito.when(todoListService.stream(eq(principal))).thenThrow(new RuntimeException("Failed"));
 
         Response response = target("/v1/lists").request()
                 .header(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), "proxy-secret")
@@ -138,6 +167,6 @@ public class GetAllTodoListsResourceIT extends BaseResourceIT {
                 .header(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), Subscription.BASIC.name())
                 .get();
         verifyErrorResponse(response, Response.Status.INTERNAL_SERVER_ERROR.getStatusCode(), "Failed");
-        Mockito.verify(todoListService, Mockito.times(1)).getAll(eq(principal));
+        Mockito.verify(todoListService, Mockito.times(1)).stream(eq(principal));
     }
 }
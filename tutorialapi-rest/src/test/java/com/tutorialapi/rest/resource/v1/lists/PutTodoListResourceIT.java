@@ -21,6 +21,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.util.Optional;
 import java.util.Properties;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -95,7 +96,7 @@ public class PutTodoListResourceIT extends BaseResourceIT {
     public void testMissingTodoList() {
         TodoList todoList = new TodoList().setId("list-id").setName("List Name");
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.update(eq(principal), eq(todoList))).thenReturn(false);
+        Mockito.when(todoListService.update(eq(principal), eq(todoList))).thenReturn(Optional.empty());
 
         Entity<TodoList> entity = Entity.entity(todoList, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id").request()
@@ -112,7 +113,7 @@ public class PutTodoListResourceIT extends BaseResourceIT {
         TodoList wrong = new TodoList().setId("wrong-id").setName("List Name");
         TodoList correct = new TodoList().setId("list-id").setName("List Name");
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.update(eq(principal), eq(correct))).thenReturn(true);
+        Mockito.when(todoListService.update(eq(principal), eq(correct))).thenReturn(Optional.of(correct));
 
         Entity<TodoList> entity = Entity.entity(wrong, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id").request()
@@ -132,7 +133,7 @@ public class PutTodoListResourceIT extends BaseResourceIT {
     public void testTodoListExists() {
         TodoList todoList = new TodoList().setId("list-id").setName("List Name");
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.update(eq(principal), eq(todoList))).thenReturn(true);
+        Mockito.when(todoListService.update(eq(principal), eq(todoList))).thenReturn(Optional.of(todoList));
 
         Entity<TodoList> entity = Entity.entity(todoList, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id").request()
@@ -182,7 +183,8 @@ public class PutTodoListResourceIT extends BaseResourceIT {
     public void testHtml() {
         TodoList todoList = new TodoList().setId("list-id").setName("<h1>List & Name</h1>");
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        Mockito.when(todoListService.update(eq(principal), any())).thenReturn(true);
+        Mockito.when(todoListService.update(eq(principal), any()))
+                .thenAnswer(invocation -> Optional.of(invocation.getArgument(1)));
 
         Entity<TodoList> entity = Entity.entity(todoList, MediaType.APPLICATION_JSON_TYPE);
         Response response = target("/v1/lists/list-id").request()
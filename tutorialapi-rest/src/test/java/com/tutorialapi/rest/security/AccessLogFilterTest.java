@@ -1,54 +1,189 @@
 package com.tutorialapi.rest.security;
 
+import com.tutorialapi.db.service.timing.DatabaseTimer;
 import com.tutorialapi.model.user.RapidApiPrincipal;
 import com.tutorialapi.model.user.Subscription;
+import com.tutorialapi.rest.log.AccessLogEntry;
+import com.tutorialapi.rest.log.AccessLogEntryPool;
+import com.tutorialapi.rest.log.AccessLogRingBuffer;
 import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static java.util.Optional.ofNullable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 
 public class AccessLogFilterTest {
-    private String test(RapidApiPrincipal principal, String method, String path) {
-        List<String> logList = new ArrayList<>();
-        AccessLogFilter accessLogFilter = new AccessLogFilter(logList::add);
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2021-12-01T10:15:30Z"), ZoneOffset.UTC);
 
-        RapidApiSecurityContext securityContext = ofNullable(principal).map(RapidApiSecurityContext::new).orElse(null);
+    private final AccessLogRingBuffer ringBuffer = new AccessLogRingBuffer(4);
+    private final AtomicLong nanoTime = new AtomicLong(TimeUnit.MILLISECONDS.toNanos(100));
+    private final AccessLogEntryPool entryPool = new AccessLogEntryPool(1);
+    private final AccessLogFilter accessLogFilter = new AccessLogFilter(ringBuffer, entryPool, CLOCK, nanoTime::get);
+    private final Map<String, Object> properties = new HashMap<>();
+    private final MultivaluedMap<String, Object> responseHeaders = new MultivaluedHashMap<>();
+
+    private ContainerRequestContext createRequest(RapidApiPrincipal principal, String method, String path,
+                                                  String requestId) {
+        RapidApiSecurityContext securityContext = principal == null ? null
+                : new RapidApiSecurityContext(principal, true);
         UriInfo uriInfo = Mockito.mock(UriInfo.class);
-        Mockito.when(uriInfo.getAbsolutePath()).thenReturn(URI.create("https://localhost" + path));
+        Mockito.when(uriInfo.getRequestUri()).thenReturn(URI.create("https://localhost" + path + "?query=1"));
         ContainerRequestContext containerRequestContext = Mockito.mock(ContainerRequestContext.class);
         Mockito.when(containerRequestContext.getSecurityContext()).thenReturn(securityContext);
         Mockito.when(containerRequestContext.getMethod()).thenReturn(method);
         Mockito.when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
+        Mockito.when(containerRequestContext.getHeaderString(AccessLogFilter.REQUEST_ID_HEADER)).thenReturn(requestId);
+        Mockito.doAnswer(invocation -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(containerRequestContext).setProperty(anyString(), any());
+        Mockito.when(containerRequestContext.getProperty(anyString()))
+                .thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+        Mockito.doAnswer(invocation -> properties.remove(invocation.<String>getArgument(0)))
+                .when(containerRequestContext).removeProperty(anyString());
+        return containerRequestContext;
+    }
+
+    private ContainerResponseContext createResponse(int status, boolean hasEntity) {
+        ContainerResponseContext containerResponseContext = Mockito.mock(ContainerResponseContext.class);
+        Mockito.when(containerResponseContext.getStatus()).thenReturn(status);
+        Mockito.when(containerResponseContext.hasEntity()).thenReturn(hasEntity);
+        Mockito.when(containerResponseContext.getHeaders()).thenReturn(responseHeaders);
+        return containerResponseContext;
+    }
+
+    private void write(String entity) throws Exception {
+        AtomicReference<OutputStream> outputStream = new AtomicReference<>(new ByteArrayOutputStream());
+        WriterInterceptorContext writerInterceptorContext = Mockito.mock(WriterInterceptorContext.class);
+        Mockito.when(writerInterceptorContext.getProperty(anyString()))
+                .thenAnswer(invocation -> properties.get(invocation.<String>getArgument(0)));
+        Mockito.doAnswer(invocation -> properties.remove(invocation.<String>getArgument(0)))
+                .when(writerInterceptorContext).removeProperty(anyString());
+        Mockito.when(writerInterceptorContext.getOutputStream()).thenAnswer(invocation -> outputStream.get());
+        Mockito.doAnswer(invocation -> {
+            outputStream.set(invocation.getArgument(0));
+            return null;
+        }).when(writerInterceptorContext).setOutputStream(any());
+        Mockito.doAnswer(invocation -> {
+            nanoTime.addAndGet(TimeUnit.MICROSECONDS.toNanos(500));
+            DatabaseTimer.add(TimeUnit.MICROSECONDS.toNanos(200));
+            outputStream.get().write(entity.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(writerInterceptorContext).proceed();
+        accessLogFilter.aroundWriteTo(writerInterceptorContext);
+    }
+
+    private String test(RapidApiPrincipal principal, String method, String path, String requestId, int status,
+                        String entity) throws Exception {
+        ContainerRequestContext containerRequestContext = createRequest(principal, method, path, requestId);
         accessLogFilter.filter(containerRequestContext);
+        nanoTime.addAndGet(TimeUnit.MICROSECONDS.toNanos(2500));
+        accessLogFilter.filter(containerRequestContext, createResponse(status, entity != null));
+        if (entity != null) {
+            write(entity);
+        }
 
-        Assertions.assertEquals(1, logList.size());
-        return logList.get(0);
+        StringBuilder builder = new StringBuilder();
+        Assertions.assertEquals(1, ringBuffer.drain(builder, Integer.MAX_VALUE));
+        Assertions.assertTrue(properties.isEmpty());
+        return builder.toString();
     }
 
     @Test
-    public void testFilterNoUser() {
-        String log = test(null, "GET", "/test");
-        Assertions.assertEquals("? => GET /test", log);
+    public void testFilterNoUser() throws Exception {
+        String log = test(null, "GET", "/test", "request-id", 401, null);
+        Assertions.assertEquals("{\"time\":\"2021-12-01T10:15:30Z\",\"requestId\":\"request-id\",\"user\":\"?\","
+                + "\"subscription\":null,\"method\":\"GET\",\"path\":\"/test\",\"status\":401,\"bytes\":0,"
+                + "\"latencyMicros\":2500,\"databaseMicros\":0}", log);
+        Assertions.assertEquals("request-id", responseHeaders.getFirst(AccessLogFilter.REQUEST_ID_HEADER));
     }
 
     @Test
-    public void testFilterWithUser() {
+    public void testFilterWithUser() throws Exception {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
 
-        String log = test(principal, "GET", "/test");
-        Assertions.assertEquals("user => GET /test", log);
+        String log = test(principal, "GET", "/test", "request-id", 204, null);
+        Assertions.assertEquals("{\"time\":\"2021-12-01T10:15:30Z\",\"requestId\":\"request-id\",\"user\":\"user\","
+                + "\"subscription\":\"BASIC\",\"method\":\"GET\",\"path\":\"/test\",\"status\":204,\"bytes\":0,"
+                + "\"latencyMicros\":2500,\"databaseMicros\":0}", log);
+    }
+
+    @Test
+    public void testFilterWithEntity() throws Exception {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.PRO);
+
+        String log = test(principal, "POST", "/test/id", "request-id", 201, "{\"id\":\"id\"}");
+        Assertions.assertEquals("{\"time\":\"2021-12-01T10:15:30Z\",\"requestId\":\"request-id\",\"user\":\"user\","
+                + "\"subscription\":\"PRO\",\"method\":\"POST\",\"path\":\"/test/id\",\"status\":201,\"bytes\":11,"
+                + "\"latencyMicros\":3000,\"databaseMicros\":200}", log);
+    }
+
+    @Test
+    public void testFilterEscapesPath() throws Exception {
+        String log = test(null, "GET", "/test/%22quoted%22", "request-id", 404, null);
+        Assertions.assertTrue(log.contains("\"path\":\"/test/\\\"quoted\\\"\""), log);
     }
 
     @Test
-    public void testFilterPost() {
-        String log = test(null, "POST", "/test/id");
-        Assertions.assertEquals("? => POST /test/id", log);
+    public void testFilterGeneratesRequestId() throws Exception {
+        test(null, "GET", "/test", null, 200, null);
+        String requestId = (String) responseHeaders.getFirst(AccessLogFilter.REQUEST_ID_HEADER);
+        Assertions.assertTrue(requestId.matches("[0-9a-f]+"), requestId);
+    }
+
+    @Test
+    public void testFilterReplacesInvalidRequestId() throws Exception {
+        String log = test(null, "GET", "/test", "bad\"id", 200, null);
+        String requestId = (String) responseHeaders.getFirst(AccessLogFilter.REQUEST_ID_HEADER);
+        Assertions.assertNotEquals("bad\"id", requestId);
+        Assertions.assertTrue(log.contains("\"requestId\":\"" + requestId + "\""), log);
+    }
+
+    @Test
+    public void testFilterRingBufferFull() throws Exception {
+        for (int i = 0; i < ringBuffer.getCapacity(); i++) {
+            ringBuffer.publish(ringBuffer.claim());
+        }
+        ContainerRequestContext containerRequestContext = createRequest(null, "GET", "/test", null);
+        accessLogFilter.filter(containerRequestContext);
+        accessLogFilter.filter(containerRequestContext, createResponse(200, false));
+
+        Assertions.assertEquals(1, ringBuffer.getAndResetDropped());
+        Assertions.assertTrue(properties.isEmpty());
+    }
+
+    @Test
+    public void testFilterReusesPooledEntry() throws Exception {
+        AccessLogEntry entry = entryPool.acquire();
+        entryPool.release(entry);
+
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.PRO);
+        test(principal, "POST", "/test/id", "request-id", 201, "{\"id\":\"id\"}");
+        Assertions.assertSame(entry, entryPool.acquire());
+        entryPool.release(entry);
+
+        // Nothing from the previous request may carry over into the next one using the same entry
+        String log = test(null, "GET", "/test", "request-id", 204, null);
+        Assertions.assertEquals("{\"time\":\"2021-12-01T10:15:30Z\",\"requestId\":\"request-id\",\"user\":\"?\","
+                + "\"subscription\":null,\"method\":\"GET\",\"path\":\"/test\",\"status\":204,\"bytes\":0,"
+                + "\"latencyMicros\":2500,\"databaseMicros\":0}", log);
     }
 }
@@ -16,11 +16,13 @@ public class CorsFilterTest {
 
         new CorsFilter().filter(null, containerResponseContext);
 
-        Assertions.assertEquals(2, headerMap.size());
+        Assertions.assertEquals(3, headerMap.size());
         Assertions.assertTrue(headerMap.containsKey("Access-Control-Allow-Origin"));
         Assertions.assertTrue(headerMap.containsKey("Access-Control-Allow-Methods"));
         Assertions.assertEquals("[*]", headerMap.get("Access-Control-Allow-Origin").toString());
         Assertions.assertEquals("[DELETE, HEAD, GET, OPTIONS, PATCH, POST, PUT]",
                 headerMap.get("Access-Control-Allow-Methods").toString());
+        Assertions.assertEquals("[X-Next-Cursor, ETag, X-Request-Id]",
+                headerMap.get("Access-Control-Expose-Headers").toString());
     }
 }
@@ -9,11 +9,20 @@ public class RapidApiSecurityContextTest {
     @Test
     public void testConstructor() {
         RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
-        RapidApiSecurityContext securityContext = new RapidApiSecurityContext(principal);
+        RapidApiSecurityContext securityContext = new RapidApiSecurityContext(principal, true);
 
         Assertions.assertEquals(principal, securityContext.getUserPrincipal());
         Assertions.assertTrue(securityContext.isUserInRole("BASIC"));
         Assertions.assertTrue(securityContext.isSecure());
         Assertions.assertEquals("RapidAPI", securityContext.getAuthenticationScheme());
     }
+
+    @Test
+    public void testInsecure() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+        RapidApiSecurityContext securityContext = new RapidApiSecurityContext(principal, false);
+
+        Assertions.assertFalse(securityContext.isSecure());
+        Assertions.assertNotEquals(new RapidApiSecurityContext(principal, true), securityContext);
+    }
 }
@@ -135,7 +135,35 @@ public class SecurityFilterTest {
 
         new SecurityFilter(() -> new Environment(config, serviceFactory)).filter(containerRequestContext);
 
-        RapidApiSecurityContext securityContext = new RapidApiSecurityContext(principal);
+        RapidApiSecurityContext securityContext = new RapidApiSecurityContext(principal, true);
+        Mockito.verify(containerRequestContext, Mockito.times(1)).setSecurityContext(ArgumentMatchers.eq(securityContext));
+    }
+
+    @Test
+    public void testFilterSuccessfulInsecure() {
+        RapidApiPrincipal principal = new RapidApiPrincipal("proxy-secret", "user", Subscription.BASIC);
+
+        UriInfo uriInfo = Mockito.mock(UriInfo.class);
+        Mockito.when(uriInfo.getRequestUri()).thenReturn(URI.create("http://tutorialapi.com/api/lists"));
+
+        MultivaluedMap<String, String> headers = new MultivaluedHashMap<>();
+        headers.putSingle(SecurityHeader.RAPID_API_PROXY_SECRET.getHeader(), principal.getProxySecret());
+        headers.putSingle(SecurityHeader.RAPID_API_USER.getHeader(), principal.getUser());
+        headers.putSingle(SecurityHeader.RAPID_API_SUBSCRIPTION.getHeader(), principal.getSubscription().name());
+
+        ContainerRequestContext containerRequestContext = Mockito.mock(ContainerRequestContext.class);
+        Mockito.when(containerRequestContext.getUriInfo()).thenReturn(uriInfo);
+        Mockito.when(containerRequestContext.getHeaders()).thenReturn(headers);
+
+        Properties configProperties = new Properties();
+        configProperties.setProperty(ConfigKey.RAPIDAPI_PROXY_SECRET.getKey(), "proxy-secret");
+        Config config = ConfigFactory.parseProperties(configProperties);
+
+        ServiceFactory serviceFactory = Mockito.mock(ServiceFactory.class);
+
+        new SecurityFilter(() -> new Environment(config, serviceFactory)).filter(containerRequestContext);
+
+        RapidApiSecurityContext securityContext = new RapidApiSecurityContext(principal, false);
         Mockito.verify(containerRequestContext, Mockito.times(1)).setSecurityContext(ArgumentMatchers.eq(securityContext));
     }
 
@@ -178,7 +206,7 @@ public class SecurityFilterTest {
 
         testApiKey(apiKeyService, requestContext -> {
             RapidApiPrincipal principal = new RapidApiPrincipal("key", "user", Subscription.BASIC);
-            RapidApiSecurityContext securityContext = new RapidApiSecurityContext(principal);
+            RapidApiSecurityContext securityContext = new RapidApiSecurityContext(principal, true);
             Mockito.verify(requestContext, Mockito.times(1)).setSecurityContext(ArgumentMatchers.eq(securityContext));
         });
     }
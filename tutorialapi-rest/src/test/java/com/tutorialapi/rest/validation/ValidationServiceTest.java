@@ -0,0 +1,32 @@
+package com.tutorialapi.rest.validation;
+
+import com.tutorialapi.model.TodoItem;
+import com.tutorialapi.model.TodoList;
+import jakarta.ws.rs.BadRequestException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ValidationServiceTest {
+    private final ValidationService validationService = new ValidationService(TodoItem.class, TodoList.class);
+
+    @Test
+    public void testValid() {
+        validationService.validate(new TodoItem().setId("id").setTask("task"));
+        validationService.validate(new TodoList().setId("id").setName("name"));
+    }
+
+    @Test
+    public void testInvalid() {
+        BadRequestException badRequest = Assertions.assertThrows(BadRequestException.class,
+                () -> validationService.validate(new TodoItem()));
+        Assertions.assertEquals("Todo item id cannot be empty; Todo item task cannot be empty",
+                badRequest.getMessage());
+    }
+
+    @Test
+    public void testTypeNotPrecomputed() {
+        BadRequestException badRequest = Assertions.assertThrows(BadRequestException.class,
+                () -> new ValidationService().validate(new TodoList().setId("id")));
+        Assertions.assertEquals("Todo list name cannot be empty", badRequest.getMessage());
+    }
+}
@@ -4,44 +4,180 @@ import com.tutorialapi.model.config.ConfigKey;
 import com.tutorialapi.model.config.SystemKey;
 import com.tutorialapi.rest.ApiApplication;
 import com.tutorialapi.rest.Environment;
+import com.tutorialapi.rest.config.ConfigSource;
+import com.tutorialapi.server.content.StaticContentCompressor;
+import com.tutorialapi.server.handler.LoadSheddingHandler;
+import com.tutorialapi.server.task.KeyStoreReloadTask;
 import com.tutorialapi.server.task.MemoryLoggingTask;
 import com.typesafe.config.Config;
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpScheme;
-import org.eclipse.jetty.http.HttpVersion;
+import org.eclipse.jetty.http2.HTTP2Cipher;
+import org.eclipse.jetty.http2.server.AbstractHTTP2ServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
 import org.eclipse.jetty.server.*;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
 import org.eclipse.jetty.servlet.DefaultServlet;
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.eclipse.jetty.servlet.ServletHolder;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.compression.DeflaterPool;
 import org.eclipse.jetty.util.resource.Resource;
+import org.eclipse.jetty.util.resource.ResourceCollection;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.glassfish.jersey.servlet.ServletContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.security.Security;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class TutorialApiServer {
     private static final Logger LOGGER = LoggerFactory.getLogger(TutorialApiServer.class);
 
     private static final String ROOT_CONTEXT = "/";
     private static final String API_PATTERN = "/api/*";
+    private static final int DEFLATER_POOL_CAPACITY = 1024;
+    private static final int QUEUE_INITIAL_CAPACITY = 128;
+    private static final String VIRTUAL_THREAD_PARALLELISM = "jdk.virtualThreadScheduler.parallelism";
 
-    private static Server createJettyServer(int port, Supplier<Environment> environmentSupplier) throws IOException {
-        HttpConfiguration httpsConfiguration = new HttpConfiguration();
-        httpsConfiguration.setSecureScheme(HttpScheme.HTTPS.asString());
-        httpsConfiguration.setSecurePort(port);
-        httpsConfiguration.addCustomizer(new SecureRequestCustomizer());
-        httpsConfiguration.setSendServerVersion(false);
-        httpsConfiguration.setSendDateHeader(false);
+    private static List<String> getList(Config config, ConfigKey configKey) {
+        return Stream.of(config.getString(configKey.getKey()).split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toList());
+    }
 
-        HttpConnectionFactory httpsConnectionFactory = new HttpConnectionFactory(httpsConfiguration);
+    private static Set<String> getMimeTypes(Config config) {
+        return new HashSet<>(getList(config, ConfigKey.SERVER_GZIP_MIME_TYPES));
+    }
 
-        Config config = environmentSupplier.get().getConfig();
+    private static GzipHandler createGzipHandler(Config config, Handler handler) {
+        GzipHandler gzipHandler = new GzipHandler();
+        gzipHandler.setMinGzipSize(config.getInt(ConfigKey.SERVER_GZIP_MIN_SIZE.getKey()));
+        gzipHandler.setIncludedMimeTypes(getMimeTypes(config).toArray(String[]::new));
+        gzipHandler.setIncludedMethods(HttpMethod.GET.asString(), HttpMethod.POST.asString(),
+                HttpMethod.PUT.asString(), HttpMethod.DELETE.asString());
+        gzipHandler.setDeflaterPool(new DeflaterPool(DEFLATER_POOL_CAPACITY,
+                config.getInt(ConfigKey.SERVER_GZIP_COMPRESSION_LEVEL.getKey()), true));
+        // Request bodies sent with Content-Encoding: gzip are inflated before they reach the servlets
+        gzipHandler.setInflateBufferSize(config.getInt(ConfigKey.SERVER_GZIP_INFLATE_BUFFER_SIZE.getKey()));
+        gzipHandler.setHandler(handler);
+        return gzipHandler;
+    }
+
+    private static <T extends AbstractHTTP2ServerConnectionFactory> T configureHttp2(Config config,
+                                                                                     T http2ConnectionFactory) {
+        http2ConnectionFactory.setMaxConcurrentStreams(
+                config.getInt(ConfigKey.SERVER_HTTP2_MAX_CONCURRENT_STREAMS.getKey()));
+        http2ConnectionFactory.setInitialStreamRecvWindow(
+                config.getInt(ConfigKey.SERVER_HTTP2_INITIAL_STREAM_WINDOW.getKey()));
+        http2ConnectionFactory.setInitialSessionRecvWindow(
+                config.getInt(ConfigKey.SERVER_HTTP2_INITIAL_SESSION_WINDOW.getKey()));
+        http2ConnectionFactory.setStreamIdleTimeout(
+                config.getLong(ConfigKey.SERVER_HTTP2_STREAM_IDLE_TIMEOUT.getKey()));
+        return http2ConnectionFactory;
+    }
+
+    private static HttpConfiguration createHttpConfiguration(Config config) {
+        HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setSendServerVersion(false);
+        httpConfiguration.setSendDateHeader(false);
+        httpConfiguration.setOutputBufferSize(config.getInt(ConfigKey.SERVER_OUTPUT_BUFFER_SIZE.getKey()));
+        return httpConfiguration;
+    }
+
+    private static ServerConnector createConnector(Server server, Config config, int port,
+                                                   ConnectionFactory... connectionFactories) {
+        ServerConnector connector = new ServerConnector(server,
+                config.getInt(ConfigKey.SERVER_CONNECTOR_ACCEPTORS.getKey()),
+                config.getInt(ConfigKey.SERVER_CONNECTOR_SELECTORS.getKey()),
+                connectionFactories);
+        connector.setPort(port);
+        connector.setAcceptQueueSize(config.getInt(ConfigKey.SERVER_CONNECTOR_ACCEPT_QUEUE_SIZE.getKey()));
+        connector.setIdleTimeout(config.getLong(ConfigKey.SERVER_CONNECTOR_IDLE_TIMEOUT.getKey()));
+        return connector;
+    }
+
+    private static ServerConnector createCleartextConnector(Server server, Config config, int port) {
+        HttpConfiguration httpConfiguration = createHttpConfiguration(config);
+        // Only reachable from the trusted network, so the proxy's forwarded headers describe the real client
+        httpConfiguration.addCustomizer(new ForwardedRequestCustomizer());
+
+        // HTTP/1.1 connections can upgrade to h2c, and clients with prior knowledge can start with h2c directly
+        HttpConnectionFactory httpConnectionFactory = new HttpConnectionFactory(httpConfiguration);
+        HTTP2CServerConnectionFactory h2cConnectionFactory =
+                configureHttp2(config, new HTTP2CServerConnectionFactory(httpConfiguration));
+
+        return createConnector(server, config, port, httpConnectionFactory, h2cConnectionFactory);
+    }
+
+    static QueuedThreadPool createThreadPool(Config config) {
+        // Twice the shedding limit, so the queue only fills up if shedding cannot keep up and Jetty starts rejecting
+        int queueSize = config.getInt(ConfigKey.SERVER_THREADS_QUEUE_SIZE.getKey());
+        BlockingQueue<Runnable> queue = new BlockingArrayQueue<>(Math.min(queueSize, QUEUE_INITIAL_CAPACITY),
+                QUEUE_INITIAL_CAPACITY, queueSize * 2);
+        QueuedThreadPool threadPool = new QueuedThreadPool(
+                config.getInt(ConfigKey.SERVER_THREADS_MAX.getKey()),
+                config.getInt(ConfigKey.SERVER_THREADS_MIN.getKey()),
+                config.getInt(ConfigKey.SERVER_THREADS_IDLE_TIMEOUT.getKey()),
+                config.getInt(ConfigKey.SERVER_THREADS_RESERVED.getKey()),
+                queue, null);
+        threadPool.setName("jetty");
+        if (!config.getBoolean(ConfigKey.SERVER_VIRTUAL_THREADS.getKey())) {
+            return threadPool;
+        }
+
+        if (VirtualThreads.areSupported()) {
+            checkVirtualThreadParallelism(config);
+            // Selectors and acceptors stay on platform threads, only blocking request handling moves to virtual threads
+            threadPool.setVirtualThreadsExecutor(VirtualThreads.getDefaultVirtualThreadsExecutor());
+            LOGGER.info("Handling requests on virtual threads");
+        } else {
+            LOGGER.warn("Virtual threads are not supported by Java {}, handling requests on platform threads",
+                    Runtime.version());
+        }
+        return threadPool;
+    }
+
+    private static void checkVirtualThreadParallelism(Config config) {
+        // sqlite-jdbc runs each statement in a synchronized native method, which pins the carrier thread until it
+        // returns. At most one carrier per pooled connection is pinned, so allow that many on top of the default.
+        int recommended = Runtime.getRuntime().availableProcessors()
+                + config.getInt(ConfigKey.DB_POOL_READ_SIZE.getKey())
+                + config.getInt(ConfigKey.DB_POOL_WRITE_SIZE.getKey());
+        // The scheduler reads the property once when it is created, which may already have happened, so it has to
+        // be passed on the command line rather than set here
+        String parallelism = System.getProperty(VIRTUAL_THREAD_PARALLELISM);
+        try {
+            if (parallelism != null && Integer.parseInt(parallelism.trim()) >= recommended) {
+                return;
+            }
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ignoring invalid {} value: {}", VIRTUAL_THREAD_PARALLELISM, parallelism);
+        }
+        LOGGER.warn("Statements pin virtual thread carriers, start the JVM with -D{}={} or higher (currently {})",
+                VIRTUAL_THREAD_PARALLELISM, recommended, parallelism == null ? "unset" : parallelism);
+    }
+
+    static SslContextFactory.Server createSslContextFactory(Config config) {
         SslContextFactory.Server sslContextFactory = new SslContextFactory.Server();
         sslContextFactory.setKeyStorePath(config.getString(ConfigKey.SERVER_KEYSTORE_FILE.getKey()));
         sslContextFactory.setKeyStoreType(config.getString(ConfigKey.SERVER_KEYSTORE_TYPE.getKey()));
@@ -49,22 +185,86 @@ public class TutorialApiServer {
         sslContextFactory.setKeyManagerPassword(config.getString(ConfigKey.SERVER_KEYSTORE_PASSWORD.getKey()));
         sslContextFactory.setTrustAll(true);
 
+        String provider = config.getString(ConfigKey.SERVER_TLS_PROVIDER.getKey());
+        if (!provider.isEmpty()) {
+            if (Security.getProvider(provider) == null) {
+                throw new IllegalArgumentException("Security provider " + provider + " is not registered");
+            }
+            LOGGER.info("Using security provider {} for TLS", provider);
+            sslContextFactory.setProvider(provider);
+        }
+
+        // Only restricts which protocols are enabled, JSSE always negotiates the highest version both sides support
+        sslContextFactory.setIncludeProtocols(getList(config, ConfigKey.SERVER_TLS_PROTOCOLS).toArray(String[]::new));
+        sslContextFactory.setIncludeCipherSuites(getList(config, ConfigKey.SERVER_TLS_CIPHERS).toArray(String[]::new));
+        // HTTP/2 requires TLS 1.2 ciphers that are not on its blacklist to be preferred during the handshake
+        sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
+        sslContextFactory.setUseCipherSuitesOrder(true);
+
+        // Returning clients resume a cached session instead of paying for another full handshake
+        sslContextFactory.setSslSessionCacheSize(config.getInt(ConfigKey.SERVER_TLS_SESSION_CACHE_SIZE.getKey()));
+        sslContextFactory.setSslSessionTimeout(config.getInt(ConfigKey.SERVER_TLS_SESSION_TIMEOUT.getKey()));
+        return sslContextFactory;
+    }
+
+    static Server createJettyServer(int port, int cleartextPort, Supplier<Environment> environmentSupplier)
+            throws IOException {
+        Config config = environmentSupplier.get().getConfig();
+        HttpConfiguration httpsConfiguration = createHttpConfiguration(config);
+        httpsConfiguration.setSecureScheme(HttpScheme.HTTPS.asString());
+        httpsConfiguration.setSecurePort(port);
+        httpsConfiguration.addCustomizer(new SecureRequestCustomizer());
+
+        HttpConnectionFactory httpsConnectionFactory = new HttpConnectionFactory(httpsConfiguration);
+
+        SslContextFactory.Server sslContextFactory = createSslContextFactory(config);
+
+        HTTP2ServerConnectionFactory http2ConnectionFactory =
+                configureHttp2(config, new HTTP2ServerConnectionFactory(httpsConfiguration));
+
+        // Clients that do not negotiate h2 through ALPN fall back to HTTP/1.1
+        ALPNServerConnectionFactory alpnConnectionFactory = new ALPNServerConnectionFactory();
+        alpnConnectionFactory.setDefaultProtocol(httpsConnectionFactory.getProtocol());
+
         SslConnectionFactory sslConnectionFactory =
-                new SslConnectionFactory(sslContextFactory, HttpVersion.HTTP_1_1.asString());
+                new SslConnectionFactory(sslContextFactory, alpnConnectionFactory.getProtocol());
 
-        Server server = new Server();
+        QueuedThreadPool threadPool = createThreadPool(config);
+        Server server = new Server(threadPool);
 
-        ServerConnector httpsConnector = new ServerConnector(server, sslConnectionFactory, httpsConnectionFactory);
-        httpsConnector.setPort(httpsConfiguration.getSecurePort());
+        server.addConnector(createConnector(server, config, port, sslConnectionFactory, alpnConnectionFactory,
+                http2ConnectionFactory, httpsConnectionFactory));
+        if (config.getBoolean(ConfigKey.SERVER_CLEARTEXT_ENABLED.getKey())) {
+            server.addConnector(createCleartextConnector(server, config, cleartextPort));
+        }
 
-        server.addConnector(httpsConnector);
+        String webContent = config.getString(ConfigKey.SERVER_WEB_CONTENT.getKey());
+        Resource baseResource = Resource.newResource(webContent);
+        boolean gzipEnabled = config.getBoolean(ConfigKey.SERVER_GZIP_ENABLED.getKey());
+        if (gzipEnabled && config.getBoolean(ConfigKey.SERVER_GZIP_PRECOMPRESS.getKey())) {
+            String cacheDirectory = config.getString(ConfigKey.SERVER_GZIP_CACHE_DIRECTORY.getKey());
+            boolean precompressed = new StaticContentCompressor(config.getInt(ConfigKey.SERVER_GZIP_MIN_SIZE.getKey()),
+                    getMimeTypes(config), config.getInt(ConfigKey.SERVER_GZIP_COMPRESSION_LEVEL.getKey()))
+                    .compress(Path.of(webContent), Path.of(cacheDirectory));
+            if (precompressed) {
+                // Content is looked up first, so the cache only ever supplies the .gz files the DefaultServlet asks for
+                baseResource = new ResourceCollection(baseResource, Resource.newResource(cacheDirectory));
+            }
+        }
 
         ServletContextHandler servletContextHandler = new ServletContextHandler(ServletContextHandler.NO_SESSIONS);
         servletContextHandler.setContextPath(ROOT_CONTEXT);
-        servletContextHandler.setBaseResource(Resource.newResource(config.getString(ConfigKey.SERVER_WEB_CONTENT.getKey())));
-        servletContextHandler.addServlet(DefaultServlet.class, ROOT_CONTEXT);
+        servletContextHandler.setBaseResource(baseResource);
+        ServletHolder defaultServletHolder = servletContextHandler.addServlet(DefaultServlet.class, ROOT_CONTEXT);
+        defaultServletHolder.setInitParameter("precompressed", "gzip=.gz");
 
-        server.setHandler(servletContextHandler);
+        LoadSheddingHandler loadSheddingHandler = new LoadSheddingHandler(threadPool,
+                config.getInt(ConfigKey.SERVER_THREADS_QUEUE_SIZE.getKey()),
+                config.getInt(ConfigKey.SERVER_REQUESTS_MAX_IN_FLIGHT.getKey()),
+                config.getLong(ConfigKey.SERVER_THREADS_QUEUE_RETRY_AFTER.getKey()));
+        loadSheddingHandler.setHandler(
+                gzipEnabled ? createGzipHandler(config, servletContextHandler) : servletContextHandler);
+        server.setHandler(loadSheddingHandler);
 
         ApiApplication application = new ApiApplication(environmentSupplier);
         ServletHolder apiServletHolder = new ServletHolder(new ServletContainer(application));
@@ -76,17 +276,44 @@ public class TutorialApiServer {
     public static void main(String... args) throws Exception {
         int port = Integer.parseInt(Optional.ofNullable(System.getProperty(SystemKey.PORT.getKey()))
                 .orElse(SystemKey.PORT.getDefaultValue()));
+        int cleartextPort = Integer.parseInt(Optional.ofNullable(System.getProperty(SystemKey.CLEARTEXT_PORT.getKey()))
+                .orElse(SystemKey.CLEARTEXT_PORT.getDefaultValue()));
         String mode = Optional.ofNullable(System.getProperty(SystemKey.MODE.getKey()))
                 .orElse(SystemKey.MODE.getDefaultValue());
 
         ScheduledExecutorService scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
         scheduledExecutorService.scheduleAtFixedRate(new MemoryLoggingTask(), 2, 2, TimeUnit.MINUTES);
 
-        Supplier<Environment> environmentSupplier = Environment.createEnvironment(scheduledExecutorService, mode);
+        String configLocation = Optional.ofNullable(System.getProperty(SystemKey.CONFIG_LOCATION.getKey()))
+                .orElse(SystemKey.CONFIG_LOCATION.getDefaultValue());
+        ConfigSource configSource = ConfigSource.from(configLocation.replace(SystemKey.MODE_PLACEHOLDER, mode));
+
+        Supplier<Environment> environmentSupplier = Environment.createEnvironment(scheduledExecutorService, configSource);
+
+        Server server = createJettyServer(port, cleartextPort, environmentSupplier);
+
+        // Rotated certificates are only used by new handshakes, established connections keep their own
+        SslContextFactory sslContextFactory = server.getConnectors()[0]
+                .getConnectionFactory(SslConnectionFactory.class).getSslContextFactory();
+        long keyStoreReloadInterval = environmentSupplier.get().getConfig()
+                .getLong(ConfigKey.SERVER_KEYSTORE_RELOAD_INTERVAL.getKey());
+        scheduledExecutorService.scheduleWithFixedDelay(new KeyStoreReloadTask(sslContextFactory, environmentSupplier),
+                keyStoreReloadInterval, keyStoreReloadInterval, TimeUnit.SECONDS);
 
-        Server server = createJettyServer(port, environmentSupplier);
+        // Stopped along with the server, which also happens on JVM shutdown
+        server.setStopAtShutdown(true);
+        server.addEventListener(new LifeCycle.Listener() {
+            @Override
+            public void lifeCycleStopped(LifeCycle event) {
+                configSource.close();
+                scheduledExecutorService.shutdownNow();
+            }
+        });
 
         LOGGER.info("Server starting on port: {}", port);
+        if (server.getConnectors().length > 1) {
+            LOGGER.info("Cleartext connector listening on port: {}", cleartextPort);
+        }
         server.start();
         server.join();
     }
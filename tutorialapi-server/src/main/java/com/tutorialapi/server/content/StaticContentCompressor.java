@@ -0,0 +1,172 @@
+package com.tutorialapi.server.content;
+
+import org.eclipse.jetty.http.MimeTypes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+public class StaticContentCompressor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticContentCompressor.class);
+
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String TEMP_EXTENSION = GZIP_EXTENSION + ".tmp";
+    // Lists every file this class wrote, so stale files can be removed without touching anything else
+    private static final String MANIFEST = ".precompressed";
+
+    private final MimeTypes mimeTypes = new MimeTypes();
+    private final int minSize;
+    private final Set<String> mimeTypeFilter;
+    private final int compressionLevel;
+
+    public StaticContentCompressor(int minSize, Set<String> mimeTypeFilter, int compressionLevel) {
+        this.minSize = minSize;
+        this.mimeTypeFilter = mimeTypeFilter;
+        this.compressionLevel = compressionLevel;
+    }
+
+    public boolean compress(Path directory, Path cacheDirectory) {
+        if (!Files.isDirectory(directory)) {
+            LOGGER.warn("Skipping precompression since {} is not a local directory", directory);
+            return false;
+        }
+        // The content directory may be read-only or shared, so nothing is ever written into it
+        if (cacheDirectory.toAbsolutePath().normalize().startsWith(directory.toAbsolutePath().normalize())) {
+            LOGGER.warn("Skipping precompression since cache directory {} is inside {}", cacheDirectory, directory);
+            return false;
+        }
+        try {
+            Files.createDirectories(cacheDirectory);
+            List<Path> sources;
+            try (Stream<Path> files = Files.walk(directory)) {
+                sources = files.filter(this::isCompressible).collect(Collectors.toList());
+            }
+
+            Map<Path, Path> targets = new LinkedHashMap<>();
+            for (Path file : sources) {
+                targets.put(file, cacheDirectory.resolve(directory.relativize(file).toString() + GZIP_EXTENSION));
+            }
+            // Recorded before writing anything, so files left behind by a failed run are still known to be owned
+            Set<Path> owned = readManifest(cacheDirectory);
+            owned.addAll(targets.values());
+            writeManifest(cacheDirectory, owned);
+
+            int compressed = 0;
+            for (Map.Entry<Path, Path> target : targets.entrySet()) {
+                if (compressFile(target.getKey(), target.getValue())) {
+                    compressed++;
+                }
+            }
+            Set<Path> current = Set.copyOf(targets.values());
+            long removed = removeStale(cacheDirectory, owned, current);
+            writeManifest(cacheDirectory, current);
+            LOGGER.info("Precompressed {} static files from {} into {}, removed {} stale files",
+                    compressed, directory, cacheDirectory, removed);
+        } catch (IOException | UncheckedIOException e) {
+            // The DefaultServlet falls back to the GzipHandler for anything left uncompressed
+            LOGGER.warn("Failed to precompress static files from {} into {}", directory, cacheDirectory, e);
+        }
+        return Files.isDirectory(cacheDirectory);
+    }
+
+    private boolean isCompressible(Path file) {
+        if (!Files.isRegularFile(file) || file.toString().endsWith(GZIP_EXTENSION)) {
+            return false;
+        }
+        String mimeType = mimeTypes.getMimeByExtension(file.toString());
+        if (mimeType == null || !mimeTypeFilter.contains(MimeTypes.getContentTypeWithoutCharset(mimeType))) {
+            return false;
+        }
+        try {
+            return Files.size(file) >= minSize;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean compressFile(Path file, Path target) throws IOException {
+        // Only rewrite when the source changed, the DefaultServlet ignores a .gz older than its source
+        if (Files.exists(target)
+                && !Files.getLastModifiedTime(target).toInstant()
+                .isBefore(Files.getLastModifiedTime(file).toInstant())) {
+            return false;
+        }
+
+        // Written beside the target and moved into place so a request never sees a partial file
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_EXTENSION);
+        try {
+            try (OutputStream out = new LevelGzipOutputStream(Files.newOutputStream(temp), compressionLevel)) {
+                Files.copy(file, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    private static Set<Path> readManifest(Path cacheDirectory) throws IOException {
+        Path manifest = cacheDirectory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            return new HashSet<>();
+        }
+        try (Stream<String> lines = Files.lines(manifest)) {
+            return lines.filter(line -> !line.isBlank()).map(cacheDirectory::resolve).collect(Collectors.toSet());
+        }
+    }
+
+    private static void writeManifest(Path cacheDirectory, Set<Path> files) throws IOException {
+        Path temp = Files.createTempFile(cacheDirectory, MANIFEST, ".tmp");
+        try {
+            Files.write(temp, files.stream().map(file -> cacheDirectory.relativize(file).toString()).sorted()
+                    .collect(Collectors.toList()));
+            Files.move(temp, cacheDirectory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Path getTempTarget(Path temp) {
+        // Temp files are named after their target followed by the random digits createTempFile inserts
+        String name = temp.getFileName().toString();
+        String prefix = name.substring(0, name.length() - TEMP_EXTENSION.length()).replaceFirst("[0-9]+$", "");
+        return temp.resolveSibling(prefix);
+    }
+
+    private static long removeStale(Path cacheDirectory, Set<Path> owned, Set<Path> targets) throws IOException {
+        // Only deletes files listed in the manifest and their partial writes, the directory may hold anything else
+        List<Path> stale;
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            stale = files.filter(Files::isRegularFile)
+                    .filter(file -> file.toString().endsWith(TEMP_EXTENSION) && owned.contains(getTempTarget(file))
+                            || owned.contains(file) && !targets.contains(file))
+                    .collect(Collectors.toList());
+        }
+        for (Path file : stale) {
+            Files.deleteIfExists(file);
+        }
+        return stale.size();
+    }
+
+    private static class LevelGzipOutputStream extends GZIPOutputStream {
+        LevelGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.tutorialapi.server.handler;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.handler.HandlerWrapper;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadSheddingHandler extends HandlerWrapper {
+    private final QueuedThreadPool threadPool;
+    private final int maxQueued;
+    private final int maxInFlight;
+    private final String retryAfterSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadSheddingHandler(QueuedThreadPool threadPool, int maxQueued, int maxInFlight, long retryAfterSeconds) {
+        this.threadPool = threadPool;
+        this.maxQueued = maxQueued;
+        this.maxInFlight = maxInFlight;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void reject(Request baseRequest, HttpServletResponse response) {
+        baseRequest.setHandled(true);
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeader.RETRY_AFTER.asString(), retryAfterSeconds);
+    }
+
+    @Override
+    public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
+            throws IOException, ServletException {
+        // Async redispatches were already counted when the request first came in
+        if (baseRequest.getDispatcherType() != DispatcherType.REQUEST) {
+            super.handle(target, baseRequest, request, response);
+            return;
+        }
+
+        // Platform threads back up in the pool's queue, but virtual threads are started for every request and never
+        // queue, so the number of requests being handled is what bounds the load in that case
+        if (threadPool.getQueueSize() >= maxQueued) {
+            reject(baseRequest, response);
+            return;
+        }
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            reject(baseRequest, response);
+            return;
+        }
+
+        boolean async = false;
+        try {
+            super.handle(target, baseRequest, request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new InFlightListener());
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private class InFlightListener implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.decrementAndGet();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // onComplete still follows
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            // onComplete still follows
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.tutorialapi.server.task;
+
+import com.tutorialapi.model.config.ConfigKey;
+import com.tutorialapi.rest.Environment;
+import com.typesafe.config.Config;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+public class KeyStoreReloadTask implements Runnable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyStoreReloadTask.class);
+
+    private final SslContextFactory sslContextFactory;
+    private final Supplier<Environment> environmentSupplier;
+
+    private String file;
+    private String type;
+    private String password;
+    private FileTime lastModified;
+
+    public KeyStoreReloadTask(SslContextFactory sslContextFactory, Supplier<Environment> environmentSupplier) {
+        this.sslContextFactory = sslContextFactory;
+        this.environmentSupplier = environmentSupplier;
+
+        Config config = environmentSupplier.get().getConfig();
+        this.file = config.getString(ConfigKey.SERVER_KEYSTORE_FILE.getKey());
+        this.type = config.getString(ConfigKey.SERVER_KEYSTORE_TYPE.getKey());
+        this.password = config.getString(ConfigKey.SERVER_KEYSTORE_PASSWORD.getKey());
+        this.lastModified = getLastModified(file);
+    }
+
+    private static FileTime getLastModified(String file) {
+        try {
+            return Files.getLastModifiedTime(Path.of(file));
+        } catch (IOException e) {
+            // Treated as a change, so the reload attempt reports why the keystore cannot be read
+            return null;
+        }
+    }
+
+    private static void verify(String file, String type, String password) throws Exception {
+        try (InputStream inputStream = Files.newInputStream(Path.of(file))) {
+            KeyStore.getInstance(type).load(inputStream, password.toCharArray());
+        }
+    }
+
+    @Override
+    public void run() {
+        // Picks up both a rotated file and keystore settings changed by an environment reload
+        Config config = environmentSupplier.get().getConfig();
+        String newFile = config.getString(ConfigKey.SERVER_KEYSTORE_FILE.getKey());
+        String newType = config.getString(ConfigKey.SERVER_KEYSTORE_TYPE.getKey());
+        String newPassword = config.getString(ConfigKey.SERVER_KEYSTORE_PASSWORD.getKey());
+        FileTime newLastModified = getLastModified(newFile);
+        if (newFile.equals(file) && newType.equals(type) && newPassword.equals(password)
+                && Objects.equals(newLastModified, lastModified)) {
+            return;
+        }
+
+        try {
+            // A half-written or mismatched keystore would leave the factory unable to handshake, so load it first
+            verify(newFile, newType, newPassword);
+            sslContextFactory.reload(factory -> {
+                factory.setKeyStorePath(newFile);
+                factory.setKeyStoreType(newType);
+                factory.setKeyStorePassword(newPassword);
+                factory.setKeyManagerPassword(newPassword);
+            });
+            file = newFile;
+            type = newType;
+            password = newPassword;
+            lastModified = newLastModified;
+            LOGGER.info("Reloaded keystore from {}", newFile);
+        } catch (Exception e) {
+            // Keep serving the current certificate, the next run will try again
+            LOGGER.error("Failed to reload keystore from {}", newFile, e);
+        }
+    }
+}
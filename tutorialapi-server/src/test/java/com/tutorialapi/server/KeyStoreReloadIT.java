@@ -0,0 +1,148 @@
+package com.tutorialapi.server;
+
+import com.tutorialapi.model.config.ConfigKey;
+import com.tutorialapi.rest.Environment;
+import com.tutorialapi.server.task.KeyStoreReloadTask;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.SslConnectionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.util.Properties;
+
+public class KeyStoreReloadIT {
+    private static final String ROTATED_NAME = "CN=rotated.tutorialapi.com";
+
+    // Only the certificate subject matters here, so the client accepts whatever the server presents
+    private static final TrustManager TRUST_ALL = new X509TrustManager() {
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    };
+
+    private static void generateKeyStore(Path file) throws Exception {
+        Path keytool = Path.of(System.getProperty("java.home"), "bin", "keytool");
+        Process process = new ProcessBuilder(keytool.toString(), "-genkeypair", "-keyalg", "RSA", "-keysize", "2048",
+                "-alias", "rotated", "-dname", ROTATED_NAME, "-validity", "1", "-storetype", "PKCS12",
+                "-keystore", file.toString(), "-storepass", "changeit")
+                .redirectErrorStream(true)
+                .start();
+        Assertions.assertEquals(0, process.waitFor());
+    }
+
+    private static SSLSocket connect(SSLContext sslContext, int port) throws IOException {
+        SSLSocket socket = (SSLSocket) sslContext.getSocketFactory().createSocket("localhost", port);
+        socket.startHandshake();
+        return socket;
+    }
+
+    private static String getSubject(SSLSocket socket) throws IOException {
+        return ((X509Certificate) socket.getSession().getPeerCertificates()[0]).getSubjectX500Principal().getName();
+    }
+
+    private static String get(SSLSocket socket) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write("GET /index.html HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII))
+                .readLine();
+    }
+
+    @Test
+    public void testReloadOnRotation() throws Exception {
+        Path directory = Files.createTempDirectory("keystore");
+        Path keyStore = directory.resolve("tutorialapi.p12");
+        Files.copy(Path.of("src/main/resources/certs/tutorialapi.p12"), keyStore);
+        Path rotated = directory.resolve("rotated.p12");
+        generateKeyStore(rotated);
+
+        Properties properties = TutorialApiServerIT.createProperties();
+        properties.setProperty(ConfigKey.SERVER_KEYSTORE_FILE.getKey(), keyStore.toString());
+        Config config = ConfigFactory.parseProperties(properties);
+        Environment environment = new Environment(config, null);
+
+        Server server = TutorialApiServer.createJettyServer(0, 0, () -> environment);
+        server.start();
+        try {
+            int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+            KeyStoreReloadTask task = new KeyStoreReloadTask(server.getConnectors()[0]
+                    .getConnectionFactory(SslConnectionFactory.class).getSslContextFactory(), () -> environment);
+            SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[] {TRUST_ALL}, null);
+
+            try (SSLSocket before = connect(sslContext, port)) {
+                Assertions.assertNotEquals(ROTATED_NAME, getSubject(before));
+
+                Files.copy(rotated, keyStore, StandardCopyOption.REPLACE_EXISTING);
+                // Some filesystems only keep whole seconds, make sure the rotation is visible
+                Files.setLastModifiedTime(keyStore, FileTime.from(Instant.now().plusSeconds(60)));
+                task.run();
+
+                try (SSLSocket after = connect(sslContext, port)) {
+                    Assertions.assertEquals(ROTATED_NAME, getSubject(after));
+                    Assertions.assertEquals("HTTP/1.1 200 OK", get(after));
+                }
+                Assertions.assertEquals("HTTP/1.1 200 OK", get(before));
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testInvalidKeyStoreKeepsCurrent() throws Exception {
+        Path directory = Files.createTempDirectory("keystore");
+        Path keyStore = directory.resolve("tutorialapi.p12");
+        Files.copy(Path.of("src/main/resources/certs/tutorialapi.p12"), keyStore);
+
+        Properties properties = TutorialApiServerIT.createProperties();
+        properties.setProperty(ConfigKey.SERVER_KEYSTORE_FILE.getKey(), keyStore.toString());
+        Config config = ConfigFactory.parseProperties(properties);
+        Environment environment = new Environment(config, null);
+
+        Server server = TutorialApiServer.createJettyServer(0, 0, () -> environment);
+        server.start();
+        try {
+            int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+            KeyStoreReloadTask task = new KeyStoreReloadTask(server.getConnectors()[0]
+                    .getConnectionFactory(SslConnectionFactory.class).getSslContextFactory(), () -> environment);
+
+            Files.writeString(keyStore, "not a keystore");
+            Files.setLastModifiedTime(keyStore, FileTime.from(Instant.now().plusSeconds(60)));
+            task.run();
+
+            try (SSLSocket socket = connect(TutorialApiServerIT.createSslContext(), port)) {
+                Assertions.assertEquals("HTTP/1.1 200 OK", get(socket));
+            }
+        } finally {
+            server.stop();
+        }
+    }
+}
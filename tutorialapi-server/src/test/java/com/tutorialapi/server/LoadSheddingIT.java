@@ -0,0 +1,152 @@
+package com.tutorialapi.server;
+
+import com.tutorialapi.model.config.ConfigKey;
+import com.tutorialapi.rest.Environment;
+import com.tutorialapi.server.handler.LoadSheddingHandler;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LoadSheddingIT {
+    // Two acceptors and two selectors leave four worker threads, so most of these requests have to queue
+    private static final int MAX_THREADS = 8;
+    private static final int MAX_QUEUED = 2;
+    private static final int REQUESTS = 12;
+    private static final int MAX_IN_FLIGHT = 3;
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testShedsLoadWhenQueueFull() throws Exception {
+        Properties properties = TutorialApiServerIT.createProperties();
+        properties.setProperty(ConfigKey.SERVER_THREADS_MIN.getKey(), String.valueOf(MAX_THREADS));
+        properties.setProperty(ConfigKey.SERVER_THREADS_MAX.getKey(), String.valueOf(MAX_THREADS));
+        properties.setProperty(ConfigKey.SERVER_THREADS_RESERVED.getKey(), "0");
+        properties.setProperty(ConfigKey.SERVER_THREADS_QUEUE_SIZE.getKey(), String.valueOf(MAX_QUEUED));
+        properties.setProperty(ConfigKey.SERVER_THREADS_QUEUE_RETRY_AFTER.getKey(), "5");
+        properties.setProperty(ConfigKey.SERVER_CONNECTOR_ACCEPTORS.getKey(), "1");
+        properties.setProperty(ConfigKey.SERVER_CONNECTOR_SELECTORS.getKey(), "1");
+        Config config = ConfigFactory.parseProperties(properties);
+        Environment environment = new Environment(config, null);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Server server = TutorialApiServer.createJettyServer(0, 0, () -> environment);
+        ServerConnector connector = (ServerConnector) server.getConnectors()[1];
+        // Holds every worker thread until the queue has backed up behind them
+        connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration()
+                .addCustomizer((c, httpConfiguration, request) -> await(release));
+        server.start();
+        try {
+            URI uri = URI.create("http://localhost:" + connector.getLocalPort() + "/index.html");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(REQUESTS);
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+
+            QueuedThreadPool threadPool = (QueuedThreadPool) server.getThreadPool();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (threadPool.getQueueSize() <= MAX_QUEUED && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assertions.assertTrue(threadPool.getQueueSize() > MAX_QUEUED);
+            release.countDown();
+
+            int ok = 0;
+            int unavailable = 0;
+            for (CompletableFuture<HttpResponse<Void>> future : responses) {
+                HttpResponse<Void> response = future.join();
+                if (response.statusCode() == 200) {
+                    ok++;
+                } else {
+                    Assertions.assertEquals(503, response.statusCode());
+                    Assertions.assertEquals(Optional.of("5"), response.headers().firstValue("Retry-After"));
+                    unavailable++;
+                }
+            }
+            Assertions.assertTrue(ok > 0);
+            Assertions.assertTrue(unavailable > 0);
+        } finally {
+            release.countDown();
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testShedsLoadWhenTooManyInFlight() throws Exception {
+        // Plenty of threads and queue, so only the in-flight limit can turn requests away, as with virtual threads
+        QueuedThreadPool threadPool = new QueuedThreadPool(32, 32);
+        Server server = new Server(threadPool);
+        ServerConnector connector = new ServerConnector(server);
+        server.addConnector(connector);
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(MAX_IN_FLIGHT);
+        LoadSheddingHandler loadSheddingHandler = new LoadSheddingHandler(threadPool, 1024, MAX_IN_FLIGHT, 5);
+        loadSheddingHandler.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request,
+                               HttpServletResponse response) {
+                started.countDown();
+                await(release);
+                baseRequest.setHandled(true);
+            }
+        });
+        server.setHandler(loadSheddingHandler);
+        server.start();
+        try {
+            URI uri = URI.create("http://localhost:" + connector.getLocalPort() + "/");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            List<CompletableFuture<HttpResponse<Void>>> held = new ArrayList<>(MAX_IN_FLIGHT);
+            for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+                held.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+            Assertions.assertEquals(MAX_IN_FLIGHT, loadSheddingHandler.getInFlight());
+
+            HttpResponse<Void> rejected = client.send(request, HttpResponse.BodyHandlers.discarding());
+            Assertions.assertEquals(503, rejected.statusCode());
+            Assertions.assertEquals(Optional.of("5"), rejected.headers().firstValue("Retry-After"));
+
+            release.countDown();
+            for (CompletableFuture<HttpResponse<Void>> future : held) {
+                Assertions.assertEquals(200, future.join().statusCode());
+            }
+            Assertions.assertEquals(0, loadSheddingHandler.getInFlight());
+        } finally {
+            release.countDown();
+            server.stop();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tutorialapi.server;
+
+import com.tutorialapi.rest.Environment;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import java.io.IOException;
+
+public class TlsHandshakeIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TlsHandshakeIT.class);
+
+    private static final int HANDSHAKES = 500;
+
+    private static Server server;
+    private static int port;
+    private static SSLContext sslContext;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        Config config = ConfigFactory.parseProperties(TutorialApiServerIT.createProperties());
+        Environment environment = new Environment(config, null);
+
+        server = TutorialApiServer.createJettyServer(0, 0, () -> environment);
+        server.start();
+        port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+        sslContext = TutorialApiServerIT.createSslContext();
+    }
+
+    @AfterAll
+    public static void afterAll() throws Exception {
+        server.stop();
+    }
+
+    private static SSLSocket connect() throws IOException {
+        return (SSLSocket) sslContext.getSocketFactory().createSocket("localhost", port);
+    }
+
+    private static SSLSession handshake(boolean resume) throws IOException {
+        try (SSLSocket socket = connect()) {
+            socket.startHandshake();
+            SSLSession session = socket.getSession();
+            if (!resume) {
+                // Dropped from the client cache, so the next connection has nothing to resume
+                session.invalidate();
+            }
+            return session;
+        }
+    }
+
+    private static long run(boolean resume) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < HANDSHAKES; i++) {
+            handshake(resume);
+        }
+        return System.nanoTime() - start;
+    }
+
+    @Test
+    public void testTls13Preferred() throws Exception {
+        Assertions.assertEquals("TLSv1.3", handshake(false).getProtocol());
+    }
+
+    @Test
+    public void testExcludedCipherRejected() throws Exception {
+        try (SSLSocket socket = connect()) {
+            // RSA key exchange has no forward secrecy and is left out of the default cipher list
+            socket.setEnabledProtocols(new String[] {"TLSv1.2"});
+            socket.setEnabledCipherSuites(new String[] {"TLS_RSA_WITH_AES_128_GCM_SHA256"});
+            Assertions.assertThrows(SSLException.class, socket::startHandshake);
+        }
+    }
+
+    @Test
+    public void testHandshakeThroughput() throws Exception {
+        // Warm up first so class loading and JIT do not count against whichever runs first
+        run(false);
+        run(true);
+
+        long full = run(false);
+        long resumed = run(true);
+        LOGGER.info("{} sequential handshakes: full {} per second, resumed {} per second", HANDSHAKES,
+                HANDSHAKES * 1_000_000_000L / full, HANDSHAKES * 1_000_000_000L / resumed);
+    }
+}
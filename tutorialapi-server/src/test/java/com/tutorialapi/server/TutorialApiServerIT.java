@@ -0,0 +1,176 @@
+package com.tutorialapi.server;
+
+import com.tutorialapi.model.config.ConfigKey;
+import com.tutorialapi.rest.Environment;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.cert.CertificateFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TutorialApiServerIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TutorialApiServerIT.class);
+
+    private static final Path CERTS = Path.of("src/main/resources/certs");
+    private static final int CONCURRENCY = 32;
+    private static final int REQUESTS = 4000;
+
+    private static Server server;
+    private static URI uri;
+    private static URI cleartextUri;
+    private static SSLContext sslContext;
+
+    static Properties createProperties() {
+        Properties properties = new Properties();
+        for (ConfigKey configKey : ConfigKey.values()) {
+            configKey.getDefaultValue().ifPresent(value -> properties.setProperty(configKey.getKey(), value));
+        }
+        properties.setProperty(ConfigKey.SERVER_KEYSTORE_FILE.getKey(), CERTS.resolve("tutorialapi.p12").toString());
+        properties.setProperty(ConfigKey.SERVER_KEYSTORE_TYPE.getKey(), "PKCS12");
+        properties.setProperty(ConfigKey.SERVER_KEYSTORE_PASSWORD.getKey(), "changeit");
+        properties.setProperty(ConfigKey.SERVER_WEB_CONTENT.getKey(), "src/main/resources/www");
+        properties.setProperty(ConfigKey.SERVER_GZIP_PRECOMPRESS.getKey(), "false");
+        properties.setProperty(ConfigKey.SERVER_CLEARTEXT_ENABLED.getKey(), "true");
+        return properties;
+    }
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        Config config = ConfigFactory.parseProperties(createProperties());
+        Environment environment = new Environment(config, null);
+
+        server = TutorialApiServer.createJettyServer(0, 0, () -> environment);
+        server.start();
+        int port = ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+        uri = URI.create("https://localhost:" + port + "/index.html");
+        int cleartextPort = ((ServerConnector) server.getConnectors()[1]).getLocalPort();
+        cleartextUri = URI.create("http://localhost:" + cleartextPort + "/index.html");
+        sslContext = createSslContext();
+    }
+
+    @AfterAll
+    public static void afterAll() throws Exception {
+        server.stop();
+    }
+
+    static SSLContext createSslContext() throws Exception {
+        KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        trustStore.load(null, null);
+        try (InputStream ca = Files.newInputStream(CERTS.resolve("ca.crt"))) {
+            trustStore.setCertificateEntry("ca", CertificateFactory.getInstance("X.509").generateCertificate(ca));
+        }
+        TrustManagerFactory trustManagerFactory =
+                TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(trustStore);
+
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagerFactory.getTrustManagers(), null);
+        return context;
+    }
+
+    private static HttpClient createClient(HttpClient.Version version) {
+        return HttpClient.newBuilder().version(version).sslContext(sslContext).build();
+    }
+
+    private static HttpResponse<String> get(HttpClient client) throws IOException, InterruptedException {
+        return get(client, uri);
+    }
+
+    private static HttpResponse<String> get(HttpClient client, URI target) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(target).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long run(HttpClient.Version version) throws Exception {
+        HttpClient client = createClient(version);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            long start = System.nanoTime();
+            List<Future<Integer>> futures = new ArrayList<>(CONCURRENCY);
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(executor.submit(() -> {
+                    int ok = 0;
+                    for (int j = 0; j < REQUESTS / CONCURRENCY; j++) {
+                        HttpResponse<String> response = get(client);
+                        if (response.statusCode() == 200 && response.version() == version) {
+                            ok++;
+                        }
+                    }
+                    return ok;
+                }));
+            }
+            int ok = 0;
+            for (Future<Integer> future : futures) {
+                ok += future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            Assertions.assertEquals(REQUESTS / CONCURRENCY * CONCURRENCY, ok);
+            return elapsed;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testHttp2Negotiated() throws Exception {
+        HttpResponse<String> response = get(createClient(HttpClient.Version.HTTP_2));
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals(HttpClient.Version.HTTP_2, response.version());
+    }
+
+    @Test
+    public void testHttp1Fallback() throws Exception {
+        HttpResponse<String> response = get(createClient(HttpClient.Version.HTTP_1_1));
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+    }
+
+    @Test
+    public void testCleartextHttp1() throws Exception {
+        HttpResponse<String> response = get(createClient(HttpClient.Version.HTTP_1_1), cleartextUri);
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+    }
+
+    @Test
+    public void testCleartextH2cUpgrade() throws Exception {
+        HttpResponse<String> response = get(createClient(HttpClient.Version.HTTP_2), cleartextUri);
+        Assertions.assertEquals(200, response.statusCode());
+        Assertions.assertEquals(HttpClient.Version.HTTP_2, response.version());
+    }
+
+    @Test
+    public void testManySmallRequests() throws Exception {
+        // Warm up both protocols first so class loading and JIT do not count against whichever runs first
+        run(HttpClient.Version.HTTP_1_1);
+        run(HttpClient.Version.HTTP_2);
+
+        long http1 = run(HttpClient.Version.HTTP_1_1);
+        long http2 = run(HttpClient.Version.HTTP_2);
+        LOGGER.info("{} requests over {} threads: HTTP/1.1 {} req/s, HTTP/2 {} req/s", REQUESTS, CONCURRENCY,
+                REQUESTS * 1_000_000_000L / http1, REQUESTS * 1_000_000_000L / http2);
+    }
+}
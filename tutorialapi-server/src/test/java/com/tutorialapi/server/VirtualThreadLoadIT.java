@@ -0,0 +1,119 @@
+package com.tutorialapi.server;
+
+import com.tutorialapi.model.config.ConfigKey;
+import com.tutorialapi.rest.Environment;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.VirtualThreads;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class VirtualThreadLoadIT {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadLoadIT.class);
+
+    // More concurrent requests than the default QueuedThreadPool has threads
+    private static final int CONCURRENCY = 300;
+    private static final long BLOCKING_MILLIS = 2000;
+
+    private record Load(List<Long> latencies, int peakInFlight, int maxThreads) {
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get((int) Math.ceil(percentile * sorted.size()) - 1));
+    }
+
+    private static Load load(boolean virtualThreads) throws Exception {
+        Properties properties = TutorialApiServerIT.createProperties();
+        properties.setProperty(ConfigKey.SERVER_VIRTUAL_THREADS.getKey(), String.valueOf(virtualThreads));
+        Config config = ConfigFactory.parseProperties(properties);
+        Environment environment = new Environment(config, null);
+
+        Server server = TutorialApiServer.createJettyServer(0, 0, () -> environment);
+        ServerConnector connector = (ServerConnector) server.getConnectors()[1];
+        // Stands in for a JDBC call on a slow disk, holding each request until every request is in flight, so the
+        // peak only depends on how many requests the server can block at once rather than on timing
+        CountDownLatch arrived = new CountDownLatch(CONCURRENCY);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        connector.getConnectionFactory(HttpConnectionFactory.class).getHttpConfiguration()
+                .addCustomizer((c, httpConfiguration, request) -> {
+                    peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    arrived.countDown();
+                    try {
+                        arrived.await(BLOCKING_MILLIS, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+        server.start();
+        try {
+            URI uri = URI.create("http://localhost:" + connector.getLocalPort() + "/index.html");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+
+            List<CompletableFuture<Long>> latencies = new ArrayList<>(CONCURRENCY);
+            for (int i = 0; i < CONCURRENCY; i++) {
+                long start = System.nanoTime();
+                latencies.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> {
+                            Assertions.assertEquals(200, response.statusCode());
+                            return System.nanoTime() - start;
+                        }));
+            }
+            List<Long> sorted = latencies.stream().map(CompletableFuture::join).sorted().collect(Collectors.toList());
+            LOGGER.info("{} threads, {} concurrent requests: peak {} in flight, p50 {}ms, p99 {}ms, max {}ms",
+                    virtualThreads ? "Virtual" : "Platform", CONCURRENCY, peakInFlight.get(),
+                    percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 1));
+            return new Load(sorted, peakInFlight.get(), config.getInt(ConfigKey.SERVER_THREADS_MAX.getKey()));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void testPlatformThreads() throws Exception {
+        Load platform = load(false);
+        Assertions.assertEquals(CONCURRENCY, platform.latencies().size());
+        // Every platform thread blocked in a request is one the pool cannot hand to the next request
+        Assertions.assertTrue(platform.peakInFlight() <= platform.maxThreads(),
+                "Peak " + platform.peakInFlight() + " in flight, " + platform.maxThreads() + " platform threads");
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        Assumptions.assumeTrue(VirtualThreads.areSupported(),
+                "Virtual threads need Java 21 or newer, run with -Dvirtual.threads.jvm=<path to java>");
+
+        Load platform = load(false);
+        Load virtual = load(true);
+
+        Assertions.assertEquals(CONCURRENCY, virtual.latencies().size());
+        // Virtual threads block without holding a pool thread, so more requests are in flight than the pool has
+        Assertions.assertTrue(virtual.peakInFlight() > platform.maxThreads(),
+                "Peak " + virtual.peakInFlight() + " in flight, " + platform.maxThreads() + " platform threads");
+        // Latencies depend on the machine, so they are only logged for comparison
+        LOGGER.info("Virtual p99 {}ms, platform p99 {}ms",
+                percentile(virtual.latencies(), 0.99), percentile(platform.latencies(), 0.99));
+    }
+}
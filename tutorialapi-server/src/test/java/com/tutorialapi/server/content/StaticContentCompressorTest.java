@@ -0,0 +1,114 @@
+package com.tutorialapi.server.content;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public class StaticContentCompressorTest {
+    private static final String HTML = "<html>" + "x".repeat(2048) + "</html>";
+
+    private final StaticContentCompressor compressor = new StaticContentCompressor(1024, Set.of("text/html"), 6);
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).map(directory::relativize).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testCompressesIntoCacheDirectory(@TempDir Path tempDir) throws IOException {
+        Path content = Files.createDirectories(tempDir.resolve("www/docs"));
+        Files.writeString(content.resolve("index.html"), HTML);
+        Files.writeString(content.resolve("small.html"), "<html></html>");
+        Files.writeString(content.resolve("style.css"), HTML);
+        Path cache = tempDir.resolve("cache");
+
+        Assertions.assertTrue(compressor.compress(tempDir.resolve("www"), cache));
+        // Nothing is written into the content directory, which may well be read-only
+        Assertions.assertEquals(List.of(Path.of("docs/index.html"), Path.of("docs/small.html"),
+                Path.of("docs/style.css")), list(tempDir.resolve("www")));
+        Assertions.assertEquals(List.of(Path.of(".precompressed"), Path.of("docs/index.html.gz")), list(cache));
+        Assertions.assertEquals(HTML, gunzip(cache.resolve("docs/index.html.gz")));
+    }
+
+    @Test
+    public void testRewritesOnlyChangedFiles(@TempDir Path tempDir) throws IOException {
+        Path content = Files.createDirectories(tempDir.resolve("www"));
+        Path source = Files.writeString(content.resolve("index.html"), HTML);
+        Path cache = tempDir.resolve("cache");
+        Assertions.assertTrue(compressor.compress(content, cache));
+
+        Path target = cache.resolve("index.html.gz");
+        FileTime compressed = FileTime.from(Instant.now().plusSeconds(60));
+        Files.setLastModifiedTime(target, compressed);
+        Assertions.assertTrue(compressor.compress(content, cache));
+        Assertions.assertEquals(compressed, Files.getLastModifiedTime(target));
+
+        Files.writeString(source, HTML + "changed");
+        Files.setLastModifiedTime(source, FileTime.from(Instant.now().plusSeconds(120)));
+        Assertions.assertTrue(compressor.compress(content, cache));
+        Assertions.assertEquals(HTML + "changed", gunzip(target));
+    }
+
+    @Test
+    public void testRemovesStaleFiles(@TempDir Path tempDir) throws IOException {
+        Path content = Files.createDirectories(tempDir.resolve("www"));
+        Files.writeString(content.resolve("index.html"), HTML);
+        Path deleted = Files.writeString(content.resolve("deleted.html"), HTML);
+        Path cache = tempDir.resolve("cache");
+        Assertions.assertTrue(compressor.compress(content, cache));
+
+        Files.delete(deleted);
+        Files.writeString(cache.resolve("index.html.gz123.gz.tmp"), "partial");
+        Assertions.assertTrue(compressor.compress(content, cache));
+        Assertions.assertEquals(List.of(Path.of(".precompressed"), Path.of("index.html.gz")), list(cache));
+        Assertions.assertEquals(List.of("index.html.gz"), Files.readAllLines(cache.resolve(".precompressed")));
+    }
+
+    @Test
+    public void testKeepsFilesNotWritten(@TempDir Path tempDir) throws IOException {
+        Path content = Files.createDirectories(tempDir.resolve("www"));
+        Files.writeString(content.resolve("index.html"), HTML);
+        Path cache = Files.createDirectories(tempDir.resolve("cache"));
+        Files.writeString(cache.resolve("other.html.gz"), "kept");
+        Files.writeString(cache.resolve("other.html.gz123.gz.tmp"), "kept");
+        Files.writeString(cache.resolve("other.txt"), "kept");
+
+        Assertions.assertTrue(compressor.compress(content, cache));
+        Assertions.assertEquals(List.of(Path.of(".precompressed"), Path.of("index.html.gz"),
+                Path.of("other.html.gz"), Path.of("other.html.gz123.gz.tmp"), Path.of("other.txt")), list(cache));
+    }
+
+    @Test
+    public void testSkipsCacheInsideContent(@TempDir Path tempDir) throws IOException {
+        Files.writeString(tempDir.resolve("index.html"), HTML);
+
+        Assertions.assertFalse(compressor.compress(tempDir, tempDir.resolve("cache")));
+        Assertions.assertEquals(List.of(Path.of("index.html")), list(tempDir));
+    }
+
+    @Test
+    public void testSkipsMissingContent(@TempDir Path tempDir) {
+        Assertions.assertFalse(compressor.compress(tempDir.resolve("missing"), tempDir.resolve("cache")));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("cache")));
+    }
+}